@@ -4,13 +4,20 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import io.github.cdimascio.dotenv.Dotenv;
 
+import java.util.Map;
+
 @SpringBootApplication
 public class PatientRecordSystemApplication {
 
 	public static void main(String[] args) {
 		Dotenv dotenv = Dotenv.load();
 		dotenv.entries().forEach(e -> System.setProperty(e.getKey(), e.getValue()));
-		SpringApplication.run(PatientRecordSystemApplication.class, args);
+		SpringApplication application = new SpringApplication(PatientRecordSystemApplication.class);
+		// Hibernate logs every failed statement at ERROR before rethrowing it; the exception
+		// handler already logs unexpected ones, and foreign key violations on writes are
+		// expected 404s (see GlobalExceptionHandler). Overridable in application.properties.
+		application.setDefaultProperties(Map.of("logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper", "OFF"));
+		application.run(args);
 	}
 
 }
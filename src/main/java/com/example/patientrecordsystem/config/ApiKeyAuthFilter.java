@@ -0,0 +1,45 @@
+package com.example.patientrecordsystem.config;
+
+import com.example.patientrecordsystem.service.ApiKeyService;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Servlet filter that authenticates machine clients by the {@code X-API-Key} header.
+ *
+ * <p>Runs next to {@link JwtAuthFilter}; requests without the header, or already
+ * authenticated ones, pass through untouched. The key is resolved through
+ * {@link ApiKeyService}, which serves repeated keys from memory. An unknown or revoked
+ * key leaves the request unauthenticated.
+ */
+public class ApiKeyAuthFilter extends GenericFilter {
+
+    public static final String HEADER = "X-API-Key";
+
+    private final ApiKeyService apiKeyService;
+
+    public ApiKeyAuthFilter(ApiKeyService apiKeyService) {
+        this.apiKeyService = apiKeyService;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        String apiKey = ((HttpServletRequest) request).getHeader(HEADER);
+
+        if (apiKey != null && !apiKey.isBlank() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<AuthenticatedUser> principal = apiKeyService.authenticate(apiKey);
+            if (principal.isPresent()) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(principal.get(), null, principal.get().authorities());
+
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.patientrecordsystem.config;
+
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.service.JwtClaims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Security principal placed in the Spring Security context for authenticated requests.
+ *
+ * <p>Holds only the user attributes needed by controllers, never the password hash, so
+ * it is safe to keep in caches. It is built either from the claims of a self-contained
+ * access token or, as a fallback, from the {@link User} entity.
+ *
+ * @param id the user id
+ * @param email the user email
+ * @param firstName the user first name
+ * @param lastName the user last name
+ * @param role the user role
+ * @param phone the user phone number
+ */
+public record AuthenticatedUser(
+        UUID id,
+        String email,
+        String firstName,
+        String lastName,
+        String role,
+        String phone
+) {
+
+    /**
+     * Creates a principal from a user entity.
+     *
+     * @param user the user entity
+     * @return the principal
+     */
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getRole(),
+                user.getPhone()
+        );
+    }
+
+    /**
+     * Creates a principal from the claims of a self-contained access token.
+     *
+     * @param claims the verified token claims
+     * @return the principal
+     */
+    public static AuthenticatedUser from(JwtClaims claims) {
+        return new AuthenticatedUser(
+                claims.userId(),
+                claims.subject(),
+                claims.firstName(),
+                claims.lastName(),
+                claims.role(),
+                claims.phone()
+        );
+    }
+
+    /**
+     * Returns the granted authorities derived from the role, e.g. {@code ROLE_DOCTOR}.
+     *
+     * @return the authorities, empty if the user has no role
+     */
+    public List<GrantedAuthority> authorities() {
+        if (role == null || role.isBlank()) {
+            return Collections.emptyList();
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.patientrecordsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose work factor is chosen for the machine it runs on.
+ *
+ * <p>{@link #calibrate(long, int, int)} times a hash at a cheap reference cost and
+ * extrapolates to the highest cost whose hash stays within the target latency; every
+ * extra cost step doubles the work. {@link #upgradeEncoding(String)} reports any stored
+ * hash whose cost is below the chosen one, so callers can rehash it after a successful
+ * login. Hashes with a higher cost are kept: instances on different hardware calibrate to
+ * different costs, and rehashing down would make them undo each other's upgrades. Pin the
+ * cost with {@code auth.bcrypt.strength} to give every instance the same one.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 31;
+    private static final int REFERENCE_COST = 8;
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Creates an encoder whose cost hashes in about {@code targetMillis} on this machine.
+     *
+     * @param targetMillis the target latency of a single hash
+     * @param minStrength the lowest cost that may be chosen, whatever the hardware
+     * @param maxStrength the highest cost that may be chosen
+     * @return the calibrated encoder
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength) {
+        String salt = BCrypt.gensalt(REFERENCE_COST);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double referenceMillis = Math.max(best / 1_000_000.0, 0.01);
+        int steps = (int) Math.floor(Math.log(targetMillis / referenceMillis) / Math.log(2));
+        int strength = clamp(REFERENCE_COST + steps, Math.max(minStrength, MIN_COST), Math.min(maxStrength, MAX_COST));
+        logger.info("BCrypt cost {} hashes in ~{} ms (cost {} took {} ms, target {} ms)", strength,
+                Math.round(referenceMillis * Math.pow(2, strength - REFERENCE_COST)),
+                REFERENCE_COST, Math.round(referenceMillis), targetMillis);
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Tells whether a stored hash was produced with a lower cost than this encoder's.
+     *
+     * @param encodedPassword the stored hash
+     * @return {@code true} if the hash should be recomputed
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) < strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.patientrecordsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate settings that apply regardless of the deployment's property files.
+ *
+ * <p>Enables JDBC batching of inserts and updates ({@code app.jpa.batch-size} statements
+ * per round trip) and orders them by entity so that consecutive statements can share a
+ * batch. Entities use application-generated UUID ids, so inserts are batchable.
+ *
+ * <p>All to-one associations are lazy. When code does walk from a page of entities to
+ * their associations, uninitialized proxies of the same type are loaded together, up to
+ * {@code app.jpa.fetch-batch-size} ids per {@code IN} query, so the statement count of a
+ * page does not grow with its size.
+ *
+ * <p>{@code IN}-list parameters are padded to the next power of two, so batch lookups of
+ * varying sizes share a handful of statement shapes in the statement and plan caches.
+ */
+@Configuration
+public class JpaConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer batchingCustomizer(@Value("${app.jpa.batch-size:50}") int batchSize,
+                                                            @Value("${app.jpa.fetch-batch-size:50}") int fetchBatchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.default_batch_fetch_size", fetchBatchSize);
+            properties.putIfAbsent("hibernate.query.in_clause_parameter_padding", true);
+        };
+    }
+}
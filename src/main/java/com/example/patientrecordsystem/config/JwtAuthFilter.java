@@ -1,8 +1,10 @@
 package com.example.patientrecordsystem.config;
 
-import com.example.patientrecordsystem.entity.User;
-import com.example.patientrecordsystem.repository.UserRepository;
-import com.example.patientrecordsystem.service.JwtService;
+import com.example.patientrecordsystem.service.JwtClaims;
+import com.example.patientrecordsystem.service.TokenRevocationService;
+import com.example.patientrecordsystem.service.TokenVerifier;
+import com.example.patientrecordsystem.service.UserPrincipalCache;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -10,27 +12,42 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.Optional;
 
 /**
  * Servlet filter that validates JWT tokens provided in the HTTP `Authorization` header
  * and sets the Spring Security context accordingly.
  *
- * <p>The filter extracts the bearer token, resolves the user email from the token using
- * {@link com.example.patientrecordsystem.service.JwtService} and loads user details from
- * {@link com.example.patientrecordsystem.repository.UserRepository}.
+ * <p>The filter verifies the bearer token using a
+ * {@link com.example.patientrecordsystem.service.TokenVerifier}, either
+ * {@link com.example.patientrecordsystem.service.JwtService} directly or the
+ * {@link com.example.patientrecordsystem.service.VerifiedTokenCache} in front of it. Self-contained tokens are
+ * turned into an {@link AuthenticatedUser} straight from their claims, without any
+ * database access. Older tokens, or every token when {@code tokenPrincipals} is disabled,
+ * resolve the principal through
+ * {@link com.example.patientrecordsystem.service.UserPrincipalCache}.
+ *
+ * <p>Tokens revoked through {@link TokenRevocationService} are ignored; that check is an
+ * in-memory lookup. The verified {@link JwtClaims} are kept as the authentication details
+ * so that endpoints such as logout can use them without parsing the token again.
  */
 public class JwtAuthFilter extends GenericFilter {
 
-    private final JwtService jwtService;
+    private final TokenVerifier tokenVerifier;
+
+    private final TokenRevocationService revocationService;
+
+    private final UserPrincipalCache principalCache;
 
-    private final UserRepository userRepository;
+    private final boolean tokenPrincipals;
 
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
-        this.jwtService = jwtService;
-        this.userRepository = userRepository;
+    public JwtAuthFilter(TokenVerifier tokenVerifier, TokenRevocationService revocationService,
+                         UserPrincipalCache principalCache, boolean tokenPrincipals) {
+        this.tokenVerifier = tokenVerifier;
+        this.revocationService = revocationService;
+        this.principalCache = principalCache;
+        this.tokenPrincipals = tokenPrincipals;
     }
 
     @Override
@@ -40,13 +57,33 @@ public class JwtAuthFilter extends GenericFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            String email = jwtService.extractEmail(token);
-            Optional<User> userDetails = userRepository.findByEmail(email);
-            UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, Collections.emptyList());
+            JwtClaims claims;
+            try {
+                claims = tokenVerifier.parse(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                chain.doFilter(request, response);
+                return;
+            }
+            if (revocationService.isRevoked(claims)) {
+                chain.doFilter(request, response);
+                return;
+            }
+            Optional<AuthenticatedUser> principal = resolvePrincipal(claims);
+            if (principal.isPresent()) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(principal.get(), null, principal.get().authorities());
+                authToken.setDetails(claims);
 
-            SecurityContextHolder.getContext().setAuthentication(authToken);
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
         }
         chain.doFilter(request, response);
     }
+
+    private Optional<AuthenticatedUser> resolvePrincipal(JwtClaims claims) {
+        if (tokenPrincipals && claims.isSelfContained()) {
+            return Optional.of(AuthenticatedUser.from(claims));
+        }
+        return principalCache.get(claims.subject());
+    }
 }
@@ -0,0 +1,14 @@
+package com.example.patientrecordsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@link org.springframework.scheduling.annotation.Scheduled} maintenance tasks,
+ * such as the token denylist sync in
+ * {@link com.example.patientrecordsystem.service.TokenRevocationService}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,16 +1,20 @@
 package com.example.patientrecordsystem.config;
 
 import com.example.patientrecordsystem.config.JwtAuthFilter;
-import com.example.patientrecordsystem.repository.UserRepository;
+import com.example.patientrecordsystem.service.ApiKeyService;
 import com.example.patientrecordsystem.service.AuthService;
 import com.example.patientrecordsystem.service.JwtService;
+import com.example.patientrecordsystem.service.TokenRevocationService;
+import com.example.patientrecordsystem.service.UserPrincipalCache;
+import com.example.patientrecordsystem.service.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -30,9 +34,51 @@ import java.util.List;
  */
 public class SecurityConfig {
 
+    /**
+     * Registers the JWT filter.
+     *
+     * <p>Set {@code auth.token-principal.enabled=false} to build every principal from the
+     * {@code users} table instead of the access token claims, and
+     * {@code jwt.verified-cache.enabled=false} to verify the signature of every request
+     * instead of going through {@link VerifiedTokenCache}.
+     */
     @Bean
-    public JwtAuthFilter jwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
-        return new JwtAuthFilter(jwtService, userRepository);
+    public JwtAuthFilter jwtAuthFilter(JwtService jwtService, VerifiedTokenCache verifiedTokenCache,
+                                       TokenRevocationService revocationService,
+                                       UserPrincipalCache principalCache,
+                                       @Value("${jwt.verified-cache.enabled:true}") boolean cacheVerifiedTokens,
+                                       @Value("${auth.token-principal.enabled:true}") boolean tokenPrincipals) {
+        return new JwtAuthFilter(cacheVerifiedTokens ? verifiedTokenCache : jwtService, revocationService,
+                principalCache, tokenPrincipals);
+    }
+
+    /**
+     * Keeps Spring Boot from also registering {@link JwtAuthFilter} as a servlet filter;
+     * it only needs to run once, inside the security filter chain.
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter jwtAuthFilter) {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(jwtAuthFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * Registers the API key filter for machine clients.
+     */
+    @Bean
+    public ApiKeyAuthFilter apiKeyAuthFilter(ApiKeyService apiKeyService) {
+        return new ApiKeyAuthFilter(apiKeyService);
+    }
+
+    /**
+     * Keeps Spring Boot from also registering {@link ApiKeyAuthFilter} as a servlet filter.
+     */
+    @Bean
+    public FilterRegistrationBean<ApiKeyAuthFilter> apiKeyAuthFilterRegistration(ApiKeyAuthFilter apiKeyAuthFilter) {
+        FilterRegistrationBean<ApiKeyAuthFilter> registration = new FilterRegistrationBean<>(apiKeyAuthFilter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
@@ -50,16 +96,22 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
-                                           JwtAuthFilter jwtAuthFilter) throws Exception {
+                                           JwtAuthFilter jwtAuthFilter,
+                                           ApiKeyAuthFilter apiKeyAuthFilter) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/auth/register/bulk").hasRole("ADMIN")
                         .requestMatchers("/api/auth/**", "/v3/api-docs/**",
                                 "/swagger-ui.html", "/swagger-ui/**", "/api/pay/**", "/api/bill/**").permitAll()
+                        .requestMatchers("/api/api-keys/**").hasRole("ADMIN")
+                        .requestMatchers("/api/clinical-notes/rebuild").hasRole("ADMIN")
+                        .requestMatchers("/api/users/*/role").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(apiKeyAuthFilter, JwtAuthFilter.class);
 
         return http.build();
     }
@@ -67,9 +119,22 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
+    /**
+     * BCrypt encoder with a work factor chosen at startup.
+     *
+     * <p>{@code auth.bcrypt.strength} pins the cost explicitly. Otherwise the cost is
+     * calibrated to hash in about {@code auth.bcrypt.target-ms} on this machine, bounded by
+     * {@code auth.bcrypt.min-strength} and {@code auth.bcrypt.max-strength}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.bcrypt.target-ms:250}") long targetMillis,
+                                           @Value("${auth.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${auth.bcrypt.max-strength:16}") int maxStrength) {
+        if (strength > 0) {
+            return new CalibratedBCryptPasswordEncoder(strength);
+        }
+        return CalibratedBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
     }
 
 
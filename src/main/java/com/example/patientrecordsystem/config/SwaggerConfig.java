@@ -2,6 +2,7 @@ package com.example.patientrecordsystem.config;
 
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.enums.SecuritySchemeIn;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,13 +12,14 @@ import org.springframework.context.annotation.Configuration;
 /**
  * OpenAPI / Swagger configuration for the Patient Record Service API.
  *
- * <p>Declares API metadata and a JWT bearer security scheme so the generated OpenAPI
- * specification indicates the need for bearer authentication where applicable.
+ * <p>Declares API metadata, a JWT bearer security scheme and an {@code X-API-Key} scheme
+ * for machine clients, so the generated OpenAPI specification indicates the need for
+ * authentication where applicable.
  */
 @Configuration
 @OpenAPIDefinition(
         info = @Info(title = "Patient Record Service API", version = "1.0"),
-        security = @SecurityRequirement(name = "bearerAuth")
+        security = {@SecurityRequirement(name = "bearerAuth"), @SecurityRequirement(name = "apiKeyAuth")}
 )
 @SecurityScheme(
         name = "bearerAuth",
@@ -25,6 +27,12 @@ import org.springframework.context.annotation.Configuration;
         scheme = "bearer",
         bearerFormat = "JWT"
 )
+@SecurityScheme(
+        name = "apiKeyAuth",
+        type = SecuritySchemeType.APIKEY,
+        in = SecuritySchemeIn.HEADER,
+        paramName = ApiKeyAuthFilter.HEADER
+)
 public class SwaggerConfig {
 
 }
@@ -0,0 +1,61 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.ApiKeyCreateRequest;
+import com.example.patientrecordsystem.dto.ApiKeyResponse;
+import com.example.patientrecordsystem.service.ApiKeyService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST controller for API keys used by machine clients.
+ *
+ * <p>Supports issuing, listing and revoking keys. Restricted to administrators by
+ * {@link com.example.patientrecordsystem.config.SecurityConfig}.
+ */
+@RestController
+@RequestMapping("/api/api-keys")
+public class ApiKeyController {
+
+    private final ApiKeyService apiKeyService;
+
+    public ApiKeyController(ApiKeyService apiKeyService) {
+        this.apiKeyService = apiKeyService;
+    }
+
+    /**
+     * Issues a new API key.
+     *
+     * @param req the API key creation request
+     * @return the created key; the raw key is only returned here
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ApiKeyResponse create(@Valid @RequestBody ApiKeyCreateRequest req) {
+        return apiKeyService.create(req);
+    }
+
+    /**
+     * Lists all API keys.
+     *
+     * @return a list of API key responses
+     */
+    @GetMapping
+    public List<ApiKeyResponse> list() {
+        return apiKeyService.list();
+    }
+
+    /**
+     * Revokes an API key.
+     *
+     * @param id the API key id
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revoke(@PathVariable UUID id) {
+        apiKeyService.revoke(id);
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.AppointmentCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.AppointmentSearchCriteria;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.service.AppointmentService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -27,24 +31,68 @@ public class AppointmentController {
     }
 
     /**
-     * Lists all appointments.
+     * Lists appointments one page at a time.
      *
-     * @return a list of appointment responses
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @param fields comma-separated response fields to return; omit for all fields
+     * @return one page of appointments and the cursor of the next page
      */
     @GetMapping
-    public List<AppointmentResponse> list() {
-        return appointmentService.list();
+    public PageResponse<?> list(@RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String fields) {
+        return fields == null ? appointmentService.list(cursor, limit) : appointmentService.list(cursor, limit, fields);
+    }
+
+    /**
+     * Loads several appointments by id in one request.
+     *
+     * @param req the ids to load
+     * @return the appointments found, in request order, and the ids that do not exist
+     */
+    @PostMapping("/batch-get")
+    public BatchGetResponse<AppointmentResponse> batchGet(@RequestBody BatchGetRequest req) {
+        return appointmentService.batchGet(req.ids());
+    }
+
+    /**
+     * Searches appointments by doctor, patient, department, status and date range, in
+     * date order, one page at a time.
+     *
+     * @param doctorId only appointments with this doctor
+     * @param patientId only appointments of this patient
+     * @param departmentId only appointments in this department
+     * @param status only appointments with this status
+     * @param from only appointments at or after this instant (ISO-8601)
+     * @param to only appointments before this instant (ISO-8601)
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @return one page of matching appointments and the cursor of the next page
+     */
+    @GetMapping("/search")
+    public PageResponse<AppointmentResponse> search(@RequestParam(required = false) UUID doctorId,
+                                                    @RequestParam(required = false) UUID patientId,
+                                                    @RequestParam(required = false) UUID departmentId,
+                                                    @RequestParam(required = false) String status,
+                                                    @RequestParam(required = false) Instant from,
+                                                    @RequestParam(required = false) Instant to,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit) {
+        return appointmentService.search(
+                new AppointmentSearchCriteria(doctorId, patientId, departmentId, status, from, to), cursor, limit);
     }
 
     /**
      * Retrieves an appointment by id.
      *
      * @param id the appointment id
+     * @param fields comma-separated response fields to return; omit for all fields
      * @return the appointment response
      */
     @GetMapping("/{id}")
-    public AppointmentResponse get(@PathVariable UUID id) {
-        return appointmentService.get(id);
+    public Object get(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        return fields == null ? appointmentService.get(id) : appointmentService.get(id, fields);
     }
 
     /**
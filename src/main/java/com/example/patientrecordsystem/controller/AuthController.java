@@ -1,11 +1,20 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.config.AuthenticatedUser;
 import com.example.patientrecordsystem.dto.AuthResponse;
+import com.example.patientrecordsystem.dto.BulkRegisterRequest;
+import com.example.patientrecordsystem.dto.BulkRegisterResponse;
 import com.example.patientrecordsystem.dto.LoginRequest;
+import com.example.patientrecordsystem.dto.RefreshRequest;
 import com.example.patientrecordsystem.dto.RegisterRequest;
 import com.example.patientrecordsystem.dto.UserResponse;
 import com.example.patientrecordsystem.entity.User;
 import com.example.patientrecordsystem.service.AuthService;
+import com.example.patientrecordsystem.service.JwtClaims;
+import com.example.patientrecordsystem.service.LoginRateLimiter;
+import com.example.patientrecordsystem.service.TokenRevocationService;
+import com.example.patientrecordsystem.service.UserProvisioningService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,9 +32,17 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserProvisioningService userProvisioningService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginRateLimiter loginRateLimiter,
+                          TokenRevocationService tokenRevocationService,
+                          UserProvisioningService userProvisioningService) {
         this.authService = authService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userProvisioningService = userProvisioningService;
     }
 
     /**
@@ -50,30 +67,82 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Registers many user accounts at once. Restricted to administrators.
+     *
+     * @param request the rows to register
+     * @return a per-row report of created, duplicate and invalid rows
+     */
+    @PostMapping("/register/bulk")
+    public BulkRegisterResponse registerBulk(@Valid @RequestBody BulkRegisterRequest request) {
+        return userProvisioningService.registerAll(request.users());
+    }
+
     /**
      * Authenticates a user and returns a JWT token.
      *
+     * <p>Attempts are throttled per email and, if enabled, per client address before any
+     * lookup or password check takes place.
+     *
      * @param req the login request
+     * @param request the HTTP request, used for the client address
      * @return an authentication response with the access token
      */
     @PostMapping("/login")
-    public AuthResponse login(@Valid @RequestBody LoginRequest req) {
+    public AuthResponse login(@Valid @RequestBody LoginRequest req, HttpServletRequest request) {
+        loginRateLimiter.check(req.email(), request.getRemoteAddr());
         return authService.login(req);
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and refresh token.
+     *
+     * @param req the refresh request
+     * @return an authentication response with the new token pair
+     */
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@Valid @RequestBody RefreshRequest req) {
+        return authService.refresh(req);
+    }
+
+    /**
+     * Revokes the access token used to call this endpoint.
+     *
+     * <p>This instance rejects the token from then on, until it would have expired. Other
+     * instances pick up the revocation at their next sync, so they may still accept the
+     * token for up to {@code auth.revocation.sync-interval-ms}.
+     * If the body carries a refresh token, it is revoked together with every token rotated
+     * from the same login.
+     *
+     * @param authentication the current authentication
+     * @param req the optional refresh token to revoke as well
+     * @return {@code 204} on success, {@code 401} if the request carries no valid token
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @RequestBody(required = false) RefreshRequest req) {
+        if (authentication == null || !(authentication.getDetails() instanceof JwtClaims claims)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        tokenRevocationService.revoke(claims);
+        if (req != null && req.refreshToken() != null) {
+            authService.revokeRefreshToken(req.refreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser(Authentication authentication) {
-        if (authentication == null || authentication.getPrincipal() == null) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        User user = (User) authentication.getPrincipal();
         UserResponse response = new UserResponse(
-                user.getId(),
-                user.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getRole(),
-                user.getPhone()
+                user.id(),
+                user.email(),
+                user.firstName(),
+                user.lastName(),
+                user.role(),
+                user.phone()
         );
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,56 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.ClinicalNoteHit;
+import com.example.patientrecordsystem.service.ClinicalNoteSearchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST controller for full-text search over visit notes and medical record descriptions.
+ */
+@RestController
+@RequestMapping("/api/clinical-notes")
+public class ClinicalNoteController {
+
+    private final ClinicalNoteSearchService clinicalNoteSearchService;
+
+    public ClinicalNoteController(ClinicalNoteSearchService clinicalNoteSearchService) {
+        this.clinicalNoteSearchService = clinicalNoteSearchService;
+    }
+
+    /**
+     * Searches the symptoms, diagnosis, treatment plan and notes of visits and the
+     * descriptions of medical records.
+     *
+     * @param q the words to look for
+     * @param patientId restricts results to this patient
+     * @param doctorId restricts results to this doctor
+     * @param limit the maximum number of results; defaults to and is capped by the configured page size
+     * @return the best matching visits and records, best first
+     */
+    @GetMapping("/search")
+    public List<ClinicalNoteHit> search(@RequestParam(required = false) String q,
+                                        @RequestParam(required = false) UUID patientId,
+                                        @RequestParam(required = false) UUID doctorId,
+                                        @RequestParam(required = false) Integer limit) {
+        return clinicalNoteSearchService.search(q, patientId, doctorId, limit);
+    }
+
+    /**
+     * Starts rebuilding the search index from the database and returns without waiting for
+     * it; searches use the current index until the new one is ready. Admin only.
+     */
+    @PostMapping("/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void rebuild() {
+        clinicalNoteSearchService.rebuildInBackground();
+    }
+}
@@ -1,13 +1,15 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.DepartmentCreateRequest;
 import com.example.patientrecordsystem.dto.DepartmentResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.service.DepartmentService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -38,13 +40,29 @@ public class DepartmentController {
     }
 
     /**
-     * Lists all departments.
+     * Lists departments one page at a time.
      *
-     * @return a list of all department responses
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @param fields comma-separated response fields to return; omit for all fields
+     * @return one page of departments and the cursor of the next page
      */
     @GetMapping
-    public List<DepartmentResponse> list() {
-        return departmentService.list();
+    public PageResponse<?> list(@RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String fields) {
+        return fields == null ? departmentService.list(cursor, limit) : departmentService.list(cursor, limit, fields);
+    }
+
+    /**
+     * Loads several departments by id in one request.
+     *
+     * @param req the ids to load
+     * @return the departments found, in request order, and the ids that do not exist
+     */
+    @PostMapping("/batch-get")
+    public BatchGetResponse<DepartmentResponse> batchGet(@RequestBody BatchGetRequest req) {
+        return departmentService.batchGet(req.ids());
     }
 
     /**
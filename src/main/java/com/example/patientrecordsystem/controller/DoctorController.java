@@ -1,13 +1,15 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.DoctorCreateRequest;
 import com.example.patientrecordsystem.dto.DoctorResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.service.DoctorService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -38,13 +40,29 @@ public class DoctorController {
     }
 
     /**
-     * Lists all doctors.
+     * Lists doctors one page at a time.
      *
-     * @return a list of all doctor responses
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @param fields comma-separated response fields to return; omit for all fields
+     * @return one page of doctors and the cursor of the next page
      */
     @GetMapping
-    public List<DoctorResponse> list() {
-        return doctorService.list();
+    public PageResponse<?> list(@RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String fields) {
+        return fields == null ? doctorService.list(cursor, limit) : doctorService.list(cursor, limit, fields);
+    }
+
+    /**
+     * Loads several doctors by id in one request.
+     *
+     * @param req the ids to load
+     * @return the doctors found, in request order, and the ids that do not exist
+     */
+    @PostMapping("/batch-get")
+    public BatchGetResponse<DoctorResponse> batchGet(@RequestBody BatchGetRequest req) {
+        return doctorService.batchGet(req.ids());
     }
 
     /**
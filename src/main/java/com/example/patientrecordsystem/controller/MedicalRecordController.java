@@ -1,13 +1,18 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.MedicalRecordCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.MedicalRecordResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.service.NdjsonWriter;
 import com.example.patientrecordsystem.service.MedicalRecordService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.UUID;
 
 /**
@@ -26,24 +31,53 @@ public class MedicalRecordController {
     }
 
     /**
-     * Lists all medical records.
+     * Lists medical records one page at a time.
      *
-     * @return a list of medical record responses
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @param fields comma-separated response fields to return; omit for all fields
+     * @return one page of medical records and the cursor of the next page
      */
     @GetMapping
-    public List<MedicalRecordResponse> list() {
-        return recordService.list();
+    public PageResponse<?> list(@RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String fields) {
+        return fields == null ? recordService.list(cursor, limit) : recordService.list(cursor, limit, fields);
+    }
+
+    /**
+     * Loads several medical records by id in one request.
+     *
+     * @param req the ids to load
+     * @return the medical records found, in request order, and the ids that do not exist
+     */
+    @PostMapping("/batch-get")
+    public BatchGetResponse<MedicalRecordResponse> batchGet(@RequestBody BatchGetRequest req) {
+        return recordService.batchGet(req.ids());
+    }
+
+    /**
+     * Exports all medical records as newline-delimited JSON, one object per line.
+     *
+     * @param response the HTTP response to stream into
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(value = "/export", produces = NdjsonWriter.CONTENT_TYPE)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        recordService.export(response.getOutputStream());
     }
 
     /**
      * Retrieves a medical record by id.
      *
      * @param id the medical record id
+     * @param fields comma-separated response fields to return; omit for all fields
      * @return the medical record response
      */
     @GetMapping("/{id}")
-    public MedicalRecordResponse get(@PathVariable UUID id) {
-        return recordService.get(id);
+    public Object get(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        return fields == null ? recordService.get(id) : recordService.get(id, fields);
     }
 
     /**
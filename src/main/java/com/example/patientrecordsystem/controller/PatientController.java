@@ -1,8 +1,16 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PatientCreateRequest;
 import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.dto.TimelineEntry;
+import com.example.patientrecordsystem.service.NdjsonWriter;
+import com.example.patientrecordsystem.service.PatientSearchService;
 import com.example.patientrecordsystem.service.PatientService;
+import com.example.patientrecordsystem.service.PatientTimelineService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,6 +18,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,30 +32,97 @@ import java.util.UUID;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientTimelineService patientTimelineService;
+    private final PatientSearchService patientSearchService;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, PatientTimelineService patientTimelineService,
+                             PatientSearchService patientSearchService) {
         this.patientService = patientService;
+        this.patientTimelineService = patientTimelineService;
+        this.patientSearchService = patientSearchService;
     }
 
     /**
-     * Lists all patients.
+     * Lists patients one page at a time.
      *
-     * @return a list of patient responses
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @param fields comma-separated response fields to return; omit for all fields
+     * @return one page of patients and the cursor of the next page
      */
     @GetMapping
-    public List<PatientResponse> list() {
-        return patientService.list();
+    public PageResponse<?> list(@RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String fields) {
+        return fields == null ? patientService.list(cursor, limit) : patientService.list(cursor, limit, fields);
+    }
+
+    /**
+     * Loads several patients by id in one request.
+     *
+     * @param req the ids to load
+     * @return the patients found, in request order, and the ids that do not exist
+     */
+    @PostMapping("/batch-get")
+    public BatchGetResponse<PatientResponse> batchGet(@RequestBody BatchGetRequest req) {
+        return patientService.batchGet(req.ids());
+    }
+
+    /**
+     * Searches patients by name, phone or national id, tolerating partial input and
+     * small typos.
+     *
+     * @param q the text typed so far
+     * @param limit the maximum number of results; defaults to and is capped by the configured page size
+     * @return the best matching patients, best first
+     */
+    @GetMapping("/search")
+    public List<PatientResponse> search(@RequestParam(required = false) String q,
+                                        @RequestParam(required = false) Integer limit) {
+        return patientSearchService.search(q, limit);
+    }
+
+    /**
+     * Exports all patients as newline-delimited JSON, one object per line.
+     *
+     * <p>Rows are streamed as they are read, so the response starts immediately and its
+     * size is not limited by memory.
+     *
+     * @param response the HTTP response to stream into
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(value = "/export", produces = NdjsonWriter.CONTENT_TYPE)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        patientService.export(response.getOutputStream());
     }
 
     /**
      * Retrieves a patient by id.
      *
      * @param id the patient id
+     * @param fields comma-separated response fields to return; omit for all fields
      * @return the patient response
      */
     @GetMapping("/{id}")
-    public PatientResponse get(@PathVariable UUID id) {
-        return patientService.get(id);
+    public Object get(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        return fields == null ? patientService.get(id) : patientService.get(id, fields);
+    }
+
+    /**
+     * Returns a patient's appointments, visits, prescriptions and medical records as one
+     * list, newest first, one page at a time.
+     *
+     * @param id the patient id
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @return one page of timeline entries and the cursor of the next page
+     */
+    @GetMapping("/{id}/timeline")
+    public PageResponse<TimelineEntry> timeline(@PathVariable UUID id,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return patientTimelineService.timeline(id, cursor, limit);
     }
 
     /**
@@ -1,13 +1,18 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PatientVisitCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.PatientVisitResponse;
+import com.example.patientrecordsystem.service.NdjsonWriter;
 import com.example.patientrecordsystem.service.PatientVisitService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.UUID;
 
 /**
@@ -26,24 +31,53 @@ public class PatientVisitController {
     }
 
     /**
-     * Lists all patient visits.
+     * Lists patient visits one page at a time.
      *
-     * @return a list of patient visit responses
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @param fields comma-separated response fields to return; omit for all fields
+     * @return one page of patient visits and the cursor of the next page
      */
     @GetMapping
-    public List<PatientVisitResponse> list() {
-        return visitService.list();
+    public PageResponse<?> list(@RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String fields) {
+        return fields == null ? visitService.list(cursor, limit) : visitService.list(cursor, limit, fields);
+    }
+
+    /**
+     * Loads several patient visits by id in one request.
+     *
+     * @param req the ids to load
+     * @return the patient visits found, in request order, and the ids that do not exist
+     */
+    @PostMapping("/batch-get")
+    public BatchGetResponse<PatientVisitResponse> batchGet(@RequestBody BatchGetRequest req) {
+        return visitService.batchGet(req.ids());
+    }
+
+    /**
+     * Exports all patient visits as newline-delimited JSON, one object per line.
+     *
+     * @param response the HTTP response to stream into
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(value = "/export", produces = NdjsonWriter.CONTENT_TYPE)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        visitService.export(response.getOutputStream());
     }
 
     /**
      * Retrieves a patient visit by id.
      *
      * @param id the patient visit id
+     * @param fields comma-separated response fields to return; omit for all fields
      * @return the patient visit response
      */
     @GetMapping("/{id}")
-    public PatientVisitResponse get(@PathVariable UUID id) {
-        return visitService.get(id);
+    public Object get(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        return fields == null ? visitService.get(id) : visitService.get(id, fields);
     }
 
     /**
@@ -1,5 +1,8 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PrescriptionCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.PrescriptionResponse;
 import com.example.patientrecordsystem.service.PrescriptionService;
@@ -7,7 +10,6 @@ import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -26,24 +28,41 @@ public class PrescriptionController {
     }
 
     /**
-     * Lists all prescriptions.
+     * Lists prescriptions one page at a time.
      *
-     * @return a list of prescription responses
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; defaults to and is capped by the configured page size
+     * @param fields comma-separated response fields to return; omit for all fields
+     * @return one page of prescriptions and the cursor of the next page
      */
     @GetMapping
-    public List<PrescriptionResponse> list() {
-        return prescriptionService.list();
+    public PageResponse<?> list(@RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String fields) {
+        return fields == null ? prescriptionService.list(cursor, limit) : prescriptionService.list(cursor, limit, fields);
+    }
+
+    /**
+     * Loads several prescriptions by id in one request.
+     *
+     * @param req the ids to load
+     * @return the prescriptions found, in request order, and the ids that do not exist
+     */
+    @PostMapping("/batch-get")
+    public BatchGetResponse<PrescriptionResponse> batchGet(@RequestBody BatchGetRequest req) {
+        return prescriptionService.batchGet(req.ids());
     }
 
     /**
      * Retrieves a prescription by id.
      *
      * @param id the prescription id
+     * @param fields comma-separated response fields to return; omit for all fields
      * @return the prescription response
      */
     @GetMapping("/{id}")
-    public PrescriptionResponse get(@PathVariable UUID id) {
-        return prescriptionService.get(id);
+    public Object get(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        return fields == null ? prescriptionService.get(id) : prescriptionService.get(id, fields);
     }
 
     /**
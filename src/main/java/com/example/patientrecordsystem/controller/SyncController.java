@@ -0,0 +1,38 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.SyncResponse;
+import com.example.patientrecordsystem.service.SyncService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the incremental sync feed used by offline clients.
+ *
+ * <p>Exposes the patients, appointments, visits, prescriptions and medical records
+ * changed since the client's last sync.
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Returns the changes made since the previous sync, oldest first.
+     *
+     * @param since the {@code nextCursor} of the previous sync; omit for a full download
+     * @param limit the batch size; defaults to and is capped by the configured page size
+     * @return the changes and the cursor to sync from next; call again at once while {@code hasMore} is set
+     */
+    @GetMapping
+    public SyncResponse sync(@RequestParam(required = false) String since,
+                             @RequestParam(required = false) Integer limit) {
+        return syncService.changes(since, limit);
+    }
+}
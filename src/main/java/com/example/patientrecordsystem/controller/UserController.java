@@ -0,0 +1,63 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.UserResponse;
+import com.example.patientrecordsystem.dto.UserRoleRequest;
+import com.example.patientrecordsystem.service.UserDirectoryService;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * REST controller for the staff directory.
+ *
+ * <p>Exposes a paginated search of users by name prefix, and role assignment for
+ * administrators.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    private final UserDirectoryService userDirectoryService;
+
+    public UserController(UserDirectoryService userDirectoryService) {
+        this.userDirectoryService = userDirectoryService;
+    }
+
+    /**
+     * Searches users whose last and/or first name start with the given text, ignoring
+     * case, accents and punctuation.
+     *
+     * @param lastName the start of the last name
+     * @param firstName the start of the first name
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size; capped by the configured directory page size
+     * @return one page of users and the cursor of the next page
+     */
+    @GetMapping("/search")
+    public PageResponse<UserResponse> search(@RequestParam(required = false) String lastName,
+                                             @RequestParam(required = false) String firstName,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        return userDirectoryService.search(lastName, firstName, cursor, limit);
+    }
+
+    /**
+     * Changes a user's role. Admin only.
+     *
+     * @param id the user id
+     * @param request the new role
+     * @return the updated user
+     */
+    @PutMapping("/{id}/role")
+    public UserResponse assignRole(@PathVariable UUID id, @Valid @RequestBody UserRoleRequest request) {
+        return userDirectoryService.assignRole(id, request.role());
+    }
+}
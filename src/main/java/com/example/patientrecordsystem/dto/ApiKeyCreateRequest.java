@@ -0,0 +1,8 @@
+package com.example.patientrecordsystem.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO to issue a new API key for a machine client.
+ */
+public record ApiKeyCreateRequest(@NotBlank String name, @NotBlank String role) {}
@@ -0,0 +1,12 @@
+package com.example.patientrecordsystem.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Response DTO for API key information.
+ *
+ * <p>{@code key} holds the raw key only in the response to its creation and is
+ * {@code null} everywhere else.
+ */
+public record ApiKeyResponse(UUID id, String name, String role, Boolean isActive, Instant createdAt, String key) {}
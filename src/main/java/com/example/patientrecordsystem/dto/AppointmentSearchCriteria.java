@@ -0,0 +1,27 @@
+package com.example.patientrecordsystem.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Filters of an appointment search; {@code null} fields are not applied.
+ *
+ * <p>At least one of {@code doctorId}, {@code patientId} and {@code departmentId} is
+ * required, so every search is a range scan of one of the composite indexes on that
+ * column and {@code appointment_date}.
+ *
+ * @param doctorId only appointments with this doctor
+ * @param patientId only appointments of this patient
+ * @param departmentId only appointments in this department
+ * @param status only appointments with this status
+ * @param from only appointments at or after this instant
+ * @param to only appointments before this instant
+ */
+public record AppointmentSearchCriteria(
+        UUID doctorId,
+        UUID patientId,
+        UUID departmentId,
+        String status,
+        Instant from,
+        Instant to
+) {}
@@ -1,6 +1,12 @@
 package com.example.patientrecordsystem.dto;
 
 /**
- * Authentication response containing an access token and token type.
+ * Authentication response containing an access token, its type and lifetime, and the
+ * refresh token that can be exchanged for the next access token.
  */
-public record AuthResponse(String accessToken, String tokenType) {}
+public record AuthResponse(String accessToken, String tokenType, String refreshToken, Long expiresIn) {
+
+    public AuthResponse(String accessToken, String tokenType) {
+        this(accessToken, tokenType, null, null);
+    }
+}
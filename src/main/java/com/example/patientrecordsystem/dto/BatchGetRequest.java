@@ -0,0 +1,10 @@
+package com.example.patientrecordsystem.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch lookup payload: the ids to fetch, in the order the results should come back.
+ * Size and content are checked by {@link com.example.patientrecordsystem.service.BatchFetcher}.
+ */
+public record BatchGetRequest(List<UUID> ids) {}
@@ -0,0 +1,13 @@
+package com.example.patientrecordsystem.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a batch lookup.
+ *
+ * @param items the rows found, in the order their ids were requested; a repeated id appears once
+ * @param missing the requested ids that do not exist, in request order
+ * @param <T> the item type
+ */
+public record BatchGetResponse<T>(List<T> items, List<UUID> missing) {}
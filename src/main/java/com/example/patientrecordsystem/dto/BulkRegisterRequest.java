@@ -0,0 +1,11 @@
+package com.example.patientrecordsystem.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Bulk registration payload. Rows are validated individually and reported in
+ * {@link BulkRegisterResponse}, so one bad row does not reject the batch.
+ */
+public record BulkRegisterRequest(@NotEmpty List<RegisterRequest> users) {}
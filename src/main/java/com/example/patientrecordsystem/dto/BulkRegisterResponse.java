@@ -0,0 +1,8 @@
+package com.example.patientrecordsystem.dto;
+
+import java.util.List;
+
+/**
+ * Bulk registration report with one result per requested row, in request order.
+ */
+public record BulkRegisterResponse(int created, int failed, List<BulkRegisterResult> results) {}
@@ -0,0 +1,14 @@
+package com.example.patientrecordsystem.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one row of a bulk registration.
+ *
+ * @param index the row position in the request
+ * @param email the row email
+ * @param status {@code CREATED}, {@code DUPLICATE} or {@code INVALID}
+ * @param id the created user id, or {@code null} if the row was not created
+ * @param message why the row was not created, or {@code null}
+ */
+public record BulkRegisterResult(int index, String email, String status, UUID id, String message) {}
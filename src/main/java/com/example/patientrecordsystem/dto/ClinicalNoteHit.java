@@ -0,0 +1,19 @@
+package com.example.patientrecordsystem.dto;
+
+import java.util.UUID;
+
+/**
+ * One result of a clinical note search: a visit or medical record whose text matches the
+ * query.
+ *
+ * @param type {@code VISIT} or {@code RECORD}
+ * @param id the id of the visit or record
+ * @param score the BM25 relevance score; higher is better, comparable only within one search
+ * @param data the visit or record as returned by its own endpoint
+ */
+public record ClinicalNoteHit(
+        String type,
+        UUID id,
+        double score,
+        Object data
+) {}
@@ -0,0 +1,13 @@
+package com.example.patientrecordsystem.dto;
+
+import java.util.List;
+
+/**
+ * One page of a list endpoint.
+ *
+ * @param items the items of this page
+ * @param nextCursor the opaque cursor to pass as {@code cursor} for the next page, or
+ *                   {@code null} if this is the last page
+ * @param <T> the item type
+ */
+public record PageResponse<T>(List<T> items, String nextCursor) {}
@@ -0,0 +1,10 @@
+package com.example.patientrecordsystem.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Request payload carrying a refresh token.
+ */
+public record RefreshRequest(
+        @NotBlank String refreshToken
+) {}
@@ -6,11 +6,15 @@ import jakarta.validation.constraints.NotBlank;
 
 /**
  * Registration request payload for creating a new user account.
+ *
+ * <p>For self-registration {@code role} may be omitted; only the configured default role is
+ * ever granted. Bulk registration rows must carry one of the roles in
+ * {@code auth.bulk-register.allowed-roles}, compared after trimming and upper-casing.
  */
 public record RegisterRequest(
         @NotBlank String email,
         @NotBlank String password,
-        @NotBlank String role,
+        String role,
         String firstName,
         String lastName,
         String phone
@@ -0,0 +1,22 @@
+package com.example.patientrecordsystem.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One change in the sync feed: a patient, appointment, visit, prescription or medical
+ * record that was created, updated or deleted.
+ *
+ * @param type {@code PATIENT}, {@code APPOINTMENT}, {@code VISIT}, {@code PRESCRIPTION} or {@code RECORD}
+ * @param id the id of the resource
+ * @param deleted whether the resource was deleted
+ * @param changedAt the time of the last create or update, or of the deletion
+ * @param data the resource as returned by its own endpoint, or {@code null} if it was deleted
+ */
+public record SyncChange(
+        String type,
+        UUID id,
+        boolean deleted,
+        Instant changedAt,
+        Object data
+) {}
@@ -0,0 +1,15 @@
+package com.example.patientrecordsystem.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position of one change in the sync feed, read by the range scans before the changed
+ * rows themselves are loaded.
+ *
+ * @param type the resource type, as in {@link SyncChange#type()}
+ * @param id the id of the resource
+ * @param changedAt the time of the last create or update, or of the deletion
+ * @param deleted whether the change is a deletion
+ */
+public record SyncMarker(String type, UUID id, Instant changedAt, boolean deleted) {}
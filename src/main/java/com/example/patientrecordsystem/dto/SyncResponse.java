@@ -0,0 +1,12 @@
+package com.example.patientrecordsystem.dto;
+
+import java.util.List;
+
+/**
+ * One batch of the sync feed.
+ *
+ * @param changes the changes, oldest first
+ * @param nextCursor the cursor to pass as {@code since} on the next sync
+ * @param hasMore whether further changes are already available
+ */
+public record SyncResponse(List<SyncChange> changes, String nextCursor, boolean hasMore) {}
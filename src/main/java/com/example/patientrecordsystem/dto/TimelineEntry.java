@@ -0,0 +1,26 @@
+package com.example.patientrecordsystem.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One item of a patient's timeline: an appointment, visit, prescription or medical record.
+ *
+ * <p>Carries enough to render a timeline row; the full item is available from its own
+ * endpoint by {@code id}.
+ *
+ * @param type {@code APPOINTMENT}, {@code VISIT}, {@code PRESCRIPTION} or {@code RECORD}
+ * @param id the id of the item
+ * @param occurredAt the appointment date, visit date, issue date or record creation time
+ * @param doctorId the doctor responsible for the item
+ * @param title the appointment status, diagnosis, medication name or record type
+ * @param detail the appointment reason, symptoms, dosage or record description
+ */
+public record TimelineEntry(
+        String type,
+        UUID id,
+        Instant occurredAt,
+        UUID doctorId,
+        String title,
+        String detail
+) {}
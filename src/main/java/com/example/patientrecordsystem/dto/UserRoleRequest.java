@@ -0,0 +1,10 @@
+package com.example.patientrecordsystem.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Payload for changing a user's role.
+ *
+ * @param role the new role, e.g. {@code DOCTOR} or {@code ADMIN}
+ */
+public record UserRoleRequest(@NotBlank String role) {}
@@ -0,0 +1,82 @@
+package com.example.patientrecordsystem.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA entity representing an API key issued to a machine client.
+ *
+ * <p>Only the SHA-256 digest of the key is stored; the raw key is shown once when it is
+ * created. Requests authenticated with the key are granted {@code role}.
+ */
+@Entity
+@Table(name = "api_keys", indexes = {
+        @Index(name = "idx_api_keys_key_hash", columnList = "keyHash", unique = true)
+})
+public class ApiKey {
+
+    @Id @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String keyHash;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(nullable = false)
+    private Boolean isActive = true;
+
+    @CreationTimestamp
+    private Instant createdAt;
+
+    public ApiKey() {}
+
+    public ApiKey(String name, String keyHash, String role) {
+        this.name = name;
+        this.keyHash = keyHash;
+        this.role = role;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getKeyHash() {
+        return keyHash;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public Boolean getActive() {
+        return isActive;
+    }
+
+    public void setActive(Boolean active) {
+        isActive = active;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
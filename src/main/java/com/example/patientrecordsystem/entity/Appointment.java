@@ -17,7 +17,12 @@ import java.util.UUID;
  */
 @Builder
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_patient_timeline", columnList = "patient_id, appointmentDate, id"),
+        @Index(name = "idx_appointments_doctor_date", columnList = "doctor_id, appointmentDate, id"),
+        @Index(name = "idx_appointments_department_date", columnList = "department_id, appointmentDate, id"),
+        @Index(name = "idx_appointments_updated_at", columnList = "updatedAt, id")
+})
 public class Appointment {
     public Appointment(UUID id, Patient patient, Doctor doctor, Department department, Instant appointmentDate, String status, String reason, Instant createdAt, Instant updatedAt) {
         this.id = id;
@@ -34,13 +39,16 @@ public class Appointment {
     @Id @GeneratedValue
     private UUID id;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "patient_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_patients"))
     private Patient patient;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "doctor_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_doctors"))
     private Doctor doctor;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "department_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_departments"))
     private Department department;
 
     @Column(nullable = false)
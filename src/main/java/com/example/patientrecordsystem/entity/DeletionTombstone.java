@@ -0,0 +1,68 @@
+package com.example.patientrecordsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA entity recording that a synced resource was deleted, so that the sync feed can
+ * report the deletion after the row itself is gone.
+ *
+ * <p>Keyed by the id of the deleted resource, which is never reused. Rows are kept for
+ * {@code app.sync.tombstone-retention-days}; a client that has not synced for longer must
+ * start again without a cursor.
+ */
+@Entity
+@Table(name = "deletion_tombstones", indexes = {
+        @Index(name = "idx_deletion_tombstones_deleted_at", columnList = "deletedAt, resourceId")
+})
+public class DeletionTombstone {
+
+    public static final String PATIENT = "PATIENT";
+    public static final String APPOINTMENT = "APPOINTMENT";
+    public static final String VISIT = "VISIT";
+    public static final String PRESCRIPTION = "PRESCRIPTION";
+    public static final String RECORD = "RECORD";
+
+    @Id
+    private UUID resourceId;
+
+    @Column(nullable = false, length = 16)
+    private String resourceType;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    public DeletionTombstone() {}
+
+    public DeletionTombstone(UUID resourceId, String resourceType, Instant deletedAt) {
+        this.resourceId = resourceId;
+        this.resourceType = resourceType;
+        this.deletedAt = deletedAt;
+    }
+
+    public UUID getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(UUID resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public void setResourceType(String resourceType) {
+        this.resourceType = resourceType;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -41,12 +41,12 @@ public class Doctor {
     @Id @GeneratedValue
     private UUID id;
 
-    @OneToOne(optional = false)
-    @JoinColumn(name = "user_id", nullable = false)
+    @OneToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_doctors_users"))
     private User user;
 
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "department_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", nullable = false, foreignKey = @ForeignKey(name = "fk_doctors_departments"))
     private Department department;
 
     @Column(nullable = false)
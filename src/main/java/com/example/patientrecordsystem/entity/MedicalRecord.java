@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
 import java.util.UUID;
 /**
@@ -15,9 +16,12 @@ import java.util.UUID;
  */
 @Builder
 @Entity
-@Table(name = "medical_records")
+@Table(name = "medical_records", indexes = {
+        @Index(name = "idx_medical_records_patient_timeline", columnList = "patient_id, createdAt, id"),
+        @Index(name = "idx_medical_records_updated_at", columnList = "updatedAt, id")
+})
 public class MedicalRecord {
-    public MedicalRecord(UUID id, Patient patient, Doctor doctor, String recordType, String description, String attachments, Instant createdAt) {
+    public MedicalRecord(UUID id, Patient patient, Doctor doctor, String recordType, String description, String attachments, Instant createdAt, Instant updatedAt) {
         this.id = id;
         this.patient = patient;
         this.doctor = doctor;
@@ -25,15 +29,18 @@ public class MedicalRecord {
         this.description = description;
         this.attachments = attachments;
         this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
     }
 
     @Id @GeneratedValue
     private UUID id;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "patient_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(name = "fk_medical_records_patients"))
     private Patient patient;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "doctor_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(name = "fk_medical_records_doctors"))
     private Doctor doctor;
 
     @Column(nullable = false)
@@ -48,6 +55,9 @@ public class MedicalRecord {
     @CreationTimestamp
     private Instant createdAt;
 
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     public MedicalRecord() {
 
     }
@@ -107,4 +117,12 @@ public class MedicalRecord {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
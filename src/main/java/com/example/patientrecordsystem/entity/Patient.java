@@ -15,7 +15,9 @@ import java.util.UUID;
  */
 @Builder
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_updated_at", columnList = "updatedAt, id")
+})
 public class Patient {
 
     @Id
@@ -73,10 +75,12 @@ public class Patient {
     private String emergencyContactName;
     private String emergencyContactPhone;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "primary_doctor_id", foreignKey = @ForeignKey(name = "fk_patients_doctors"))
     private Doctor primaryDoctor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", foreignKey = @ForeignKey(name = "fk_patients_departments"))
     private Department department;
 
     @CreationTimestamp
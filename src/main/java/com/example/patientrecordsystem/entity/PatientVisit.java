@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -15,10 +16,13 @@ import java.util.UUID;
  */
 @Builder
 @Entity
-@Table(name = "patient_visits")
+@Table(name = "patient_visits", indexes = {
+        @Index(name = "idx_patient_visits_patient_timeline", columnList = "patient_id, visitDate, id"),
+        @Index(name = "idx_patient_visits_updated_at", columnList = "updatedAt, id")
+})
 public class PatientVisit {
 
-    public PatientVisit(UUID id, Patient patient, Doctor doctor, Instant visitDate, String symptoms, String diagnosis, String treatmentPlan, String notes, Instant createdAt) {
+    public PatientVisit(UUID id, Patient patient, Doctor doctor, Instant visitDate, String symptoms, String diagnosis, String treatmentPlan, String notes, Instant createdAt, Instant updatedAt) {
         this.id = id;
         this.patient = patient;
         this.doctor = doctor;
@@ -28,15 +32,18 @@ public class PatientVisit {
         this.treatmentPlan = treatmentPlan;
         this.notes = notes;
         this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
     }
 
     @Id @GeneratedValue
     private UUID id;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "patient_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(name = "fk_patient_visits_patients"))
     private Patient patient;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "doctor_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(name = "fk_patient_visits_doctors"))
     private Doctor doctor;
 
     @Column(nullable = false)
@@ -57,6 +64,9 @@ public class PatientVisit {
     @CreationTimestamp
     private Instant createdAt;
 
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     public PatientVisit() {
 
     }
@@ -132,4 +142,12 @@ public class PatientVisit {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
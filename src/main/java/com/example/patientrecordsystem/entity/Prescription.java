@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -15,9 +16,12 @@ import java.util.UUID;
  */
 @Builder
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescriptions_patient_timeline", columnList = "patient_id, issuedAt, id"),
+        @Index(name = "idx_prescriptions_updated_at", columnList = "updatedAt, id")
+})
 public class Prescription {
-    public Prescription(UUID id, Patient patient, Doctor doctor, String medicationName, String dosage, String frequency, String duration, String instructions, Instant issuedAt) {
+    public Prescription(UUID id, Patient patient, Doctor doctor, String medicationName, String dosage, String frequency, String duration, String instructions, Instant issuedAt, Instant updatedAt) {
         this.id = id;
         this.patient = patient;
         this.doctor = doctor;
@@ -27,15 +31,18 @@ public class Prescription {
         this.duration = duration;
         this.instructions = instructions;
         this.issuedAt = issuedAt;
+        this.updatedAt = updatedAt;
     }
 
     @Id @GeneratedValue
     private UUID id;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "patient_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(name = "fk_prescriptions_patients"))
     private Patient patient;
 
-    @ManyToOne(optional = false) @JoinColumn(name = "doctor_id", nullable = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(name = "fk_prescriptions_doctors"))
     private Doctor doctor;
 
     @Column(nullable = false)
@@ -50,6 +57,9 @@ public class Prescription {
 
     private Instant issuedAt;
 
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     public Prescription() {
 
     }
@@ -125,4 +135,12 @@ public class Prescription {
     public void setIssuedAt(Instant issuedAt) {
         this.issuedAt = issuedAt;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
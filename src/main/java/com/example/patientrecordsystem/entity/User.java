@@ -1,6 +1,7 @@
 package com.example.patientrecordsystem.entity;
 
 
+import com.example.patientrecordsystem.service.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,14 +9,33 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.text.Normalizer;
 import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
+
+/**
+ * JPA entity representing an account that can sign in: staff, doctors and administrators.
+ *
+ * <p>Besides the names as entered, it keeps {@link #nameKey(String) normalized} copies of
+ * them in indexed columns, which the staff directory searches by prefix.
+ */
 @Builder
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_last_name_key", columnList = "lastNameKey, id"),
+        @Index(name = "idx_users_first_name_key", columnList = "firstNameKey, id")
+})
 public class User {
 
+    /** The role allowed to manage API keys, bulk registration and roles. */
+    public static final String ADMIN = "ADMIN";
+
+    /** The ASCII characters of name keys, in the order every collation sorts them. */
+    private static final String KEY_ORDER = "0123456789abcdefghijklmnopqrstuvwxyz";
+
     @Id @GeneratedValue
     private UUID id;
 
@@ -28,6 +48,9 @@ public class User {
     private String firstName;
     private String lastName;
 
+    private String firstNameKey;
+    private String lastNameKey;
+
     @Column(nullable = false)
     private String role;
 
@@ -54,6 +77,54 @@ public class User {
         this.role = role;
         this.phone = phone;
     }
+
+    /**
+     * Normalizes a name for prefix search: lower case, without accents and without
+     * characters other than letters and digits, so that {@code "O'Brien-Núñez"} becomes
+     * {@code "obriennunez"}.
+     *
+     * @param name the name, or {@code null}
+     * @return the key, or {@code null} if the name is {@code null}
+     */
+    public static String nameKey(String name) {
+        if (name == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        return decomposed.replaceAll("[^\\p{L}\\p{N}]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns a key greater than every key starting with {@code prefix} in binary order and
+     * in the linguistic collations of PostgreSQL alike: the prefix cut after its last
+     * ASCII digit or letter that has a successor among {@code 0-9a-z}, which is then
+     * replaced by that successor, so that {@code "smi"} gives {@code "smj"}, {@code "smz"}
+     * gives {@code "sn"} and {@code "a9"} gives {@code "aa"}. Incrementing the last character
+     * instead could produce punctuation such as {@code '{'}, which those collations sort
+     * before letters.
+     *
+     * @param prefix a non-empty key
+     * @return the bound, or {@code null} if there is none, as for {@code "zz"}
+     */
+    public static String nameKeyUpperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            int position = KEY_ORDER.indexOf(prefix.charAt(i));
+            if (position >= 0 && position < KEY_ORDER.length() - 1) {
+                return prefix.substring(0, i) + KEY_ORDER.charAt(position + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recomputes the normalized name columns; also called by the directory backfill for
+     * rows written before they existed.
+     */
+    @PrePersist
+    public void normalizeNames() {
+        this.firstNameKey = nameKey(firstName);
+        this.lastNameKey = nameKey(lastName);
+    }
     public UUID getId() {
         return id;
     }
@@ -84,6 +155,7 @@ public class User {
 
     public void setFirstName(String firstName) {
         this.firstName = firstName;
+        this.firstNameKey = nameKey(firstName);
     }
 
     public String getLastName() {
@@ -92,12 +164,34 @@ public class User {
 
     public void setLastName(String lastName) {
         this.lastName = lastName;
+        this.lastNameKey = nameKey(lastName);
+    }
+
+    public String getFirstNameKey() {
+        return firstNameKey;
+    }
+
+    public String getLastNameKey() {
+        return lastNameKey;
     }
 
     public String getRole() {
         return role;
     }
 
+    /**
+     * Normalizes a role name as stored and compared: trimmed and upper-cased.
+     *
+     * @param role the role as entered, may be {@code null}
+     * @return the normalized role, or {@code null} if blank
+     */
+    public static String normalizeRole(String role) {
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        return role.trim().toUpperCase(Locale.ROOT);
+    }
+
     public void setRole(String role) {
         this.role = role;
     }
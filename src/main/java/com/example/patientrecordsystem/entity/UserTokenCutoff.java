@@ -0,0 +1,62 @@
+package com.example.patientrecordsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA entity recording that every access token issued to a user before a point in time
+ * must be rejected, for example after the user's role changed or the user was deleted.
+ *
+ * <p>Keyed by the user id. Rows are only needed until {@code expiresAt}, when the last
+ * token issued before the cutoff has expired, after which the row is purged.
+ */
+@Entity
+@Table(name = "user_token_cutoffs", indexes = {
+        @Index(name = "idx_user_token_cutoffs_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_user_token_cutoffs_issued_before", columnList = "issuedBefore")
+})
+public class UserTokenCutoff {
+
+    @Id
+    private UUID userId;
+
+    @Column(nullable = false)
+    private Instant issuedBefore;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public UserTokenCutoff() {}
+
+    public UserTokenCutoff(UUID userId, Instant issuedBefore, Instant expiresAt) {
+        this.userId = userId;
+        this.issuedBefore = issuedBefore;
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public Instant getIssuedBefore() {
+        return issuedBefore;
+    }
+
+    public void setIssuedBefore(Instant issuedBefore) {
+        this.issuedBefore = issuedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
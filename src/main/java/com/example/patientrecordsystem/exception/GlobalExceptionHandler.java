@@ -1,15 +1,21 @@
 package com.example.patientrecordsystem.exception;
 
 import com.example.patientrecordsystem.dto.ErrorResponse;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.webjars.NotFoundException;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Global exception handler for REST controllers.
  * 
@@ -21,6 +27,16 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    /** SQL states of foreign key violations: PostgreSQL and H2 (child exists), H2 (parent missing). */
+    private static final Set<String> FOREIGN_KEY_STATES = Set.of("23503", "23506");
+
+    /** Not-found messages keyed by the referenced table, matched against {@code fk_<table>_<referenced>} names. */
+    private static final Map<String, String> MISSING_REFERENCE_MESSAGES = Map.of(
+            "patients", "Patient not found",
+            "doctors", "Doctor not found",
+            "departments", "Department not found",
+            "users", "User not found");
+
     /**
      * Handles NotFoundException (404 Not Found).
      *
@@ -48,16 +64,57 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Handles DataIntegrityViolationException (409 Conflict or 400 Bad Request).
+     * Handles ServiceBusyException (503 Service Unavailable).
+     *
+     * @param ex the ServiceBusyException
+     * @return error response with 503 status and a Retry-After header
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusyException(ServiceBusyException ex) {
+        logger.warn("Service busy: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Handles TooManyRequestsException (429 Too Many Requests).
+     *
+     * @param ex the TooManyRequestsException
+     * @return error response with 429 status and a Retry-After header
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex) {
+        logger.debug("Rate limited: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Handles DataIntegrityViolationException (404 Not Found or 409 Conflict).
      * 
      * <p>This typically occurs when database constraints are violated,
-     * such as foreign key constraints or unique constraints.
+     * such as foreign key constraints or unique constraints. Write paths set foreign keys
+     * from unverified ids, so an insert or update that violates a foreign key means the
+     * referenced resource does not exist and is reported as 404 with a one-line warning.
+     * Hibernate's own logging of the failed statement ({@code SqlExceptionHelper}) is off
+     * by default (see {@code PatientRecordSystemApplication}), so such an expected 404
+     * does not log an error with its SQL; other violations are logged here with their cause.
      *
      * @param ex the DataIntegrityViolationException
      * @return error response with appropriate status
      */
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        String missingReference = missingReference(ex);
+        if (missingReference != null) {
+            logger.warn("Resource not found: {}", missingReference);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(missingReference));
+        }
+
         logger.error("Data integrity violation: {}", ex.getMessage(), ex);
         
         String message = "Data integrity violation";
@@ -77,6 +134,29 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    /**
+     * Recognizes an insert or update that points at a row which does not exist.
+     *
+     * @param ex the data integrity violation
+     * @return the not-found message, or {@code null} if the violation is of another kind
+     */
+    private static String missingReference(DataIntegrityViolationException ex) {
+        if (!(ex.getCause() instanceof ConstraintViolationException violation)
+                || !FOREIGN_KEY_STATES.contains(violation.getSQLState())) {
+            return null;
+        }
+        String sql = violation.getSQL() == null ? "" : violation.getSQL().stripLeading().toLowerCase(Locale.ROOT);
+        if (!sql.startsWith("insert") && !sql.startsWith("update")) {
+            return null;
+        }
+        String constraint = violation.getConstraintName() == null ? "" : violation.getConstraintName().toLowerCase(Locale.ROOT);
+        return MISSING_REFERENCE_MESSAGES.entrySet().stream()
+                .filter(e -> constraint.endsWith("_" + e.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse("Referenced record not found");
+    }
+
     /**
      * Handles all other exceptions (500 Internal Server Error).
      *
@@ -0,0 +1,21 @@
+package com.example.patientrecordsystem.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request should be retried later.
+ *
+ * <p>Mapped to {@code 503 Service Unavailable} with a {@code Retry-After} header by
+ * {@link GlobalExceptionHandler}.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
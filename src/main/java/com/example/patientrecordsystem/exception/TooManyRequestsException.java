@@ -0,0 +1,21 @@
+package com.example.patientrecordsystem.exception;
+
+/**
+ * Thrown when a caller exceeds a rate limit.
+ *
+ * <p>Mapped to {@code 429 Too Many Requests} with a {@code Retry-After} header by
+ * {@link GlobalExceptionHandler}.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
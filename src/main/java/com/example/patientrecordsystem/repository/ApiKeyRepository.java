@@ -0,0 +1,14 @@
+package com.example.patientrecordsystem.repository;
+
+import com.example.patientrecordsystem.entity.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.ApiKey} entities.
+ */
+public interface ApiKeyRepository extends JpaRepository<ApiKey, UUID> {
+    Optional<ApiKey> findByKeyHash(String keyHash);
+}
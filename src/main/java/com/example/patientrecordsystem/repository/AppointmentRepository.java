@@ -1,13 +1,68 @@
 package com.example.patientrecordsystem.repository;
 
+import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.SyncMarker;
+import com.example.patientrecordsystem.dto.TimelineEntry;
 import com.example.patientrecordsystem.entity.Appointment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.Appointment} entities.
  */
-public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
+public interface AppointmentRepository extends JpaRepository<Appointment, UUID>, AppointmentSearchRepository {
+    /** Selects {@link AppointmentResponse} fields as a constructor expression, without loading the entity. */
+    String RESPONSE_SELECT = "select new com.example.patientrecordsystem.dto.AppointmentResponse(" +
+            "a.id, a.patient.id, a.doctor.id, a.department.id, a.appointmentDate, a.status, a.reason) " +
+            "from Appointment a";
+
+    /** Selects {@link SyncMarker} rows changed up to {@code :until}, oldest first; see {@code SyncService}. */
+    String SYNC_SELECT = "select new com.example.patientrecordsystem.dto.SyncMarker(" +
+            "'APPOINTMENT', a.id, a.updatedAt, false) " +
+            "from Appointment a where a.updatedAt <= :until";
+
+    String SYNC_ORDER = " order by a.updatedAt, a.id";
+
+    /** Selects {@link TimelineEntry} rows of one patient, newest first; see {@code PatientTimelineService}. */
+    String TIMELINE_SELECT = "select new com.example.patientrecordsystem.dto.TimelineEntry(" +
+            "'APPOINTMENT', a.id, a.appointmentDate, a.doctor.id, a.status, a.reason) " +
+            "from Appointment a where a.patient.id = :patientId";
+
+    String TIMELINE_ORDER = " order by a.appointmentDate desc, a.id desc";
+
     public void deleteByPatient_Id(UUID id);
+
+    @Query(RESPONSE_SELECT + " order by a.id")
+    List<AppointmentResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_SELECT + " where a.id > :after order by a.id")
+    List<AppointmentResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(RESPONSE_SELECT + " where a.id in :ids")
+    List<AppointmentResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(RESPONSE_SELECT + " where a.id = :id")
+    Optional<AppointmentResponse> findResponseById(@Param("id") UUID id);
+
+    @Query(TIMELINE_SELECT + TIMELINE_ORDER)
+    List<TimelineEntry> findTimeline(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(TIMELINE_SELECT + " and a.appointmentDate <= :at and (a.appointmentDate < :at or a.id < :id)" + TIMELINE_ORDER)
+    List<TimelineEntry> findTimelineBefore(@Param("patientId") UUID patientId, @Param("at") Instant at,
+                                           @Param("id") UUID id, Limit limit);
+
+    @Query(SYNC_SELECT + SYNC_ORDER)
+    List<SyncMarker> findChanges(@Param("until") Instant until, Limit limit);
+
+    @Query(SYNC_SELECT + " and a.updatedAt >= :at and (a.updatedAt > :at or a.id > :id)" + SYNC_ORDER)
+    List<SyncMarker> findChangesAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                      @Param("until") Instant until, Limit limit);
 }
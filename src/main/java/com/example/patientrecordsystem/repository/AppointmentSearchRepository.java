@@ -0,0 +1,25 @@
+package com.example.patientrecordsystem.repository;
+
+import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.AppointmentSearchCriteria;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dynamic appointment search, mixed into {@link AppointmentRepository}.
+ */
+public interface AppointmentSearchRepository {
+
+    /**
+     * Finds appointments matching the criteria, ordered by date and then id.
+     *
+     * @param criteria the filters to apply
+     * @param afterDate the date of the last appointment of the previous page, or {@code null} for the first page
+     * @param afterId the id of the last appointment of the previous page, or {@code null} for the first page
+     * @param limit the maximum number of rows
+     * @return the matching appointments as response DTOs
+     */
+    List<AppointmentResponse> search(AppointmentSearchCriteria criteria, Instant afterDate, UUID afterId, int limit);
+}
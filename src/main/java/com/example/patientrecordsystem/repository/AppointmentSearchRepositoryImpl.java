@@ -0,0 +1,74 @@
+package com.example.patientrecordsystem.repository;
+
+import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.AppointmentSearchCriteria;
+import com.example.patientrecordsystem.entity.Appointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria API implementation of {@link AppointmentSearchRepository}.
+ *
+ * <p>Only the supplied filters become predicates, so the database sees an equality on the
+ * leading column of one composite index plus a range on {@code appointment_date}; the
+ * cursor adds {@code appointment_date >= :after} so later pages start their seek at the
+ * cursor instead of the start of the range. The select is a constructor expression over the foreign key columns, so no entity is loaded.
+ */
+public class AppointmentSearchRepositoryImpl implements AppointmentSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentResponse> search(AppointmentSearchCriteria criteria, Instant afterDate, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentResponse> query = cb.createQuery(AppointmentResponse.class);
+        Root<Appointment> a = query.from(Appointment.class);
+        Path<UUID> id = a.get("id");
+        Path<UUID> patientId = a.get("patient").get("id");
+        Path<UUID> doctorId = a.get("doctor").get("id");
+        Path<UUID> departmentId = a.get("department").get("id");
+        Path<Instant> date = a.get("appointmentDate");
+        Path<String> status = a.get("status");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.doctorId() != null) {
+            predicates.add(cb.equal(doctorId, criteria.doctorId()));
+        }
+        if (criteria.patientId() != null) {
+            predicates.add(cb.equal(patientId, criteria.patientId()));
+        }
+        if (criteria.departmentId() != null) {
+            predicates.add(cb.equal(departmentId, criteria.departmentId()));
+        }
+        if (criteria.status() != null) {
+            predicates.add(cb.equal(status, criteria.status()));
+        }
+        if (criteria.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(date, criteria.from()));
+        }
+        if (criteria.to() != null) {
+            predicates.add(cb.lessThan(date, criteria.to()));
+        }
+        if (afterDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(date, afterDate));
+            predicates.add(cb.or(cb.greaterThan(date, afterDate), cb.greaterThan(id, afterId)));
+        }
+
+        query.select(cb.construct(AppointmentResponse.class,
+                        id, patientId, doctorId, departmentId, date, status, a.get("reason")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(date), cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
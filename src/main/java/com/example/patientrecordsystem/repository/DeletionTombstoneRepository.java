@@ -0,0 +1,57 @@
+package com.example.patientrecordsystem.repository;
+
+import com.example.patientrecordsystem.dto.SyncMarker;
+import com.example.patientrecordsystem.entity.DeletionTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.DeletionTombstone} entities.
+ */
+public interface DeletionTombstoneRepository extends JpaRepository<DeletionTombstone, UUID> {
+    /** Selects {@link SyncMarker} rows of deletions up to {@code :until}, oldest first; see {@code SyncService}. */
+    String SYNC_SELECT = "select new com.example.patientrecordsystem.dto.SyncMarker(" +
+            "t.resourceType, t.resourceId, t.deletedAt, true) " +
+            "from DeletionTombstone t where t.deletedAt <= :until";
+
+    String SYNC_ORDER = " order by t.deletedAt, t.resourceId";
+
+    @Query(SYNC_SELECT + SYNC_ORDER)
+    List<SyncMarker> findChanges(@Param("until") Instant until, Limit limit);
+
+    @Query(SYNC_SELECT + " and t.deletedAt >= :at and (t.deletedAt > :at or t.resourceId > :id)" + SYNC_ORDER)
+    List<SyncMarker> findChangesAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                      @Param("until") Instant until, Limit limit);
+
+    /** Records the deletion of a patient's appointments; the three methods below do so for its other items. */
+    @Modifying
+    @Query("insert into DeletionTombstone (resourceId, resourceType, deletedAt) " +
+            "select a.id, 'APPOINTMENT', :at from Appointment a where a.patient.id = :patientId")
+    int insertForAppointmentsOfPatient(@Param("patientId") UUID patientId, @Param("at") Instant at);
+
+    @Modifying
+    @Query("insert into DeletionTombstone (resourceId, resourceType, deletedAt) " +
+            "select v.id, 'VISIT', :at from PatientVisit v where v.patient.id = :patientId")
+    int insertForVisitsOfPatient(@Param("patientId") UUID patientId, @Param("at") Instant at);
+
+    @Modifying
+    @Query("insert into DeletionTombstone (resourceId, resourceType, deletedAt) " +
+            "select p.id, 'PRESCRIPTION', :at from Prescription p where p.patient.id = :patientId")
+    int insertForPrescriptionsOfPatient(@Param("patientId") UUID patientId, @Param("at") Instant at);
+
+    @Modifying
+    @Query("insert into DeletionTombstone (resourceId, resourceType, deletedAt) " +
+            "select r.id, 'RECORD', :at from MedicalRecord r where r.patient.id = :patientId")
+    int insertForRecordsOfPatient(@Param("patientId") UUID patientId, @Param("at") Instant at);
+
+    @Modifying
+    @Query("delete from DeletionTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
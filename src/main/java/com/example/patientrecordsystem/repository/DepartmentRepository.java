@@ -1,9 +1,14 @@
 package com.example.patientrecordsystem.repository;
 
-
+import com.example.patientrecordsystem.dto.DepartmentResponse;
 import com.example.patientrecordsystem.entity.Department;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +16,20 @@ import java.util.UUID;
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.Department} entities.
  */
 public interface DepartmentRepository extends JpaRepository<Department, UUID> {
+    /** Selects {@link DepartmentResponse} fields as a constructor expression, without loading the entity. */
+    String RESPONSE_SELECT = "select new com.example.patientrecordsystem.dto.DepartmentResponse(" +
+            "d.id, d.name, d.description, d.isActive) " +
+            "from Department d";
+
     Optional<Department> findByNameIgnoreCase(String name);
     boolean existsByNameIgnoreCase(String name);
+
+    @Query(RESPONSE_SELECT + " order by d.id")
+    List<DepartmentResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_SELECT + " where d.id > :after order by d.id")
+    List<DepartmentResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(RESPONSE_SELECT + " where d.id in :ids")
+    List<DepartmentResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -1,13 +1,33 @@
 package com.example.patientrecordsystem.repository;
 
+import com.example.patientrecordsystem.dto.DoctorResponse;
 import com.example.patientrecordsystem.entity.Doctor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.Doctor} entities.
  */
 public interface DoctorRepository extends JpaRepository<Doctor, UUID> {
+    /** Selects {@link DoctorResponse} fields as a constructor expression, without loading the entity. */
+    String RESPONSE_SELECT = "select new com.example.patientrecordsystem.dto.DoctorResponse(" +
+            "d.id, d.user.id, d.department.id, d.licenseNumber, d.specialization, d.isActive) " +
+            "from Doctor d";
+
     boolean existsByLicenseNumber(String licenseNumber);
+
+    @Query(RESPONSE_SELECT + " order by d.id")
+    List<DoctorResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_SELECT + " where d.id > :after order by d.id")
+    List<DoctorResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(RESPONSE_SELECT + " where d.id in :ids")
+    List<DoctorResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
 }
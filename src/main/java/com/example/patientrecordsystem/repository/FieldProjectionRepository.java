@@ -0,0 +1,94 @@
+package com.example.patientrecordsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads a chosen subset of an entity's attributes as maps, for sparse fieldsets.
+ *
+ * <p>Each requested field becomes one aliased item of a Criteria {@link Tuple} select, so
+ * the SQL reads only those columns and no entity is loaded. A field path such as
+ * {@code patient.id} resolves to the foreign key column itself, without a join, so rows
+ * with a {@code null} association are kept.
+ */
+@Repository
+public class FieldProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Loads one page of rows ordered by id.
+     *
+     * @param entity the entity class
+     * @param fields the response field names mapped to attribute paths, in output order
+     * @param after the id of the last row of the previous page, or {@code null} for the first page
+     * @param limit the maximum number of rows
+     * @return the rows, each mapping the field names to their values
+     */
+    public List<Map<String, Object>> findPage(Class<?> entity, Map<String, String> fields, UUID after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entity);
+        Path<UUID> id = root.get("id");
+        query.multiselect(selections(root, fields)).orderBy(cb.asc(id));
+        if (after != null) {
+            query.where(cb.greaterThan(id, after));
+        }
+        return toMaps(entityManager.createQuery(query).setMaxResults(limit).getResultList(), fields);
+    }
+
+    /**
+     * Loads one row by id.
+     *
+     * @param entity the entity class
+     * @param fields the response field names mapped to attribute paths, in output order
+     * @param id the id
+     * @return the row, or empty if there is none
+     */
+    public Optional<Map<String, Object>> findById(Class<?> entity, Map<String, String> fields, UUID id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entity);
+        query.multiselect(selections(root, fields)).where(cb.equal(root.get("id"), id));
+        return toMaps(entityManager.createQuery(query).getResultList(), fields).stream().findFirst();
+    }
+
+    private static List<Selection<?>> selections(Root<?> root, Map<String, String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        fields.forEach((name, attributePath) -> {
+            Path<?> path = root;
+            for (String attribute : attributePath.split("\\.")) {
+                path = path.get(attribute);
+            }
+            selections.add(path.alias(name));
+        });
+        return selections;
+    }
+
+    private static List<Map<String, Object>> toMaps(List<Tuple> tuples, Map<String, String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (String name : fields.keySet()) {
+                row.put(name, tuple.get(name));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
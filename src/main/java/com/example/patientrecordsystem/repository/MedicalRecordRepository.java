@@ -1,13 +1,92 @@
 package com.example.patientrecordsystem.repository;
 
+import com.example.patientrecordsystem.dto.MedicalRecordResponse;
+import com.example.patientrecordsystem.dto.SyncMarker;
+import com.example.patientrecordsystem.dto.TimelineEntry;
 import com.example.patientrecordsystem.entity.MedicalRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.MedicalRecord} entities.
  */
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, UUID> {
+    /** Selects {@link MedicalRecordResponse} fields as a constructor expression, without loading the entity. */
+    String RESPONSE_SELECT = "select new com.example.patientrecordsystem.dto.MedicalRecordResponse(" +
+            "r.id, r.patient.id, r.doctor.id, r.recordType, r.description, r.attachments) " +
+            "from MedicalRecord r";
+
+    /** Selects {@link SyncMarker} rows changed up to {@code :until}, oldest first; see {@code SyncService}. */
+    String SYNC_SELECT = "select new com.example.patientrecordsystem.dto.SyncMarker(" +
+            "'RECORD', r.id, r.updatedAt, false) " +
+            "from MedicalRecord r where r.updatedAt <= :until";
+
+    String SYNC_ORDER = " order by r.updatedAt, r.id";
+
+    /** Selects {@link TimelineEntry} rows of one patient, newest first; see {@code PatientTimelineService}. */
+    String TIMELINE_SELECT = "select new com.example.patientrecordsystem.dto.TimelineEntry(" +
+            "'RECORD', r.id, r.createdAt, r.doctor.id, r.recordType, r.description) " +
+            "from MedicalRecord r where r.patient.id = :patientId and r.createdAt is not null";
+
+    String TIMELINE_ORDER = " order by r.createdAt desc, r.id desc";
+
     public void deleteByPatient_Id(UUID patientID);
+
+    /**
+     * Streams every medical record as a response DTO through a forward-only cursor, for export.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query(RESPONSE_SELECT)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<MedicalRecordResponse> streamAllForExport();
+
+    @Query(RESPONSE_SELECT + " order by r.id")
+    List<MedicalRecordResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_SELECT + " where r.id > :after order by r.id")
+    List<MedicalRecordResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(RESPONSE_SELECT + " where r.id in :ids")
+    List<MedicalRecordResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(RESPONSE_SELECT + " where r.id = :id")
+    Optional<MedicalRecordResponse> findResponseById(@Param("id") UUID id);
+
+    @Query(TIMELINE_SELECT + TIMELINE_ORDER)
+    List<TimelineEntry> findTimeline(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(TIMELINE_SELECT + " and r.createdAt <= :at and (r.createdAt < :at or r.id < :id)" + TIMELINE_ORDER)
+    List<TimelineEntry> findTimelineBefore(@Param("patientId") UUID patientId, @Param("at") Instant at,
+                                           @Param("id") UUID id, Limit limit);
+
+    @Query(SYNC_SELECT + SYNC_ORDER)
+    List<SyncMarker> findChanges(@Param("until") Instant until, Limit limit);
+
+    @Query(SYNC_SELECT + " and r.updatedAt >= :at and (r.updatedAt > :at or r.id > :id)" + SYNC_ORDER)
+    List<SyncMarker> findChangesAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                      @Param("until") Instant until, Limit limit);
+
+    /** Ids of rows written before {@code updatedAt} existed, which the sync feed cannot see. */
+    @Query("select r.id from MedicalRecord r where r.updatedAt is null order by r.id")
+    List<UUID> findIdsWithoutUpdatedAt(Limit limit);
+
+    @Modifying
+    @Query("update MedicalRecord r set r.updatedAt = :at where r.id in :ids and r.updatedAt is null")
+    int stampUpdatedAt(@Param("ids") Collection<UUID> ids, @Param("at") Instant at);
 }
@@ -1,15 +1,69 @@
 package com.example.patientrecordsystem.repository;
 
+import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.dto.SyncMarker;
 import com.example.patientrecordsystem.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.Patient} entities.
  */
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
+    /** Selects {@link PatientResponse} fields as a constructor expression, without loading the entity. */
+    String RESPONSE_SELECT = "select new com.example.patientrecordsystem.dto.PatientResponse(" +
+            "p.id, p.firstName, p.lastName, p.nationalId, p.gender, p.phone, p.primaryDoctor.id, p.department.id) " +
+            "from Patient p";
+
+    /** Selects {@link SyncMarker} rows changed up to {@code :until}, oldest first; see {@code SyncService}. */
+    String SYNC_SELECT = "select new com.example.patientrecordsystem.dto.SyncMarker(" +
+            "'PATIENT', p.id, p.updatedAt, false) " +
+            "from Patient p where p.updatedAt <= :until";
+
+    String SYNC_ORDER = " order by p.updatedAt, p.id";
+
     Optional<Patient> findByNationalId(String nationalId);
     boolean existsByNationalId(String nationalId);
+
+    /**
+     * Streams every patient as a response DTO through a forward-only cursor, for export.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query(RESPONSE_SELECT)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<PatientResponse> streamAllForExport();
+
+    @Query(RESPONSE_SELECT + " order by p.id")
+    List<PatientResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_SELECT + " where p.id > :after order by p.id")
+    List<PatientResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(RESPONSE_SELECT + " where p.id = :id")
+    Optional<PatientResponse> findResponseById(@Param("id") UUID id);
+
+    @Query(RESPONSE_SELECT + " where p.id in :ids")
+    List<PatientResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SYNC_SELECT + SYNC_ORDER)
+    List<SyncMarker> findChanges(@Param("until") Instant until, Limit limit);
+
+    @Query(SYNC_SELECT + " and p.updatedAt >= :at and (p.updatedAt > :at or p.id > :id)" + SYNC_ORDER)
+    List<SyncMarker> findChangesAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                      @Param("until") Instant until, Limit limit);
 }
@@ -1,15 +1,92 @@
 package com.example.patientrecordsystem.repository;
 
-
+import com.example.patientrecordsystem.dto.PatientVisitResponse;
+import com.example.patientrecordsystem.dto.SyncMarker;
+import com.example.patientrecordsystem.dto.TimelineEntry;
 import com.example.patientrecordsystem.entity.PatientVisit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.PatientVisit} entities.
  */
 public interface PatientVisitRepository extends JpaRepository<PatientVisit, UUID> {
+    /** Selects {@link PatientVisitResponse} fields as a constructor expression, without loading the entity. */
+    String RESPONSE_SELECT = "select new com.example.patientrecordsystem.dto.PatientVisitResponse(" +
+            "v.id, v.patient.id, v.doctor.id, v.visitDate, v.symptoms, v.diagnosis, v.treatmentPlan, v.notes) " +
+            "from PatientVisit v";
+
+    /** Selects {@link SyncMarker} rows changed up to {@code :until}, oldest first; see {@code SyncService}. */
+    String SYNC_SELECT = "select new com.example.patientrecordsystem.dto.SyncMarker(" +
+            "'VISIT', v.id, v.updatedAt, false) " +
+            "from PatientVisit v where v.updatedAt <= :until";
+
+    String SYNC_ORDER = " order by v.updatedAt, v.id";
+
+    /** Selects {@link TimelineEntry} rows of one patient, newest first; see {@code PatientTimelineService}. */
+    String TIMELINE_SELECT = "select new com.example.patientrecordsystem.dto.TimelineEntry(" +
+            "'VISIT', v.id, v.visitDate, v.doctor.id, v.diagnosis, v.symptoms) " +
+            "from PatientVisit v where v.patient.id = :patientId";
+
+    String TIMELINE_ORDER = " order by v.visitDate desc, v.id desc";
+
     public void deleteByPatient_Id(UUID id);
 
-}
\ No newline at end of file
+    /**
+     * Streams every visit as a response DTO through a forward-only cursor, for export.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query(RESPONSE_SELECT)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<PatientVisitResponse> streamAllForExport();
+
+    @Query(RESPONSE_SELECT + " order by v.id")
+    List<PatientVisitResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_SELECT + " where v.id > :after order by v.id")
+    List<PatientVisitResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(RESPONSE_SELECT + " where v.id in :ids")
+    List<PatientVisitResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(RESPONSE_SELECT + " where v.id = :id")
+    Optional<PatientVisitResponse> findResponseById(@Param("id") UUID id);
+
+    @Query(TIMELINE_SELECT + TIMELINE_ORDER)
+    List<TimelineEntry> findTimeline(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(TIMELINE_SELECT + " and v.visitDate <= :at and (v.visitDate < :at or v.id < :id)" + TIMELINE_ORDER)
+    List<TimelineEntry> findTimelineBefore(@Param("patientId") UUID patientId, @Param("at") Instant at,
+                                           @Param("id") UUID id, Limit limit);
+
+    @Query(SYNC_SELECT + SYNC_ORDER)
+    List<SyncMarker> findChanges(@Param("until") Instant until, Limit limit);
+
+    @Query(SYNC_SELECT + " and v.updatedAt >= :at and (v.updatedAt > :at or v.id > :id)" + SYNC_ORDER)
+    List<SyncMarker> findChangesAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                      @Param("until") Instant until, Limit limit);
+
+    /** Ids of rows written before {@code updatedAt} existed, which the sync feed cannot see. */
+    @Query("select v.id from PatientVisit v where v.updatedAt is null order by v.id")
+    List<UUID> findIdsWithoutUpdatedAt(Limit limit);
+
+    @Modifying
+    @Query("update PatientVisit v set v.updatedAt = :at where v.id in :ids and v.updatedAt is null")
+    int stampUpdatedAt(@Param("ids") Collection<UUID> ids, @Param("at") Instant at);
+}
@@ -1,14 +1,77 @@
 package com.example.patientrecordsystem.repository;
 
-
+import com.example.patientrecordsystem.dto.PrescriptionResponse;
+import com.example.patientrecordsystem.dto.SyncMarker;
+import com.example.patientrecordsystem.dto.TimelineEntry;
 import com.example.patientrecordsystem.entity.Prescription;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.Prescription} entities.
  */
 public interface PrescriptionRepository extends JpaRepository<Prescription, UUID> {
+    /** Selects {@link PrescriptionResponse} fields as a constructor expression, without loading the entity. */
+    String RESPONSE_SELECT = "select new com.example.patientrecordsystem.dto.PrescriptionResponse(" +
+            "p.id, p.patient.id, p.doctor.id, p.medicationName, p.dosage, p.frequency, p.duration, p.instructions, p.issuedAt) " +
+            "from Prescription p";
+
+    /** Selects {@link SyncMarker} rows changed up to {@code :until}, oldest first; see {@code SyncService}. */
+    String SYNC_SELECT = "select new com.example.patientrecordsystem.dto.SyncMarker(" +
+            "'PRESCRIPTION', p.id, p.updatedAt, false) " +
+            "from Prescription p where p.updatedAt <= :until";
+
+    String SYNC_ORDER = " order by p.updatedAt, p.id";
+
+    /** Selects {@link TimelineEntry} rows of one patient, newest first; see {@code PatientTimelineService}. */
+    String TIMELINE_SELECT = "select new com.example.patientrecordsystem.dto.TimelineEntry(" +
+            "'PRESCRIPTION', p.id, p.issuedAt, p.doctor.id, p.medicationName, p.dosage) " +
+            "from Prescription p where p.patient.id = :patientId and p.issuedAt is not null";
+
+    String TIMELINE_ORDER = " order by p.issuedAt desc, p.id desc";
+
     public void deleteByPatient_Id(UUID id);
+
+    @Query(RESPONSE_SELECT + " order by p.id")
+    List<PrescriptionResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_SELECT + " where p.id > :after order by p.id")
+    List<PrescriptionResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(RESPONSE_SELECT + " where p.id in :ids")
+    List<PrescriptionResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(RESPONSE_SELECT + " where p.id = :id")
+    Optional<PrescriptionResponse> findResponseById(@Param("id") UUID id);
+
+    @Query(TIMELINE_SELECT + TIMELINE_ORDER)
+    List<TimelineEntry> findTimeline(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(TIMELINE_SELECT + " and p.issuedAt <= :at and (p.issuedAt < :at or p.id < :id)" + TIMELINE_ORDER)
+    List<TimelineEntry> findTimelineBefore(@Param("patientId") UUID patientId, @Param("at") Instant at,
+                                           @Param("id") UUID id, Limit limit);
+
+    @Query(SYNC_SELECT + SYNC_ORDER)
+    List<SyncMarker> findChanges(@Param("until") Instant until, Limit limit);
+
+    @Query(SYNC_SELECT + " and p.updatedAt >= :at and (p.updatedAt > :at or p.id > :id)" + SYNC_ORDER)
+    List<SyncMarker> findChangesAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                      @Param("until") Instant until, Limit limit);
+
+    /** Ids of rows written before {@code updatedAt} existed, which the sync feed cannot see. */
+    @Query("select p.id from Prescription p where p.updatedAt is null order by p.id")
+    List<UUID> findIdsWithoutUpdatedAt(Limit limit);
+
+    @Modifying
+    @Query("update Prescription p set p.updatedAt = :at where p.id in :ids and p.updatedAt is null")
+    int stampUpdatedAt(@Param("ids") Collection<UUID> ids, @Param("at") Instant at);
 }
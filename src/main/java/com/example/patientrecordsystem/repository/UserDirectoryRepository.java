@@ -0,0 +1,27 @@
+package com.example.patientrecordsystem.repository;
+
+import com.example.patientrecordsystem.dto.UserResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Staff directory search by name prefix, mixed into {@link UserRepository}.
+ */
+public interface UserDirectoryRepository {
+
+    /**
+     * Finds users whose normalized names start with the given prefixes.
+     *
+     * <p>When a last name prefix is given, results are ordered by last name key and then
+     * id; otherwise by first name key and then id.
+     *
+     * @param lastNamePrefix the normalized last name prefix, or {@code null}
+     * @param firstNamePrefix the normalized first name prefix, or {@code null}
+     * @param afterKey the ordering key of the last user of the previous page, or {@code null} for the first page
+     * @param afterId the id of the last user of the previous page, or {@code null} for the first page
+     * @param limit the maximum number of rows
+     * @return the matching users as response DTOs
+     */
+    List<UserResponse> searchDirectory(String lastNamePrefix, String firstNamePrefix, String afterKey, UUID afterId, int limit);
+}
@@ -0,0 +1,69 @@
+package com.example.patientrecordsystem.repository;
+
+import com.example.patientrecordsystem.dto.UserResponse;
+import com.example.patientrecordsystem.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria API implementation of {@link UserDirectoryRepository}.
+ *
+ * <p>A prefix becomes a half-open range on its key column, {@code key >= 'smi' and
+ * key < 'smj'}, so the database reads one contiguous slice of
+ * {@code idx_users_last_name_key} or {@code idx_users_first_name_key} in index order and
+ * stops after {@code limit} rows. The upper bound comes from
+ * {@link User#nameKeyUpperBound(String)}, which holds under linguistic collations too; as
+ * the slice may then hold a few keys without the prefix, a {@code LIKE} on the same column
+ * filters it. The other name, if given, filters that slice as well.
+ */
+public class UserDirectoryRepositoryImpl implements UserDirectoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserResponse> searchDirectory(String lastNamePrefix, String firstNamePrefix, String afterKey,
+                                              UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> u = query.from(User.class);
+        Path<UUID> id = u.get("id");
+        Path<String> lastNameKey = u.get("lastNameKey");
+        Path<String> firstNameKey = u.get("firstNameKey");
+        Path<String> key = lastNamePrefix != null ? lastNameKey : firstNameKey;
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (lastNamePrefix != null) {
+            predicates.add(startsWith(cb, lastNameKey, lastNamePrefix));
+        }
+        if (firstNamePrefix != null) {
+            predicates.add(startsWith(cb, firstNameKey, firstNamePrefix));
+        }
+        if (afterKey != null) {
+            predicates.add(cb.or(cb.greaterThan(key, afterKey),
+                    cb.and(cb.equal(key, afterKey), cb.greaterThan(id, afterId))));
+        }
+
+        query.select(cb.construct(UserResponse.class, id, u.get("email"), u.get("firstName"),
+                        u.get("lastName"), u.get("role"), u.get("phone")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(key), cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /** Keys hold only letters and digits, so the prefix needs no {@code LIKE} escaping. */
+    private static Predicate startsWith(CriteriaBuilder cb, Path<String> key, String prefix) {
+        Predicate range = cb.and(cb.greaterThanOrEqualTo(key, prefix), cb.like(key, prefix + "%"));
+        String upper = User.nameKeyUpperBound(prefix);
+        return upper == null ? range : cb.and(range, cb.lessThan(key, upper));
+    }
+}
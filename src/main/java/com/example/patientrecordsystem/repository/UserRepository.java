@@ -1,8 +1,12 @@
 package com.example.patientrecordsystem.repository;
 
 import com.example.patientrecordsystem.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,10 +14,21 @@ import java.util.UUID;
 /**
  * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.User} entities.
  */
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserDirectoryRepository {
 
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    boolean existsByRole(String role);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Loads users whose normalized name columns have not been filled yet, in id order.
+     */
+    @Query("select u from User u where u.id > :after and ((u.firstName is not null and u.firstNameKey is null)"
+            + " or (u.lastName is not null and u.lastNameKey is null)) order by u.id")
+    List<User> findWithoutNameKeys(@Param("after") UUID after, Limit limit);
 
     List<User> findByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase(
             String firstName,
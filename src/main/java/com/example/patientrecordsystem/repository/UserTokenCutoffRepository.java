@@ -0,0 +1,25 @@
+package com.example.patientrecordsystem.repository;
+
+import com.example.patientrecordsystem.entity.UserTokenCutoff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for {@link com.example.patientrecordsystem.entity.UserTokenCutoff} entities.
+ */
+public interface UserTokenCutoffRepository extends JpaRepository<UserTokenCutoff, UUID> {
+
+    List<UserTokenCutoff> findByExpiresAtAfter(Instant now);
+
+    List<UserTokenCutoff> findByIssuedBeforeGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    @Modifying
+    @Query("delete from UserTokenCutoff c where c.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
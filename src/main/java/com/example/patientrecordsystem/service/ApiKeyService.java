@@ -0,0 +1,187 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.config.AuthenticatedUser;
+import com.example.patientrecordsystem.dto.ApiKeyCreateRequest;
+import com.example.patientrecordsystem.dto.ApiKeyResponse;
+import com.example.patientrecordsystem.entity.ApiKey;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.ApiKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.webjars.NotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Service that issues, lists and revokes API keys and authenticates requests made with them.
+ *
+ * <p>Keys are 256 random bits with a {@code prs_} prefix and are stored as SHA-256 digests.
+ * Authentication rejects anything that does not have the shape of an issued key without
+ * digesting it, then looks the digest up in a bounded cache of active keys, so once a key
+ * has been seen no database access is needed. Unknown and inactive keys are only
+ * remembered in a separate small cache for {@code auth.api-key.miss-cache-ttl-seconds},
+ * so a stream of made-up keys cannot push real keys out of the main cache.
+ * Revoking a key evicts it on this instance both immediately and
+ * once the revocation commits; other instances stop accepting it within {@code auth.api-key.cache-ttl-seconds}.
+ *
+ * <p>Hit, miss and eviction counts are published as {@code cache.*} meters tagged
+ * {@code cache=api-keys} and {@code cache=api-key-misses}.
+ */
+@Service
+public class ApiKeyService implements MeterBinder {
+
+    private static final String CACHE_NAME = "api-keys";
+    private static final String MISS_CACHE_NAME = "api-key-misses";
+    private static final String KEY_PREFIX = "prs_";
+    private static final int KEY_BYTES = 32;
+    private static final Pattern KEY_FORMAT = Pattern.compile(
+            Pattern.quote(KEY_PREFIX) + "[A-Za-z0-9_-]{" + (KEY_BYTES * 4 + 2) / 3 + "}");
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final Cache<String, AuthenticatedUser> cache;
+    private final Cache<String, Boolean> misses;
+    private final SecureRandom random = new SecureRandom();
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository,
+                         @Value("${auth.api-key.cache-max-size:10000}") long maxSize,
+                         @Value("${auth.api-key.cache-ttl-seconds:300}") long ttlSeconds,
+                         @Value("${auth.api-key.miss-cache-max-size:1000}") long missMaxSize,
+                         @Value("${auth.api-key.miss-cache-ttl-seconds:30}") long missTtlSeconds) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(missMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(missTtlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Issues a new API key.
+     *
+     * @param req the API key creation request
+     * @return the created key, including the raw key which is not retrievable later
+     */
+    @Transactional
+    public ApiKeyResponse create(ApiKeyCreateRequest req) {
+        byte[] bytes = new byte[KEY_BYTES];
+        random.nextBytes(bytes);
+        String rawKey = KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String hash = HexFormat.of().formatHex(digest(rawKey));
+        ApiKey saved = apiKeyRepository.save(new ApiKey(req.name(), hash, User.normalizeRole(req.role())));
+        cache.invalidate(hash);
+        misses.invalidate(hash);
+        return toResponse(saved, rawKey);
+    }
+
+    /**
+     * Lists all API keys, without their raw values.
+     *
+     * @return a list of API key responses
+     */
+    @Transactional(readOnly = true)
+    public List<ApiKeyResponse> list() {
+        return apiKeyRepository.findAll().stream().map(k -> toResponse(k, null)).toList();
+    }
+
+    /**
+     * Deactivates an API key.
+     *
+     * @param id the API key id
+     * @throws NotFoundException if the API key is not found
+     */
+    @Transactional
+    public void revoke(UUID id) {
+        ApiKey key = apiKeyRepository.findById(id).orElseThrow(() -> new NotFoundException("API key not found"));
+        key.setActive(false);
+        evictNowAndAfterCommit(key.getKeyHash());
+    }
+
+    /**
+     * Resolves the principal for a presented API key.
+     *
+     * @param rawKey the key from the request
+     * @return the principal, or empty if the key is malformed, unknown or inactive
+     */
+    public Optional<AuthenticatedUser> authenticate(String rawKey) {
+        if (!KEY_FORMAT.matcher(rawKey).matches()) {
+            return Optional.empty();
+        }
+        String hash = HexFormat.of().formatHex(digest(rawKey));
+        if (misses.getIfPresent(hash) != null) {
+            return Optional.empty();
+        }
+        AuthenticatedUser principal = cache.get(hash, this::load);
+        if (principal == null) {
+            misses.put(hash, Boolean.TRUE);
+        }
+        return Optional.ofNullable(principal);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(registry, misses, MISS_CACHE_NAME);
+    }
+
+    /**
+     * Loads an active key; returns {@code null} otherwise so that the main cache only ever
+     * holds active keys.
+     */
+    private AuthenticatedUser load(String hash) {
+        return apiKeyRepository.findByKeyHash(hash)
+                .filter(ApiKey::getActive)
+                .map(key -> new AuthenticatedUser(key.getId(), "api-key:" + key.getName(), key.getName(), null, key.getRole(), null))
+                .orElse(null);
+    }
+
+    /**
+     * Evicts a key now and again once the transaction commits, because a lookup running
+     * before the commit still reads the key as active and would cache it again.
+     */
+    private void evictNowAndAfterCommit(String hash) {
+        cache.invalidate(hash);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(hash);
+                }
+            });
+        }
+    }
+
+    private ApiKeyResponse toResponse(ApiKey key, String rawKey) {
+        return new ApiKeyResponse(key.getId(), key.getName(), key.getRole(), key.getActive(), key.getCreatedAt(), rawKey);
+    }
+
+    private static byte[] digest(String rawKey) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(rawKey.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.AppointmentCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.AppointmentSearchCriteria;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.entity.Appointment;
+import com.example.patientrecordsystem.entity.DeletionTombstone;
 import com.example.patientrecordsystem.entity.Department;
 import com.example.patientrecordsystem.entity.Doctor;
 import com.example.patientrecordsystem.entity.Patient;
 import com.example.patientrecordsystem.repository.AppointmentRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.webjars.NotFoundException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -23,16 +29,27 @@ import java.util.UUID;
 @Service
 public class AppointmentService {
 
+    private static final FieldCatalog FIELDS = FieldCatalog.of(AppointmentResponse.class, Appointment.class,
+            Map.of("patientId", "patient.id", "doctorId", "doctor.id", "departmentId", "department.id"));
+
     private final AppointmentRepository appointmentRepository;
     private final PatientService patientService;
     private final DoctorService doctorService;
     private final DepartmentService departmentService;
+    private final KeysetPaginator paginator;
+    private final BatchFetcher batchFetcher;
+    private final SparseFieldsets sparseFieldsets;
+    private final SyncService syncService;
 
-    public AppointmentService(AppointmentRepository appointmentRepository, PatientService patientService, DoctorService doctorService, DepartmentService departmentService) {
+    public AppointmentService(AppointmentRepository appointmentRepository, PatientService patientService, DoctorService doctorService, DepartmentService departmentService, KeysetPaginator paginator, BatchFetcher batchFetcher, SparseFieldsets sparseFieldsets, SyncService syncService) {
         this.appointmentRepository = appointmentRepository;
         this.patientService = patientService;
         this.doctorService = doctorService;
         this.departmentService = departmentService;
+        this.paginator = paginator;
+        this.batchFetcher = batchFetcher;
+        this.sparseFieldsets = sparseFieldsets;
+        this.syncService = syncService;
     }
 
     /**
@@ -40,7 +57,7 @@ public class AppointmentService {
      *
      * @param req the appointment creation request containing patient, doctor, department and appointment details
      * @return the created appointment response
-     * @throws NotFoundException if patient, doctor or department is not found
+     * @throws DataIntegrityViolationException if the patient, doctor or department does not exist (reported as 404)
      */
     @Transactional
     public AppointmentResponse create(AppointmentCreateOrUpdateRequest req) {
@@ -55,7 +72,8 @@ public class AppointmentService {
      * @param id the appointment id
      * @param req the appointment update request
      * @return the updated appointment response
-     * @throws NotFoundException if appointment, patient, doctor or department is not found
+     * @throws NotFoundException if appointment is not found
+     * @throws DataIntegrityViolationException if the patient, doctor or department does not exist (reported as 404)
      */
     @Transactional
     public AppointmentResponse update(UUID id, AppointmentCreateOrUpdateRequest req) {
@@ -73,18 +91,92 @@ public class AppointmentService {
      */
     @Transactional(readOnly = true)
     public AppointmentResponse get(UUID id) {
-        return appointmentRepository.findById(id).map(this::toResponse)
+        return appointmentRepository.findResponseById(id)
                 .orElseThrow(() -> new NotFoundException("Appointment not found"));
     }
 
     /**
-     * Lists all appointments.
+     * Retrieves an appointment by id, reading only the selected fields.
+     *
+     * @param id the appointment id
+     * @param fields comma-separated names of the {@link AppointmentResponse} fields to return; {@code id} is always included
+     * @return the appointment, holding only the selected fields
+     * @throws NotFoundException if the appointment is not found
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> get(UUID id, String fields) {
+        return sparseFieldsets.get(FIELDS, fields, id, "Appointment not found");
+    }
+
+    /**
+     * Lists appointments one page at a time, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of appointment responses
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<AppointmentResponse> list(String cursor, Integer limit) {
+        return paginator.page(cursor, limit, appointmentRepository::findResponses,
+                appointmentRepository::findResponsesAfter, AppointmentResponse::id);
+    }
+
+    /**
+     * Lists appointments one page at a time, ordered by id, reading only the selected fields.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @param fields comma-separated names of the {@link AppointmentResponse} fields to return; {@code id} is always included
+     * @return one page of appointments, each holding only the selected fields
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> list(String cursor, Integer limit, String fields) {
+        return sparseFieldsets.page(FIELDS, fields, cursor, limit);
+    }
+
+    /**
+     * Loads appointments by id in one query per chunk of ids.
+     *
+     * @param ids the ids to load, in the order the results should follow
+     * @return the appointments found in request order, and the ids that do not exist
+     * @throws IllegalArgumentException if the list is empty, too large or contains {@code null}
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResponse<AppointmentResponse> batchGet(List<UUID> ids) {
+        return batchFetcher.fetch(ids, appointmentRepository::findResponsesByIdIn, AppointmentResponse::id);
+    }
+
+    /**
+     * Searches appointments, ordered by date and then id, one page at a time.
      *
-     * @return a list of all appointment responses
+     * @param criteria the filters; at least one of doctor, patient and department is required
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of matching appointments
+     * @throws IllegalArgumentException if no indexed filter is given, the date range is
+     *                                  inverted, or the cursor or limit is invalid
      */
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> list() {
-        return appointmentRepository.findAll().stream().map(this::toResponse).toList();
+    public PageResponse<AppointmentResponse> search(AppointmentSearchCriteria criteria, String cursor, Integer limit) {
+        if (criteria.doctorId() == null && criteria.patientId() == null && criteria.departmentId() == null) {
+            throw new IllegalArgumentException("doctorId, patientId or departmentId is required");
+        }
+        if (criteria.from() != null && criteria.to() != null && criteria.from().isAfter(criteria.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int size = paginator.resolveSize(limit);
+        DateIdCursor after = DateIdCursor.decode(cursor);
+        List<AppointmentResponse> rows = appointmentRepository.search(criteria,
+                after == null ? null : after.at(), after == null ? null : after.id(), size + 1);
+        boolean hasMore = rows.size() > size;
+        List<AppointmentResponse> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? new DateIdCursor(page.get(size - 1).appointmentDate(), page.get(size - 1).id()).encode()
+                : null;
+        return new PageResponse<>(page, nextCursor);
     }
 
     /**
@@ -97,12 +189,13 @@ public class AppointmentService {
     public void delete(UUID id) {
         if (!appointmentRepository.existsById(id)) throw new NotFoundException("Appointment not found");
         appointmentRepository.deleteById(id);
+        syncService.recordDeletion(DeletionTombstone.APPOINTMENT, id);
     }
 
     private void apply(Appointment a, AppointmentCreateOrUpdateRequest req) {
-        Patient patient = patientService.require(req.patientId());
-        Doctor doctor = doctorService.require(req.doctorId());
-        Department dept = departmentService.require(req.departmentId());
+        Patient patient = patientService.reference(req.patientId());
+        Doctor doctor = doctorService.reference(req.doctorId());
+        Department dept = departmentService.reference(req.departmentId());
         a.setPatient(patient);
         a.setDoctor(doctor);
         a.setDepartment(dept);
@@ -2,65 +2,186 @@ package com.example.patientrecordsystem.service;
 
 import com.example.patientrecordsystem.dto.AuthResponse;
 import com.example.patientrecordsystem.dto.LoginRequest;
+import com.example.patientrecordsystem.dto.RefreshRequest;
 import com.example.patientrecordsystem.dto.RegisterRequest;
 import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.exception.ServiceBusyException;
 import com.example.patientrecordsystem.repository.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.webjars.NotFoundException;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Service responsible for user registration and authentication.
  *
- * <p>Creates user accounts and issues JWT tokens on successful login.
+ * <p>Creates user accounts and issues JWT tokens on successful login. Password hashing runs
+ * on {@link PasswordHashingService}'s bounded pool, and neither operation holds a database
+ * transaction (and its connection) open while a hash is being computed.
+ *
+ * <p>Logins for emails recorded in {@link UnknownEmailCache} are rejected without a query.
+ * Every rejection for an unknown email still checks the password against a dummy hash of
+ * the current cost, so it takes as long as a wrong password for an existing account. A
+ * rejection answered from the cache then waits for the average duration of recent email
+ * lookups, standing in for the query it skipped, so that it is not faster than one that
+ * queried. Individual lookups still vary around that average.
+ *
+ * <p>Self-registration is open to anonymous callers, so it always creates accounts with
+ * the {@code auth.register.role} role (default {@code STAFF}); any other role, and
+ * {@code ADMIN} in particular, is assigned by an administrator through
+ * {@link UserDirectoryService#assignRole}.
+ *
+ * <p>Besides the access token, a login returns a refresh token from
+ * {@link RefreshTokenService}; {@link #refresh(RefreshRequest)} exchanges it for a new pair
+ * without touching the password hash, so keep {@code jwt.expiration} short.
  */
 @Service
 public class AuthService {
 
+    private static final String DUMMY_PASSWORD = "unknown-user-password";
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
+    private final UnknownEmailCache unknownEmailCache;
+    private final RefreshTokenService refreshTokenService;
+    private final String selfRegistrationRole;
+    private volatile String dummyHash;
+    private volatile long lookupNanos;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                       JwtService jwtService, UnknownEmailCache unknownEmailCache,
+                       RefreshTokenService refreshTokenService,
+                       @Value("${auth.register.role:STAFF}") String selfRegistrationRole) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
+        this.unknownEmailCache = unknownEmailCache;
+        this.refreshTokenService = refreshTokenService;
+        this.selfRegistrationRole = User.normalizeRole(selfRegistrationRole);
+        if (User.ADMIN.equals(this.selfRegistrationRole)) {
+            throw new IllegalStateException("auth.register.role must not be " + User.ADMIN);
+        }
     }
 
     /**
      * Registers a new user account.
      *
-     * @param req the registration request containing email, password, name and role
+     * @param req the registration request containing email, password and name; its role, if
+     *            given, must be the self-registration role
      * @return the created user
-     * @throws IllegalArgumentException if email already exists
+     * @throws IllegalArgumentException if email already exists or another role is requested
+     * @throws com.example.patientrecordsystem.exception.ServiceBusyException if password hashing is saturated
      */
-    @Transactional
     public User register(RegisterRequest req) {
+        String role = User.normalizeRole(req.role());
+        if (role != null && !role.equals(selfRegistrationRole)) {
+            throw new IllegalArgumentException("Role " + role + " can only be assigned by an administrator");
+        }
         if (userRepository.existsByEmail(req.email())) {
             throw new IllegalArgumentException("Email already exists");
         }
-        String hash = passwordEncoder.encode(req.password());
-        User user = new User(req.email(), hash, req.firstName(), req.lastName(), req.role(), req.phone());
+        String hash = passwordHashingService.encode(req.password());
+        User user = new User(req.email(), hash, req.firstName(), req.lastName(), selfRegistrationRole, req.phone());
         return userRepository.save(user);
     }
 
     /**
      * Authenticates a user and generates a JWT token.
      *
+     * <p>If the stored hash was produced with a lower BCrypt cost than the current
+     * encoder, it is transparently recomputed from the supplied password and saved.
+     *
      * @param req the login request containing email and password
      * @return an authentication response with access token and token type
      * @throws NotFoundException if email is not found or password is invalid
+     * @throws com.example.patientrecordsystem.exception.ServiceBusyException if password hashing is saturated
      */
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest req) {
-        User user = userRepository.findByEmail(req.email())
-                .orElseThrow(() -> new NotFoundException("Invalid email or password"));
-        if (!passwordEncoder.matches(req.password(), user.getPasswordHash())) {
+        if (unknownEmailCache.isKnownUnknown(req.email())) {
+            passwordHashingService.matches(req.password(), dummyHash());
+            LockSupport.parkNanos(lookupNanos);
             throw new NotFoundException("Invalid email or password");
         }
-        String token = jwtService.generateToken(user.getEmail(), user.getRole());
-        return new AuthResponse(token, "Bearer");
+        User user = findLoginUser(req.email());
+        if (user == null) {
+            passwordHashingService.matches(req.password(), dummyHash());
+            throw new NotFoundException("Invalid email or password");
+        }
+        if (!passwordHashingService.matches(req.password(), user.getPasswordHash())) {
+            throw new NotFoundException("Invalid email or password");
+        }
+        upgradePasswordHash(user, req.password());
+        return tokens(user, refreshTokenService.issue(user));
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     *
+     * <p>Costs one indexed lookup and no password hashing. The presented refresh token is
+     * consumed; presenting it again revokes every token derived from the same login.
+     *
+     * @param req the refresh request
+     * @return an authentication response with the new token pair
+     * @throws NotFoundException if the refresh token is invalid, expired or was already used
+     */
+    public AuthResponse refresh(RefreshRequest req) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(req.refreshToken());
+        return tokens(rotation.user(), rotation.refreshToken());
+    }
+
+    /**
+     * Revokes a refresh token and every token rotated from the same login.
+     *
+     * @param refreshToken the refresh token
+     */
+    public void revokeRefreshToken(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private AuthResponse tokens(User user, String refreshToken) {
+        String accessToken = jwtService.generateToken(user);
+        return new AuthResponse(accessToken, "Bearer", refreshToken, jwtService.getExpiration() / 1000);
+    }
+
+    /**
+     * Looks a login email up, recording misses in the unknown-email cache and the duration
+     * in a moving average that cached rejections wait for.
+     */
+    private User findLoginUser(String email) {
+        long stamp = unknownEmailCache.stamp();
+        long start = System.nanoTime();
+        User user = userRepository.findByEmail(email).orElse(null);
+        long elapsed = System.nanoTime() - start;
+        // concurrent updates may drop a sample, which the average tolerates
+        lookupNanos += (elapsed - lookupNanos) / 8;
+        if (user == null) {
+            unknownEmailCache.recordUnknown(email, stamp);
+        }
+        return user;
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordHashingService.encode(DUMMY_PASSWORD);
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        try {
+            user.setPasswordHash(passwordHashingService.encode(rawPassword));
+            userRepository.save(user);
+        } catch (ServiceBusyException e) {
+            // the upgrade is retried on the next successful login
+        }
     }
 
     @Transactional(readOnly = true)
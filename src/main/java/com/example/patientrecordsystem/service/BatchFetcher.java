@@ -0,0 +1,76 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Serves batch lookups by id for the {@code POST /api/{resource}/batch-get} endpoints.
+ *
+ * <p>Distinct ids are loaded through an {@code IN}-list projection query, at most
+ * {@code app.batch-get.chunk-size} per statement, so a request of a few hundred ids costs
+ * one round trip and very large requests stay below driver parameter limits. Results are
+ * returned in request order together with the ids that were not found. A request may hold
+ * at most {@code app.batch-get.max-ids} ids.
+ */
+@Component
+public class BatchFetcher {
+
+    private final int chunkSize;
+    private final int maxIds;
+
+    public BatchFetcher(@Value("${app.batch-get.chunk-size:500}") int chunkSize,
+                        @Value("${app.batch-get.max-ids:5000}") int maxIds) {
+        this.chunkSize = chunkSize;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Loads rows by id.
+     *
+     * @param ids the requested ids, in the order the results should follow
+     * @param query loads the rows with the given ids, in any order
+     * @param idOf extracts the id of a row
+     * @return the rows found in request order, and the missing ids
+     * @throws IllegalArgumentException if there are no ids, more than the maximum, or a {@code null} id
+     */
+    public <R> BatchGetResponse<R> fetch(List<UUID> ids, Function<List<UUID>, List<R>> query, Function<R, UUID> idOf) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids per request");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<UUID, R> found = new HashMap<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<UUID> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            for (R row : query.apply(chunk)) {
+                found.put(idOf.apply(row), row);
+            }
+        }
+        List<R> items = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : distinct) {
+            R row = found.get(id);
+            if (row != null) {
+                items.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchGetResponse<>(items, missing);
+    }
+}
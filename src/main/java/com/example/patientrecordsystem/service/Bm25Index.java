@@ -0,0 +1,522 @@
+package com.example.patientrecordsystem.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over free text, answering BM25-ranked queries optionally
+ * restricted to one patient and/or one doctor.
+ *
+ * <p>Texts are normalized as in {@link TrigramIndex}, split into words, stripped of
+ * common English stop words and reduced with the {@link PorterStemmer}, so that
+ * {@code "coughing"} finds {@code "coughs"}. Each term has a posting list of document
+ * ordinals in ascending order, packed with the term's frequency in the document into one
+ * {@code int}. Documents are scored with BM25 ({@code k1 = 1.2}, {@code b = 0.75}) and the
+ * best {@code limit} are kept.
+ *
+ * <p>An unrestricted query walks the posting lists of its terms in step using MaxScore:
+ * once enough results are held, the terms whose combined best possible contribution cannot
+ * beat the weakest of them no longer produce candidates and are only probed, so long lists
+ * of common words are mostly skipped. A restricted query instead walks the patient's or
+ * doctor's own documents when there are fewer of them than postings, probing each term's
+ * list, so its cost depends on that patient's history and not on the size of the index.
+ *
+ * <p>Writes only append: a new or changed document gets the next ordinal, and the ordinal
+ * it replaces is marked removed and skipped by queries. Removed documents still count in
+ * the term and length statistics, and their postings still take memory, until a new index
+ * is built. Searches run concurrently, writes are exclusive.
+ */
+public class Bm25Index {
+
+    /**
+     * One ranked result.
+     *
+     * @param kind the kind the document was indexed with
+     * @param id the document id
+     * @param score its BM25 score
+     */
+    public record Hit(String kind, UUID id, double score) {}
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TF_BITS = 5;
+    private static final int MAX_TF = (1 << TF_BITS) - 1;
+    private static final int MAX_DOCUMENTS = 1 << (31 - TF_BITS);
+    private static final int MAX_QUERY_TERMS = 32;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "been", "but",
+            "by", "for", "from", "had", "has", "have", "he", "her", "his", "in", "into", "is", "it", "its", "of",
+            "on", "or", "she", "that", "the", "their", "then", "there", "they", "this", "to", "was", "were",
+            "which", "will", "with");
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<UUID, Group> patients = new HashMap<>();
+    private final Map<UUID, Group> doctors = new HashMap<>();
+    private final List<String> kinds = new ArrayList<>();
+    private final BitSet removed = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] idHigh = new long[1024];
+    private long[] idLow = new long[1024];
+    private int[] lengths = new int[1024];
+    private int[] patientCodes = new int[1024];
+    private int[] doctorCodes = new int[1024];
+    private byte[] kindCodes = new byte[1024];
+    private int[] slots = new int[2048];
+    private int nextOrdinal;
+    private int live;
+    private long totalLength;
+
+    /**
+     * Adds a document, or replaces an indexed one.
+     *
+     * @param id the document id
+     * @param kind what the document is, returned with its hits; at most 127 distinct kinds
+     * @param patientId the patient the document belongs to
+     * @param doctorId the doctor the document belongs to
+     * @param text the text to index
+     * @throws IllegalStateException if the index holds too many ordinals and must be rebuilt
+     */
+    public void put(UUID id, String kind, UUID patientId, UUID doctorId, String text) {
+        List<String> terms = analyze(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            int existing = find(id);
+            if (existing >= 0) {
+                markRemoved(existing);
+            }
+            if (nextOrdinal == MAX_DOCUMENTS) {
+                throw new IllegalStateException("Index is full; rebuild it");
+            }
+            int ordinal = nextOrdinal++;
+            ensureCapacity(nextOrdinal);
+            idHigh[ordinal] = id.getMostSignificantBits();
+            idLow[ordinal] = id.getLeastSignificantBits();
+            lengths[ordinal] = terms.size();
+            kindCodes[ordinal] = kindCode(kind);
+            patientCodes[ordinal] = group(patients, patientId).add(ordinal);
+            doctorCodes[ordinal] = group(doctors, doctorId).add(ordinal);
+            insertSlot(ordinal);
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, tf));
+            totalLength += terms.size();
+            live++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document; does nothing if it is not indexed.
+     *
+     * @param id the document id
+     */
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = find(id);
+            if (ordinal >= 0) {
+                markRemoved(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every document of a patient.
+     *
+     * @param patientId the patient id
+     */
+    public void removePatient(UUID patientId) {
+        lock.writeLock().lock();
+        try {
+            Group group = patients.get(patientId);
+            if (group == null) {
+                return;
+            }
+            for (int i = 0; i < group.size; i++) {
+                if (!removed.get(group.ordinals[i])) {
+                    markRemoved(group.ordinals[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents best matching a query.
+     *
+     * @param query the query text; only its first 32 terms are used
+     * @param patientId restricts results to this patient's documents, or {@code null}
+     * @param doctorId restricts results to this doctor's documents, or {@code null}
+     * @param limit the maximum number of results
+     * @return the matching documents, best first
+     */
+    public List<Hit> search(String query, UUID patientId, UUID doctorId, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(analyze(query)));
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Group patient = patientId == null ? null : patients.get(patientId);
+            Group doctor = doctorId == null ? null : doctors.get(doctorId);
+            if ((patientId != null && patient == null) || (doctorId != null && doctor == null)) {
+                return List.of();
+            }
+            Query q = new Query(terms, patient, doctor);
+            if (q.lists.length == 0) {
+                return List.of();
+            }
+            Group driver = patient == null || (doctor != null && doctor.size < patient.size) ? doctor : patient;
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+            if (driver != null && driver.size < q.postingCount) {
+                scoreGroup(q, driver, best, limit);
+            } else {
+                scoreMaxScore(q, best, limit);
+            }
+            List<Hit> hits = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                long rank = best.poll();
+                int ordinal = Integer.MAX_VALUE - (int) (rank & 0x7FFF_FFFFL);
+                hits.add(new Hit(kinds.get(kindCodes[ordinal]), new UUID(idHigh[ordinal], idLow[ordinal]),
+                        Float.intBitsToFloat((int) (rank >>> 32))));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return the size
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores the documents of one patient or doctor, probing each term's list for them.
+     */
+    private void scoreGroup(Query q, Group driver, PriorityQueue<Long> best, int limit) {
+        for (int d = 0; d < driver.size; d++) {
+            int ordinal = driver.ordinals[d];
+            if (!q.accepts(ordinal)) {
+                continue;
+            }
+            float norm = q.norm(ordinal);
+            float score = 0;
+            for (int i = 0; i < q.lists.length; i++) {
+                q.positions[i] = seek(q.lists[i], q.positions[i], q.sizes[i], ordinal << TF_BITS);
+                if (q.positions[i] < q.sizes[i] && q.lists[i][q.positions[i]] >>> TF_BITS == ordinal) {
+                    score += q.termScore(i, q.lists[i][q.positions[i]] & MAX_TF, norm);
+                }
+            }
+            if (score > 0) {
+                offer(best, limit, score, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Walks the posting lists in ordinal order. Lists are sorted by their best possible
+     * contribution; once the results are full, the prefix of lists that together cannot
+     * beat the weakest result stops producing candidates and is only probed.
+     */
+    private void scoreMaxScore(Query q, PriorityQueue<Long> best, int limit) {
+        int n = q.lists.length;
+        float[] cumulative = new float[n];
+        for (int i = 0; i < n; i++) {
+            cumulative[i] = (i == 0 ? 0 : cumulative[i - 1]) + q.idf[i] * (K1 + 1);
+        }
+        float threshold = 0;
+        int essential = 0;
+        while (essential < n) {
+            int ordinal = Integer.MAX_VALUE;
+            for (int i = essential; i < n; i++) {
+                if (q.positions[i] < q.sizes[i]) {
+                    ordinal = Math.min(ordinal, q.lists[i][q.positions[i]] >>> TF_BITS);
+                }
+            }
+            if (ordinal == Integer.MAX_VALUE) {
+                break;
+            }
+            boolean accepted = q.accepts(ordinal);
+            float norm = accepted ? q.norm(ordinal) : 0;
+            float score = 0;
+            for (int i = essential; i < n; i++) {
+                if (q.positions[i] < q.sizes[i] && q.lists[i][q.positions[i]] >>> TF_BITS == ordinal) {
+                    if (accepted) {
+                        score += q.termScore(i, q.lists[i][q.positions[i]] & MAX_TF, norm);
+                    }
+                    q.positions[i]++;
+                }
+            }
+            if (!accepted) {
+                continue;
+            }
+            for (int i = essential - 1; i >= 0 && score + cumulative[i] > threshold; i--) {
+                q.positions[i] = seek(q.lists[i], q.positions[i], q.sizes[i], ordinal << TF_BITS);
+                if (q.positions[i] < q.sizes[i] && q.lists[i][q.positions[i]] >>> TF_BITS == ordinal) {
+                    score += q.termScore(i, q.lists[i][q.positions[i]] & MAX_TF, norm);
+                }
+            }
+            if (offer(best, limit, score, ordinal) && best.size() == limit) {
+                threshold = Float.intBitsToFloat((int) (best.peek() >>> 32));
+                while (essential < n && cumulative[essential] <= threshold) {
+                    essential++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the document if it ranks among the best {@code limit}. Ordinals arrive in
+     * ascending order and ties go to the earlier one, so a document scoring no more than
+     * the weakest result is never kept, which is what lets MaxScore skip it.
+     */
+    private static boolean offer(PriorityQueue<Long> best, int limit, float score, int ordinal) {
+        long rank = ((long) Float.floatToIntBits(score) << 32) | (Integer.MAX_VALUE - ordinal);
+        if (best.size() < limit) {
+            best.add(rank);
+            return true;
+        }
+        if (rank > best.peek()) {
+            best.poll();
+            best.add(rank);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first position at or after {@code from} holding a value not less than
+     * {@code target}, galloping so that long skips cost logarithmic time.
+     */
+    private static int seek(int[] list, int from, int size, int target) {
+        int bound = 1;
+        while (from + bound < size && list[from + bound] < target) {
+            bound <<= 1;
+        }
+        int at = Arrays.binarySearch(list, from + (bound >> 1), Math.min(from + bound + 1, size), target);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    /**
+     * Splits a text into stemmed terms, dropping stop words.
+     */
+    static List<String> analyze(String text) {
+        String normalized = TrigramIndex.normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        int start = 0;
+        while (start < normalized.length()) {
+            int end = normalized.indexOf(' ', start);
+            if (end < 0) {
+                end = normalized.length();
+            }
+            String word = normalized.substring(start, end);
+            if (!STOP_WORDS.contains(word)) {
+                terms.add(PorterStemmer.stem(word));
+            }
+            start = end + 1;
+        }
+        return terms;
+    }
+
+    private int find(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int mask = slots.length - 1;
+        for (int slot = hash(high, low) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int ordinal = slots[slot] - 1;
+            if (idHigh[ordinal] == high && idLow[ordinal] == low && !removed.get(ordinal)) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Records an ordinal in the open-addressing id table. Slots of removed ordinals are
+     * kept, so the table grows with every write until the index is rebuilt.
+     */
+    private void insertSlot(int ordinal) {
+        if (nextOrdinal * 2 > slots.length) {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            for (int entry : old) {
+                if (entry != 0) {
+                    placeSlot(entry - 1);
+                }
+            }
+        }
+        placeSlot(ordinal);
+    }
+
+    private void placeSlot(int ordinal) {
+        int mask = slots.length - 1;
+        int slot = hash(idHigh[ordinal], idLow[ordinal]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = ordinal + 1;
+    }
+
+    private static int hash(long high, long low) {
+        long h = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void markRemoved(int ordinal) {
+        removed.set(ordinal);
+        live--;
+    }
+
+    private byte kindCode(String kind) {
+        int code = kinds.indexOf(kind);
+        if (code < 0) {
+            if (kinds.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many document kinds");
+            }
+            kinds.add(kind);
+            code = kinds.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    private static Group group(Map<UUID, Group> groups, UUID id) {
+        return groups.computeIfAbsent(id, key -> new Group(groups.size()));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > idHigh.length) {
+            int grown = Math.max(capacity, idHigh.length + (idHigh.length >> 1));
+            idHigh = Arrays.copyOf(idHigh, grown);
+            idLow = Arrays.copyOf(idLow, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+            patientCodes = Arrays.copyOf(patientCodes, grown);
+            doctorCodes = Arrays.copyOf(doctorCodes, grown);
+            kindCodes = Arrays.copyOf(kindCodes, grown);
+        }
+    }
+
+    /**
+     * The per-query view of the index: the posting lists of the query terms, sorted by
+     * their best possible contribution, with their idf and the cursor of each list.
+     */
+    private final class Query {
+
+        final int[][] lists;
+        final int[] sizes;
+        final int[] positions;
+        final float[] idf;
+        final long postingCount;
+        final int patientCode;
+        final int doctorCode;
+        final float averageLength;
+
+        Query(List<String> terms, Group patient, Group doctor) {
+            List<Postings> found = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    found.add(list);
+                }
+            }
+            // fewer documents means a higher idf and a larger best possible contribution
+            found.sort((a, b) -> Integer.compare(b.size, a.size));
+            lists = new int[found.size()][];
+            sizes = new int[found.size()];
+            positions = new int[found.size()];
+            idf = new float[found.size()];
+            long count = 0;
+            for (int i = 0; i < found.size(); i++) {
+                Postings list = found.get(i);
+                lists[i] = list.entries;
+                sizes[i] = list.size;
+                idf[i] = (float) Math.log(1 + (nextOrdinal - list.size + 0.5) / (list.size + 0.5));
+                count += list.size;
+            }
+            postingCount = count;
+            patientCode = patient == null ? -1 : patient.code;
+            doctorCode = doctor == null ? -1 : doctor.code;
+            averageLength = nextOrdinal == 0 ? 1 : Math.max(1, (float) totalLength / nextOrdinal);
+        }
+
+        boolean accepts(int ordinal) {
+            return !removed.get(ordinal)
+                    && (patientCode < 0 || patientCodes[ordinal] == patientCode)
+                    && (doctorCode < 0 || doctorCodes[ordinal] == doctorCode);
+        }
+
+        float norm(int ordinal) {
+            return K1 * (1 - B + B * lengths[ordinal] / averageLength);
+        }
+
+        float termScore(int term, int tf, float norm) {
+            return idf[term] * tf * (K1 + 1) / (tf + norm);
+        }
+    }
+
+    /** A growable posting list of packed ordinal and term frequency entries. */
+    private static final class Postings {
+
+        int[] entries = new int[2];
+        int size;
+
+        void add(int ordinal, int tf) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size + (size >> 1) + 1);
+            }
+            entries[size++] = ordinal << TF_BITS | Math.min(tf, MAX_TF);
+        }
+    }
+
+    /** The ordinals of one patient's or one doctor's documents, in ascending order. */
+    private static final class Group {
+
+        final int code;
+        int[] ordinals = new int[2];
+        int size;
+
+        Group(int code) {
+            this.code = code;
+        }
+
+        int add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size + (size >> 1) + 1);
+            }
+            ordinals[size++] = ordinal;
+            return code;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.ClinicalNoteHit;
+import com.example.patientrecordsystem.dto.MedicalRecordResponse;
+import com.example.patientrecordsystem.dto.PatientVisitResponse;
+import com.example.patientrecordsystem.repository.MedicalRecordRepository;
+import com.example.patientrecordsystem.repository.PatientVisitRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over the free text of visits (symptoms, diagnosis, treatment plan and
+ * notes) and medical records (description).
+ *
+ * <p>Matching and ranking run against a {@link Bm25Index} held in memory, so a search
+ * issues at most two queries: loading the top-ranked visits and records by id. The index
+ * is built in the background at startup, so startup does not wait for it; until that build
+ * finishes, searches only find notes written since startup. It is updated by
+ * {@link PatientVisitService},
+ * {@link MedicalRecordService} and {@link PatientService} after each write commits;
+ * rolled-back changes never reach it. Every {@code app.note-search.rebuild-interval-ms} it
+ * is rebuilt from the tables, which picks up changes made by other instances and compacts
+ * replaced and deleted entries. Changes committed while a rebuild is reading the tables are
+ * replayed onto the new index before it replaces the old one (see {@link LiveSearchIndex}).
+ * Scheduled rebuilds, and those administrators request, also run on the index's own
+ * thread, so a long rebuild never holds up the shared scheduler thread.
+ *
+ * <p>The index needs about 200 MB of heap per million notes of typical length, so about
+ * 2 GB at ten million, and twice that during a rebuild, when the old and the new index are
+ * both held until the swap. Size the heap for the rebuild peak.
+ */
+@Service
+public class ClinicalNoteSearchService {
+
+    static final String VISIT = "VISIT";
+    static final String RECORD = "RECORD";
+
+    private final PatientVisitRepository visitRepository;
+    private final MedicalRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KeysetPaginator paginator;
+    private final LiveSearchIndex<Bm25Index> liveIndex = new LiveSearchIndex<>("note-search", Bm25Index::new);
+
+    public ClinicalNoteSearchService(PatientVisitRepository visitRepository,
+                                     MedicalRecordRepository recordRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     KeysetPaginator paginator) {
+        this.visitRepository = visitRepository;
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.paginator = paginator;
+    }
+
+    @PostConstruct
+    void load() {
+        rebuildInBackground();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        liveIndex.shutdown();
+    }
+
+    /**
+     * Searches the text of visits and medical records.
+     *
+     * @param query the words to look for; word forms such as plurals and {@code -ing} match each other
+     * @param patientId restricts results to this patient, or {@code null}
+     * @param doctorId restricts results to this doctor, or {@code null}
+     * @param limit the maximum number of results, or {@code null} for the default page size
+     * @return the best matching visits and records, best first; empty for a blank query
+     * @throws IllegalArgumentException if the limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public List<ClinicalNoteHit> search(String query, UUID patientId, UUID doctorId, Integer limit) {
+        int size = paginator.resolveSize(limit);
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        List<Bm25Index.Hit> hits = liveIndex.current().search(query, patientId, doctorId, size);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Object> rows = new HashMap<>();
+        List<UUID> visitIds = idsOf(hits, VISIT);
+        if (!visitIds.isEmpty()) {
+            rows.putAll(visitRepository.findResponsesByIdIn(visitIds).stream()
+                    .collect(Collectors.toMap(PatientVisitResponse::id, Function.identity())));
+        }
+        List<UUID> recordIds = idsOf(hits, RECORD);
+        if (!recordIds.isEmpty()) {
+            rows.putAll(recordRepository.findResponsesByIdIn(recordIds).stream()
+                    .collect(Collectors.toMap(MedicalRecordResponse::id, Function.identity())));
+        }
+        List<ClinicalNoteHit> ranked = new ArrayList<>(rows.size());
+        for (Bm25Index.Hit hit : hits) {
+            Object row = rows.get(hit.id());
+            if (row != null) {
+                ranked.add(new ClinicalNoteHit(hit.kind(), hit.id(), hit.score(), row));
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Indexes a created or updated visit once the current transaction commits.
+     *
+     * @param visit the visit as saved
+     */
+    public void indexAfterCommit(PatientVisitResponse visit) {
+        String text = textOf(visit);
+        liveIndex.afterCommit(index -> index.put(visit.id(), VISIT, visit.patientId(), visit.doctorId(), text));
+    }
+
+    /**
+     * Indexes a created or updated medical record once the current transaction commits.
+     *
+     * @param record the record as saved
+     */
+    public void indexAfterCommit(MedicalRecordResponse record) {
+        liveIndex.afterCommit(index -> index.put(record.id(), RECORD, record.patientId(), record.doctorId(), record.description()));
+    }
+
+    /**
+     * Removes a deleted visit or medical record from the index once the current transaction
+     * commits.
+     *
+     * @param id the visit or record id
+     */
+    public void removeAfterCommit(UUID id) {
+        liveIndex.afterCommit(index -> index.remove(id));
+    }
+
+    /**
+     * Removes every visit and medical record of a deleted patient once the current
+     * transaction commits.
+     *
+     * @param patientId the patient id
+     */
+    public void removePatientAfterCommit(UUID patientId) {
+        liveIndex.afterCommit(index -> index.removePatient(patientId));
+    }
+
+    /**
+     * Replaces the index with one built from the {@code patient_visits} and
+     * {@code medical_records} tables, returning once the new index is in place.
+     */
+    public void rebuild() {
+        liveIndex.rebuild(this::loadInto);
+    }
+
+    /**
+     * Starts a {@link #rebuild()} in the background and returns at once. A request made
+     * while another is still waiting to start is merged into it.
+     */
+    @Scheduled(fixedDelayString = "${app.note-search.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.note-search.rebuild-interval-ms:3600000}")
+    public void rebuildInBackground() {
+        liveIndex.rebuildInBackground(this::loadInto);
+    }
+
+    /**
+     * Returns the number of indexed visits and medical records.
+     *
+     * @return the size
+     */
+    public int size() {
+        return liveIndex.current().size();
+    }
+
+    private void loadInto(Bm25Index fresh) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PatientVisitResponse> rows = visitRepository.streamAllForExport()) {
+                rows.forEach(v -> fresh.put(v.id(), VISIT, v.patientId(), v.doctorId(), textOf(v)));
+            }
+            try (Stream<MedicalRecordResponse> rows = recordRepository.streamAllForExport()) {
+                rows.forEach(r -> fresh.put(r.id(), RECORD, r.patientId(), r.doctorId(), r.description()));
+            }
+        });
+    }
+
+    private static List<UUID> idsOf(List<Bm25Index.Hit> hits, String kind) {
+        return hits.stream().filter(hit -> hit.kind().equals(kind)).map(Bm25Index.Hit::id).toList();
+    }
+
+    private static String textOf(PatientVisitResponse visit) {
+        return String.join(" ", nullToEmpty(visit.symptoms()), nullToEmpty(visit.diagnosis()),
+                nullToEmpty(visit.treatmentPlan()), nullToEmpty(visit.notes()));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
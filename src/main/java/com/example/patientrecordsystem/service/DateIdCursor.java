@@ -0,0 +1,60 @@
+package com.example.patientrecordsystem.service;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a list ordered by a timestamp and then by id.
+ *
+ * <p>Encoded as URL-safe Base64 of the epoch seconds, nanoseconds and the id's 128 bits;
+ * clients must treat it as opaque.
+ *
+ * @param at the timestamp of the last item returned
+ * @param id the id of the last item returned
+ */
+record DateIdCursor(Instant at, UUID id) {
+
+    private static final int LENGTH = 28;
+
+    String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH);
+        buffer.putLong(at.getEpochSecond()).putInt(at.getNano());
+        buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param cursor the cursor, or {@code null}
+     * @return the position, or {@code null} if the cursor is {@code null} or blank
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static DateIdCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != LENGTH) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Instant at = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new DateIdCursor(at, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Orders UUIDs as unsigned 128-bit numbers, which is how PostgreSQL and H2 sort them.
+     */
+    static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
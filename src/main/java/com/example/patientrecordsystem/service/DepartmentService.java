@@ -1,7 +1,9 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.DepartmentCreateRequest;
 import com.example.patientrecordsystem.dto.DepartmentResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.entity.Department;
 import com.example.patientrecordsystem.repository.DepartmentRepository;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,7 @@ import org.webjars.NotFoundException;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -20,10 +23,18 @@ import java.util.UUID;
 @Service
 public class DepartmentService {
 
+    private static final FieldCatalog FIELDS = FieldCatalog.of(DepartmentResponse.class, Department.class, Map.of());
+
     private final DepartmentRepository departmentRepository;
+    private final KeysetPaginator paginator;
+    private final BatchFetcher batchFetcher;
+    private final SparseFieldsets sparseFieldsets;
 
-    public DepartmentService(DepartmentRepository departmentRepository) {
+    public DepartmentService(DepartmentRepository departmentRepository, KeysetPaginator paginator, BatchFetcher batchFetcher, SparseFieldsets sparseFieldsets) {
         this.departmentRepository = departmentRepository;
+        this.paginator = paginator;
+        this.batchFetcher = batchFetcher;
+        this.sparseFieldsets = sparseFieldsets;
     }
 
     /**
@@ -44,25 +55,56 @@ public class DepartmentService {
     }
 
     /**
-     * Lists all departments.
+     * Lists departments one page at a time, ordered by id.
      *
-     * @return a list of all department responses
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of department responses
+     * @throws IllegalArgumentException if the cursor or limit is invalid
      */
     @Transactional(readOnly = true)
-    public List<DepartmentResponse> list() {
-        return departmentRepository.findAll().stream().map(this::toResponse).toList();
+    public PageResponse<DepartmentResponse> list(String cursor, Integer limit) {
+        return paginator.page(cursor, limit, departmentRepository::findResponses,
+                departmentRepository::findResponsesAfter, DepartmentResponse::id);
     }
 
     /**
-     * Retrieves a department by id (internal use).
+     * Lists departments one page at a time, ordered by id, reading only the selected fields.
      *
-     * @param id the department id
-     * @return the department entity
-     * @throws NotFoundException if department is not found
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @param fields comma-separated names of the {@link DepartmentResponse} fields to return; {@code id} is always included
+     * @return one page of departments, each holding only the selected fields
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> list(String cursor, Integer limit, String fields) {
+        return sparseFieldsets.page(FIELDS, fields, cursor, limit);
+    }
+
+    /**
+     * Loads departments by id in one query per chunk of ids.
+     *
+     * @param ids the ids to load, in the order the results should follow
+     * @return the departments found in request order, and the ids that do not exist
+     * @throws IllegalArgumentException if the list is empty, too large or contains {@code null}
      */
     @Transactional(readOnly = true)
-    public Department require(UUID id) {
-        return departmentRepository.findById(id).orElseThrow(() -> new NotFoundException("Department not found"));
+    public BatchGetResponse<DepartmentResponse> batchGet(List<UUID> ids) {
+        return batchFetcher.fetch(ids, departmentRepository::findResponsesByIdIn, DepartmentResponse::id);
+    }
+
+    /**
+     * Returns a reference to a department for use as a foreign key, without querying it.
+     *
+     * <p>Existence is enforced by the database when the referencing row is flushed; a
+     * dangling id surfaces as a foreign key violation, which is reported as {@code 404}.
+     *
+     * @param id the department id
+     * @return an uninitialized department proxy
+     */
+    public Department reference(UUID id) {
+        return departmentRepository.getReferenceById(id);
     }
 
     /**
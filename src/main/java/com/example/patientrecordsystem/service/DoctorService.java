@@ -1,35 +1,48 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.DoctorCreateRequest;
 import com.example.patientrecordsystem.dto.DoctorResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.entity.Department;
 import com.example.patientrecordsystem.entity.Doctor;
 import com.example.patientrecordsystem.entity.User;
 import com.example.patientrecordsystem.repository.DoctorRepository;
 import com.example.patientrecordsystem.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.webjars.NotFoundException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Service that manages doctor records.
  *
- * <p>Provides create, list, require and delete operations and maps entities to DTOs.
+ * <p>Provides create, list, reference and delete operations and maps entities to DTOs.
  */
 @Service
 public class DoctorService {
 
+    private static final FieldCatalog FIELDS = FieldCatalog.of(DoctorResponse.class, Doctor.class,
+            Map.of("userId", "user.id", "departmentId", "department.id"));
+
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
     private final DepartmentService departmentService;
+    private final KeysetPaginator paginator;
+    private final BatchFetcher batchFetcher;
+    private final SparseFieldsets sparseFieldsets;
 
-    public DoctorService(DoctorRepository doctorRepository, UserRepository userRepository, DepartmentService departmentService) {
+    public DoctorService(DoctorRepository doctorRepository, UserRepository userRepository, DepartmentService departmentService, KeysetPaginator paginator, BatchFetcher batchFetcher, SparseFieldsets sparseFieldsets) {
         this.doctorRepository = doctorRepository;
         this.userRepository = userRepository;
         this.departmentService = departmentService;
+        this.paginator = paginator;
+        this.batchFetcher = batchFetcher;
+        this.sparseFieldsets = sparseFieldsets;
     }
 
     /**
@@ -38,17 +51,15 @@ public class DoctorService {
      * @param req the doctor creation request with user, department and license information
      * @return the created doctor response
      * @throws IllegalArgumentException if license number already exists
-     * @throws NotFoundException if user or department is not found
+     * @throws DataIntegrityViolationException if the user or department does not exist (reported as 404)
      */
     @Transactional
     public DoctorResponse create(DoctorCreateRequest req) {
         if (doctorRepository.existsByLicenseNumber(req.licenseNumber())) {
             throw new IllegalArgumentException("License number already exists");
         }
-        User user = userRepository.findById(req.userId())
-                .orElseThrow(() -> new NotFoundException("User not found"));
-
-        Department dept = departmentService.require(req.departmentId());
+        User user = userRepository.getReferenceById(req.userId());
+        Department dept = departmentService.reference(req.departmentId());
 
         Doctor d = new Doctor();
         d.setUser(user);
@@ -66,25 +77,56 @@ public class DoctorService {
     }
 
     /**
-     * Lists all doctors.
+     * Lists doctors one page at a time, ordered by id.
      *
-     * @return a list of all doctor responses
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of doctor responses
+     * @throws IllegalArgumentException if the cursor or limit is invalid
      */
     @Transactional(readOnly = true)
-    public List<DoctorResponse> list() {
-        return doctorRepository.findAll().stream().map(this::toResponse).toList();
+    public PageResponse<DoctorResponse> list(String cursor, Integer limit) {
+        return paginator.page(cursor, limit, doctorRepository::findResponses,
+                doctorRepository::findResponsesAfter, DoctorResponse::id);
     }
 
     /**
-     * Retrieves a doctor by id (internal use).
+     * Lists doctors one page at a time, ordered by id, reading only the selected fields.
      *
-     * @param id the doctor id
-     * @return the doctor entity
-     * @throws NotFoundException if doctor is not found
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @param fields comma-separated names of the {@link DoctorResponse} fields to return; {@code id} is always included
+     * @return one page of doctors, each holding only the selected fields
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
      */
     @Transactional(readOnly = true)
-    public Doctor require(UUID id) {
-        return doctorRepository.findById(id).orElseThrow(() -> new NotFoundException("Doctor not found"));
+    public PageResponse<Map<String, Object>> list(String cursor, Integer limit, String fields) {
+        return sparseFieldsets.page(FIELDS, fields, cursor, limit);
+    }
+
+    /**
+     * Loads doctors by id in one query per chunk of ids.
+     *
+     * @param ids the ids to load, in the order the results should follow
+     * @return the doctors found in request order, and the ids that do not exist
+     * @throws IllegalArgumentException if the list is empty, too large or contains {@code null}
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResponse<DoctorResponse> batchGet(List<UUID> ids) {
+        return batchFetcher.fetch(ids, doctorRepository::findResponsesByIdIn, DoctorResponse::id);
+    }
+
+    /**
+     * Returns a reference to a doctor for use as a foreign key, without querying it.
+     *
+     * <p>Existence is enforced by the database when the referencing row is flushed; a
+     * dangling id surfaces as a foreign key violation, which is reported as {@code 404}.
+     *
+     * @param id the doctor id
+     * @return an uninitialized doctor proxy
+     */
+    public Doctor reference(UUID id) {
+        return doctorRepository.getReferenceById(id);
     }
 
     /**
@@ -0,0 +1,68 @@
+package com.example.patientrecordsystem.service;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields of a response DTO that a client may select with {@code fields=}, and the
+ * entity attribute each one is read from.
+ *
+ * <p>Field names and their order come from the DTO's record components; a field maps to
+ * the attribute of the same name unless {@code paths} says otherwise, as for foreign key
+ * ids such as {@code patientId -> patient.id}.
+ *
+ * @param entity the entity the fields are read from
+ * @param paths every selectable field mapped to its attribute path, in DTO order
+ */
+public record FieldCatalog(Class<?> entity, Map<String, String> paths) {
+
+    /**
+     * Builds the catalog of a response DTO.
+     *
+     * @param response the response record class
+     * @param entity the entity class
+     * @param overrides attribute paths of the fields not named like their attribute
+     * @return the catalog
+     */
+    public static FieldCatalog of(Class<? extends Record> response, Class<?> entity, Map<String, String> overrides) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (RecordComponent component : response.getRecordComponents()) {
+            paths.put(component.getName(), overrides.getOrDefault(component.getName(), component.getName()));
+        }
+        return new FieldCatalog(entity, Collections.unmodifiableMap(paths));
+    }
+
+    /**
+     * Resolves a {@code fields=} parameter.
+     *
+     * <p>{@code id} is always included, since it identifies the row and drives the page
+     * cursor. Fields come back in DTO order whatever order they were requested in.
+     *
+     * @param fields comma-separated field names
+     * @return the selected field names mapped to their attribute paths
+     * @throws IllegalArgumentException if a name is not a field of the DTO
+     */
+    public Map<String, String> select(String fields) {
+        Map<String, Boolean> requested = new LinkedHashMap<>();
+        requested.put("id", true);
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!paths.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            requested.put(field, true);
+        }
+        Map<String, String> selected = new LinkedHashMap<>();
+        paths.forEach((name, path) -> {
+            if (requested.containsKey(name)) {
+                selected.put(name, path);
+            }
+        });
+        return selected;
+    }
+}
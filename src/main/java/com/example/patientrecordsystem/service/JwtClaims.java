@@ -0,0 +1,45 @@
+package com.example.patientrecordsystem.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims of a JWT that has already been verified by {@link JwtService#parse(String)}.
+ *
+ * <p>Tokens issued by {@link JwtService#generateToken(com.example.patientrecordsystem.entity.User)}
+ * are self-contained and carry every field; older tokens only have a subject and role,
+ * in which case the remaining fields are {@code null}.
+ *
+ * @param tokenId the token id ({@code jti}), or {@code null} for tokens issued before ids were added
+ * @param subject the token subject (user email)
+ * @param userId the user id, or {@code null} if the token does not carry it
+ * @param role the user role, or {@code null} if the token carries none
+ * @param firstName the user first name
+ * @param lastName the user last name
+ * @param phone the user phone number
+ * @param issuedAt the token issue time, to the millisecond for self-contained tokens and to the
+ *        second otherwise, or {@code null} if the token does not carry it
+ * @param expiresAt the token expiry, or {@code null} if the token never expires
+ */
+public record JwtClaims(
+        String tokenId,
+        String subject,
+        UUID userId,
+        String role,
+        String firstName,
+        String lastName,
+        String phone,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    /**
+     * Tells whether the token carries enough information to build a principal without
+     * loading the user.
+     *
+     * @return {@code true} for self-contained tokens
+     */
+    public boolean isSelfContained() {
+        return userId != null && role != null;
+    }
+}
@@ -1,29 +1,55 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * Service responsible for JWT token generation and parsing.
  *
  * <p>Uses application properties for secret and expiration to sign and validate tokens.
+ * The signing key and parser are built once at construction time and shared by all
+ * requests; both are immutable and thread-safe. Every token gets a random {@code jti} so
+ * that it can be revoked individually.
  */
 @Service
-public class JwtService {
-    @Value("${jwt.secret}")
+public class JwtService implements TokenVerifier {
 
-    private String secret;
-    @Value("${jwt.expiration}")
-    private long expiration;
-    private static final long EXPIRATION_TIME = 86400000;
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_FIRST_NAME = "given_name";
+    private static final String CLAIM_LAST_NAME = "family_name";
+    private static final String CLAIM_PHONE = "phone";
+    private static final String CLAIM_ISSUED_AT_MILLIS = "iat_ms";
+
+    private final long expiration;
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    public JwtService(@Value("${jwt.secret}") String secret, @Value("${jwt.expiration}") long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
+
+    /**
+     * Returns the lifetime of issued access tokens.
+     *
+     * @return the lifetime in milliseconds
+     */
+    public long getExpiration() {
+        return expiration;
+    }
+
     /**
      * Generates a JWT token for the given email.
      *
@@ -33,22 +59,81 @@ public class JwtService {
     public String generateToken(String email) {
         return Jwts.builder()
                 .setSubject(email)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String generateToken(String email, String role) {
         return Jwts.builder()
                 .setSubject(email)
-                .claim("role", role)
+                .claim(CLAIM_ROLE, role)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Generates a self-contained access token for the given user.
+     *
+     * <p>Besides the email and role, the token carries the user id, names and phone so that
+     * authenticated requests can build their principal without a database lookup, and its
+     * issue time in milliseconds so that it can be told apart from a per-user cutoff set in
+     * the same second.
+     *
+     * @param user the authenticated user
+     * @return the signed JWT token
+     */
+    public String generateToken(User user) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId().toString())
+                .claim(CLAIM_ROLE, user.getRole())
+                .claim(CLAIM_FIRST_NAME, user.getFirstName())
+                .claim(CLAIM_LAST_NAME, user.getLastName())
+                .claim(CLAIM_PHONE, user.getPhone())
+                .claim(CLAIM_ISSUED_AT_MILLIS, now.getTime())
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Verifies the token signature and expiry and returns its claims.
+     *
+     * <p>This is the single verification path; callers that need more than one claim
+     * should call it once and read the returned object instead of re-parsing the token.
+     *
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws JwtException if the token is malformed, expired or has an invalid signature
+     */
+    @Override
+    public JwtClaims parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        Long issuedAtMillis = claims.get(CLAIM_ISSUED_AT_MILLIS, Long.class);
+        return new JwtClaims(
+                claims.getId(),
+                claims.getSubject(),
+                userId != null ? UUID.fromString(userId) : null,
+                claims.get(CLAIM_ROLE, String.class),
+                claims.get(CLAIM_FIRST_NAME, String.class),
+                claims.get(CLAIM_LAST_NAME, String.class),
+                claims.get(CLAIM_PHONE, String.class),
+                issuedAtMillis != null ? Instant.ofEpochMilli(issuedAtMillis)
+                        : claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
     /**
      * Extracts the email (subject) from a JWT token.
      *
@@ -56,21 +141,10 @@ public class JwtService {
      * @return the email encoded in the token
      */
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parse(token).subject();
     }
 
     public String extractRole(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("role", String.class);
+        return parse(token).role();
     }
 }
-
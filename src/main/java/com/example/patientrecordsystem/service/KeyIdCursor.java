@@ -0,0 +1,56 @@
+package com.example.patientrecordsystem.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a list ordered by a string key and then by id.
+ *
+ * <p>Encoded as URL-safe Base64 of the id's 128 bits followed by the key in UTF-8; clients
+ * must treat it as opaque.
+ *
+ * @param key the ordering key of the last item returned
+ * @param id the id of the last item returned
+ */
+record KeyIdCursor(String key, UUID id) {
+
+    private static final int ID_LENGTH = 16;
+
+    String encode() {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(ID_LENGTH + keyBytes.length);
+        buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).put(keyBytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param cursor the cursor, or {@code null}
+     * @return the position, or {@code null} if the cursor is {@code null} or blank
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static KeyIdCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length < ID_LENGTH) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            String key = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .decode(buffer).toString();
+            return new KeyIdCursor(key, id);
+        } catch (IllegalArgumentException | CharacterCodingException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
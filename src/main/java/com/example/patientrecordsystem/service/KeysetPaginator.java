@@ -0,0 +1,111 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.PageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Builds keyset-paginated list responses for entities with UUID primary keys.
+ *
+ * <p>Services page through DTO projection queries, so only the response columns are read
+ * and nothing enters the persistence context.
+ *
+ * <p>Pages are ordered by id. The continuation cursor is the URL-safe Base64 encoding of
+ * the last id on the page; clients must treat it as opaque. One extra row is fetched to
+ * tell whether a next page exists. Page sizes default to {@code app.pagination.default-size}
+ * and are capped at {@code app.pagination.max-size}.
+ */
+@Component
+public class KeysetPaginator {
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPaginator(@Value("${app.pagination.default-size:50}") int defaultSize,
+                           @Value("${app.pagination.max-size:500}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Loads one page from a pair of keyset queries, typically DTO projections.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the requested page size, or {@code null} for the default
+     * @param first loads the first rows ordered by id
+     * @param after loads the rows whose id is greater than the given one, ordered by id
+     * @param idOf extracts the id of a row
+     * @return the page
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    public <R> PageResponse<R> page(String cursor, Integer limit, Function<Limit, List<R>> first,
+                                    BiFunction<UUID, Limit, List<R>> after, Function<R, UUID> idOf) {
+        int size = resolveSize(limit);
+        Limit fetch = Limit.of(size + 1);
+        List<R> rows = cursor == null || cursor.isBlank()
+                ? first.apply(fetch)
+                : after.apply(decodeCursor(cursor), fetch);
+        boolean hasMore = rows.size() > size;
+        List<R> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? encodeCursor(idOf.apply(page.get(size - 1))) : null;
+        return new PageResponse<>(page, nextCursor);
+    }
+
+    /**
+     * Resolves the effective page size.
+     *
+     * @param limit the requested page size, or {@code null}
+     * @return the page size, capped at the configured maximum
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public int resolveSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultSize, maxSize);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, maxSize);
+    }
+
+    /**
+     * Encodes an id as an opaque cursor.
+     *
+     * @param id the last id of a page
+     * @return the cursor
+     */
+    public static String encodeCursor(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor(UUID)}.
+     *
+     * @param cursor the cursor
+     * @return the id
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static UUID decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.patientrecordsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds an in-memory search index that is kept current by changes applied after their
+ * transaction commits and is replaced wholesale by rebuilds from the database; used by
+ * {@link PatientSearchService} and {@link ClinicalNoteSearchService}.
+ *
+ * <p>Changes reach the index only once the surrounding transaction commits, so rolled-back
+ * writes never do. While a rebuild is reading the database, applied changes are also
+ * recorded and replayed onto the new index before it replaces the old one, so nothing
+ * committed during the rebuild is lost. Until that swap both indexes are on the heap.
+ *
+ * <p>Rebuilds run one at a time. {@link #rebuildInBackground(Consumer)} runs them on a
+ * thread of their own and coalesces requests made while one is already waiting.
+ *
+ * @param <I> the index type, which must tolerate concurrent reads while it is written
+ *            under this holder's lock
+ */
+final class LiveSearchIndex<I> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSearchIndex.class);
+
+    private final String name;
+    private final Supplier<I> factory;
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ExecutorService rebuilder;
+    private volatile I index;
+    private List<Consumer<I>> pending;
+
+    /**
+     * Creates a holder with an empty index.
+     *
+     * @param name the name used for the rebuild thread and in log messages
+     * @param factory creates empty indexes
+     */
+    LiveSearchIndex(String name, Supplier<I> factory) {
+        this.name = name;
+        this.factory = factory;
+        this.index = factory.get();
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the current index, for reading only.
+     *
+     * @return the index
+     */
+    I current() {
+        return index;
+    }
+
+    /**
+     * Applies a change to the index once the current transaction commits, or immediately
+     * outside a transaction.
+     *
+     * @param change the change
+     */
+    void afterCommit(Consumer<I> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    /**
+     * Builds a new index and replaces the current one with it.
+     *
+     * @param loader fills an empty index from the database
+     */
+    void rebuild(Consumer<I> loader) {
+        synchronized (rebuildLock) {
+            synchronized (writeLock) {
+                pending = new ArrayList<>();
+            }
+            I fresh = factory.get();
+            try {
+                loader.accept(fresh);
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (writeLock) {
+                pending.forEach(change -> change.accept(fresh));
+                pending = null;
+                index = fresh;
+            }
+        }
+    }
+
+    /**
+     * Starts a rebuild on the background thread unless one is already waiting to start.
+     *
+     * @param loader fills an empty index from the database
+     */
+    void rebuildInBackground(Consumer<I> loader) {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                rebuild(loader);
+            } catch (RuntimeException e) {
+                logger.warn("Rebuilding the {} index failed", name, e);
+            }
+        });
+    }
+
+    /**
+     * Stops the background thread, abandoning a rebuild in progress.
+     */
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void apply(Consumer<I> change) {
+        synchronized (writeLock) {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+    }
+}
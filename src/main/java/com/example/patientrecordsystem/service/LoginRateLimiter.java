@@ -0,0 +1,75 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login attempts per email and per client address.
+ *
+ * <p>Both limits are {@link StripedTokenBucketLimiter}s, so memory is fixed regardless of
+ * how many distinct emails or addresses are seen. Throttled buckets are never evicted, so
+ * when a key's slots are all held by throttled keys it is rejected as well; size
+ * {@code auth.login-limit.slots-per-stripe} for the number of keys throttled at once. The check runs before any user lookup
+ * or password hashing, so a rejected attempt costs neither a query nor a BCrypt
+ * computation. Rejections are counted in {@code auth.login.throttled} tagged by key type.
+ *
+ * <p>The address limit is off unless {@code auth.login-limit.address.burst} is set. Behind
+ * a load balancer or NAT every client shares the proxy's address, so the limit would lock
+ * everyone out together; enable it only where the servlet container reports the real
+ * client address, e.g. with {@code server.forward-headers-strategy=native} and the proxies
+ * listed in {@code server.tomcat.remoteip.internal-proxies}.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private final StripedTokenBucketLimiter byEmail;
+    private final StripedTokenBucketLimiter byAddress;
+    private final Counter emailRejections;
+    private final Counter addressRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login-limit.email.burst:5}") int emailBurst,
+                            @Value("${auth.login-limit.email.refill-seconds:60}") long emailRefillSeconds,
+                            @Value("${auth.login-limit.address.burst:0}") int addressBurst,
+                            @Value("${auth.login-limit.address.refill-seconds:3}") long addressRefillSeconds,
+                            @Value("${auth.login-limit.stripes:64}") int stripes,
+                            @Value("${auth.login-limit.slots-per-stripe:256}") int slotsPerStripe) {
+        this.byEmail = new StripedTokenBucketLimiter(emailBurst, emailRefillSeconds, TimeUnit.SECONDS, stripes, slotsPerStripe);
+        this.byAddress = addressBurst > 0
+                ? new StripedTokenBucketLimiter(addressBurst, addressRefillSeconds, TimeUnit.SECONDS, stripes, slotsPerStripe)
+                : null;
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        this.addressRejections = Counter.builder("auth.login.throttled").tag("key", "address").register(meterRegistry);
+    }
+
+    /**
+     * Records a login attempt, rejecting it if either enabled limit is exhausted.
+     *
+     * @param email the email being logged into
+     * @param clientAddress the caller's address
+     * @throws TooManyRequestsException if the attempt exceeds a limit
+     */
+    public void check(String email, String clientAddress) {
+        long waitNanos = byAddress == null ? 0 : byAddress.tryAcquire(clientAddress);
+        if (waitNanos > 0) {
+            addressRejections.increment();
+            throw throttled(waitNanos);
+        }
+        waitNanos = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        if (waitNanos > 0) {
+            emailRejections.increment();
+            throw throttled(waitNanos);
+        }
+    }
+
+    private static TooManyRequestsException throttled(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new TooManyRequestsException("Too many login attempts, please retry later", seconds);
+    }
+}
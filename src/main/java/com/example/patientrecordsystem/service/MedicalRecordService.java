@@ -1,17 +1,25 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.dto.BatchGetResponse;
 import com.example.patientrecordsystem.dto.MedicalRecordCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.MedicalRecordResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.entity.DeletionTombstone;
 import com.example.patientrecordsystem.entity.Doctor;
 import com.example.patientrecordsystem.entity.MedicalRecord;
 import com.example.patientrecordsystem.entity.Patient;
 import com.example.patientrecordsystem.repository.MedicalRecordRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.webjars.NotFoundException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Service for managing medical records.
@@ -21,14 +29,29 @@ import java.util.UUID;
 @Service
 public class MedicalRecordService {
 
+    private static final FieldCatalog FIELDS = FieldCatalog.of(MedicalRecordResponse.class, MedicalRecord.class,
+            Map.of("patientId", "patient.id", "doctorId", "doctor.id"));
+
     private final MedicalRecordRepository recordRepository;
     private final PatientService patientService;
     private final DoctorService doctorService;
+    private final KeysetPaginator paginator;
+    private final BatchFetcher batchFetcher;
+    private final SparseFieldsets sparseFieldsets;
+    private final NdjsonWriter ndjsonWriter;
+    private final SyncService syncService;
+    private final ClinicalNoteSearchService clinicalNoteSearchService;
 
-    public MedicalRecordService(MedicalRecordRepository recordRepository, PatientService patientService, DoctorService doctorService) {
+    public MedicalRecordService(MedicalRecordRepository recordRepository, PatientService patientService, DoctorService doctorService, KeysetPaginator paginator, BatchFetcher batchFetcher, SparseFieldsets sparseFieldsets, NdjsonWriter ndjsonWriter, SyncService syncService, ClinicalNoteSearchService clinicalNoteSearchService) {
         this.recordRepository = recordRepository;
         this.patientService = patientService;
         this.doctorService = doctorService;
+        this.paginator = paginator;
+        this.batchFetcher = batchFetcher;
+        this.sparseFieldsets = sparseFieldsets;
+        this.ndjsonWriter = ndjsonWriter;
+        this.syncService = syncService;
+        this.clinicalNoteSearchService = clinicalNoteSearchService;
     }
 
     /**
@@ -36,13 +59,15 @@ public class MedicalRecordService {
      *
      * @param req the medical record creation request
      * @return the created medical record response
-     * @throws NotFoundException if patient or doctor is not found
+     * @throws DataIntegrityViolationException if the patient or doctor does not exist (reported as 404)
      */
     @Transactional
     public MedicalRecordResponse create(MedicalRecordCreateOrUpdateRequest req) {
         MedicalRecord r = new MedicalRecord();
         apply(r, req);
-        return toResponse(recordRepository.save(r));
+        MedicalRecordResponse response = toResponse(recordRepository.save(r));
+        clinicalNoteSearchService.indexAfterCommit(response);
+        return response;
     }
 
     /**
@@ -51,13 +76,16 @@ public class MedicalRecordService {
      * @param id the medical record id
      * @param req the medical record update request
      * @return the updated medical record response
-     * @throws NotFoundException if record, patient or doctor is not found
+     * @throws NotFoundException if record is not found
+     * @throws DataIntegrityViolationException if the patient or doctor does not exist (reported as 404)
      */
     @Transactional
     public MedicalRecordResponse update(UUID id, MedicalRecordCreateOrUpdateRequest req) {
         MedicalRecord r = recordRepository.findById(id).orElseThrow(() -> new NotFoundException("Medical record not found"));
         apply(r, req);
-        return toResponse(recordRepository.save(r));
+        MedicalRecordResponse response = toResponse(recordRepository.save(r));
+        clinicalNoteSearchService.indexAfterCommit(response);
+        return response;
     }
 
     /**
@@ -69,18 +97,78 @@ public class MedicalRecordService {
      */
     @Transactional(readOnly = true)
     public MedicalRecordResponse get(UUID id) {
-        return recordRepository.findById(id).map(this::toResponse)
+        return recordRepository.findResponseById(id)
                 .orElseThrow(() -> new NotFoundException("Medical record not found"));
     }
 
     /**
-     * Lists all medical records.
+     * Retrieves a medical record by id, reading only the selected fields.
+     *
+     * @param id the medical record id
+     * @param fields comma-separated names of the {@link MedicalRecordResponse} fields to return; {@code id} is always included
+     * @return the medical record, holding only the selected fields
+     * @throws NotFoundException if the medical record is not found
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> get(UUID id, String fields) {
+        return sparseFieldsets.get(FIELDS, fields, id, "Medical record not found");
+    }
+
+    /**
+     * Lists medical records one page at a time, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of medical record responses
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<MedicalRecordResponse> list(String cursor, Integer limit) {
+        return paginator.page(cursor, limit, recordRepository::findResponses,
+                recordRepository::findResponsesAfter, MedicalRecordResponse::id);
+    }
+
+    /**
+     * Lists medical records one page at a time, ordered by id, reading only the selected fields.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @param fields comma-separated names of the {@link MedicalRecordResponse} fields to return; {@code id} is always included
+     * @return one page of medical records, each holding only the selected fields
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> list(String cursor, Integer limit, String fields) {
+        return sparseFieldsets.page(FIELDS, fields, cursor, limit);
+    }
+
+    /**
+     * Loads medical records by id in one query per chunk of ids.
+     *
+     * @param ids the ids to load, in the order the results should follow
+     * @return the medical records found in request order, and the ids that do not exist
+     * @throws IllegalArgumentException if the list is empty, too large or contains {@code null}
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResponse<MedicalRecordResponse> batchGet(List<UUID> ids) {
+        return batchFetcher.fetch(ids, recordRepository::findResponsesByIdIn, MedicalRecordResponse::id);
+    }
+
+    /**
+     * Writes every medical record as newline-delimited JSON.
+     *
+     * <p>Rows are projected straight into {@link MedicalRecordResponse}, as in
+     * {@link PatientService#export(OutputStream)}.
      *
-     * @return a list of all medical record responses
+     * @param out the output to write to
+     * @throws IOException if writing fails
      */
     @Transactional(readOnly = true)
-    public List<MedicalRecordResponse> list() {
-        return recordRepository.findAll().stream().map(this::toResponse).toList();
+    public void export(OutputStream out) throws IOException {
+        try (Stream<MedicalRecordResponse> rows = recordRepository.streamAllForExport()) {
+            ndjsonWriter.write(rows, out);
+        }
     }
 
     /**
@@ -93,6 +181,8 @@ public class MedicalRecordService {
     public void delete(UUID id) {
         if (!recordRepository.existsById(id)) throw new NotFoundException("Medical record not found");
         recordRepository.deleteById(id);
+        syncService.recordDeletion(DeletionTombstone.RECORD, id);
+        clinicalNoteSearchService.removeAfterCommit(id);
     }
 
     @Transactional
@@ -101,8 +191,8 @@ public class MedicalRecordService {
     }
 
     private void apply(MedicalRecord r, MedicalRecordCreateOrUpdateRequest req) {
-        Patient patient = patientService.require(req.patientId());
-        Doctor doctor = doctorService.require(req.doctorId());
+        Patient patient = patientService.reference(req.patientId());
+        Doctor doctor = doctorService.reference(req.doctorId());
 
         r.setPatient(patient);
         r.setDoctor(doctor);
@@ -0,0 +1,63 @@
+package com.example.patientrecordsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of objects as newline-delimited JSON.
+ *
+ * <p>Each row is serialized straight into the output through a single generator, so no
+ * list or array is built in memory. The output is flushed after the first row, so clients
+ * start receiving data immediately, and then every {@code app.export.flush-rows} rows;
+ * Jackson's flush after each value is turned off so that rows in between are buffered.
+ */
+@Component
+public class NdjsonWriter {
+
+    public static final String CONTENT_TYPE = "application/x-ndjson";
+
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+    private final int flushRows;
+
+    public NdjsonWriter(ObjectMapper objectMapper, @Value("${app.export.flush-rows:500}") int flushRows) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    /**
+     * Writes every row of a stream, one JSON document per line. Does not close the output.
+     *
+     * @param rows the rows to write
+     * @param out the output
+     * @return the number of rows written
+     * @throws IOException if writing fails, e.g. because the client disconnected
+     */
+    public long write(Stream<?> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                count++;
+                if (count == 1 || count % flushRows == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.config.CalibratedBCryptPasswordEncoder;
+import com.example.patientrecordsystem.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and matching on a dedicated, bounded thread pool.
+ *
+ * <p>BCrypt is deliberately slow, so running it on request threads lets a login storm
+ * starve every other endpoint. This service confines it to {@code auth.hashing.threads}
+ * workers with a queue of {@code auth.hashing.queue-capacity} tasks. When the queue is
+ * full, or a task waits longer than {@code auth.hashing.timeout-ms}, the call fails fast
+ * with {@link ServiceBusyException}, which is returned as {@code 503} with
+ * {@code Retry-After}.
+ *
+ * <p>Bulk provisioning uses {@link #encodeAll(List)}, which runs on a second pool of
+ * {@code auth.hashing.bulk-threads} workers (by default a quarter of the CPUs), so a large
+ * import cannot take hashing capacity away from logins. Each call splits its passwords into
+ * one task per worker; the pool queues at most {@code auth.hashing.bulk-queue-capacity}
+ * tasks and a call must finish within {@code auth.hashing.bulk-timeout-ms}, otherwise it
+ * fails with {@link ServiceBusyException} like a saturated login. Set
+ * {@code auth.hashing.bulk-strength} to hash imported passwords at a lower BCrypt cost; they
+ * are upgraded to the regular cost on the user's first login.
+ *
+ * <p>Publishes {@code auth.hashing.queue.depth}, {@code auth.hashing.active},
+ * {@code auth.hashing.rejected} and the {@code auth.hashing.duration} timer tagged by
+ * operation.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordEncoder bulkEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final long timeoutMillis;
+    private final long bulkTimeoutMillis;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer bulkEncodeTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${auth.hashing.threads:0}") int threads,
+                                  @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${auth.hashing.timeout-ms:5000}") long timeoutMillis,
+                                  @Value("${auth.hashing.retry-after-seconds:2}") long retryAfterSeconds,
+                                  @Value("${auth.hashing.bulk-threads:0}") int bulkThreads,
+                                  @Value("${auth.hashing.bulk-queue-capacity:16}") int bulkQueueCapacity,
+                                  @Value("${auth.hashing.bulk-timeout-ms:600000}") long bulkTimeoutMillis,
+                                  @Value("${auth.hashing.bulk-strength:0}") int bulkStrength) {
+        this.passwordEncoder = passwordEncoder;
+        this.bulkEncoder = bulkStrength > 0 ? new CalibratedBCryptPasswordEncoder(bulkStrength) : passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        this.bulkTimeoutMillis = bulkTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        int bulkPoolSize = bulkThreads > 0 ? bulkThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        this.bulkExecutor = new ThreadPoolExecutor(bulkPoolSize, bulkPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bulkQueueCapacity), daemonThreads("password-hashing-bulk-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing workers currently busy")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Password hashing tasks rejected because the pool was saturated")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.hashing.duration").tag("operation", "encode").register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.hashing.duration").tag("operation", "match").register(meterRegistry);
+        this.bulkEncodeTimer = Timer.builder("auth.hashing.duration").tag("operation", "bulk-encode").register(meterRegistry);
+    }
+
+    /**
+     * Hashes a raw password.
+     *
+     * @param rawPassword the raw password
+     * @return the encoded password
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Hashes many raw passwords in parallel on the bulk pool.
+     *
+     * <p>Blocks until every password is hashed, at most {@code auth.hashing.bulk-timeout-ms};
+     * the batch size is expected to be bounded by the caller.
+     *
+     * @param rawPasswords the raw passwords
+     * @return the encoded passwords, in the same order
+     * @throws ServiceBusyException if the bulk pool is saturated, the batch times out or the
+     *         calling thread is interrupted while waiting
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(bulkTimeoutMillis);
+        int tasks = Math.min(bulkExecutor.getCorePoolSize(), rawPasswords.size());
+        List<Future<List<String>>> futures = new ArrayList<>(tasks);
+        try {
+            for (int t = 0; t < tasks; t++) {
+                List<String> slice = rawPasswords.subList(
+                        rawPasswords.size() * t / tasks, rawPasswords.size() * (t + 1) / tasks);
+                futures.add(bulkExecutor.submit(() -> encodeSlice(slice)));
+            }
+        } catch (RejectedExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            rejected.increment();
+            throw busy();
+        }
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        try {
+            for (Future<List<String>> future : futures) {
+                hashes.addAll(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            futures.forEach(f -> f.cancel(true));
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return hashes;
+    }
+
+    /**
+     * Checks a raw password against an encoded one.
+     *
+     * @param rawPassword the raw password
+     * @param encodedPassword the stored hash
+     * @return {@code true} if the password matches
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Tells whether a stored hash should be recomputed with the current encoder settings.
+     *
+     * <p>This only inspects the hash prefix and does not run on the hashing pool.
+     *
+     * @param encodedPassword the stored hash
+     * @return {@code true} if the hash should be upgraded
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        bulkExecutor.shutdownNow();
+    }
+
+    /**
+     * Hashes one task's share of a bulk batch, giving up between hashes once cancelled.
+     */
+    private List<String> encodeSlice(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            hashes.add(bulkEncodeTimer.record(() -> bulkEncoder.encode(rawPassword)));
+        }
+        return hashes;
+    }
+
+    private <T> T submit(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Authentication is temporarily overloaded, please retry", retryAfterSeconds);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
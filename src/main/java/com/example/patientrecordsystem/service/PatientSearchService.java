@@ -0,0 +1,150 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds patients by name, phone or national id as the user types.
+ *
+ * <p>Matching and ranking run against a {@link TrigramIndex} held in memory, so a search
+ * issues a single query: loading the top-ranked patients by id. The index is built in the
+ * background at startup, so startup does not wait for it; until that build finishes,
+ * searches only find patients written since startup. It is updated by
+ * {@link PatientService} after each create, update or delete commits; rolled-back changes
+ * never reach it. Every {@code app.patient-search.rebuild-interval-ms} it is rebuilt from
+ * the table on the index's own thread, which picks up changes made by other instances and
+ * compacts deleted entries. Changes committed while a rebuild is reading the table are
+ * replayed onto the new index before it replaces the old one (see {@link LiveSearchIndex}).
+ */
+@Service
+public class PatientSearchService {
+
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KeysetPaginator paginator;
+    private final LiveSearchIndex<TrigramIndex> liveIndex = new LiveSearchIndex<>("patient-search", TrigramIndex::new);
+
+    public PatientSearchService(PatientRepository patientRepository,
+                                TransactionTemplate transactionTemplate,
+                                KeysetPaginator paginator) {
+        this.patientRepository = patientRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.paginator = paginator;
+    }
+
+    @PostConstruct
+    void load() {
+        rebuildInBackground();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        liveIndex.shutdown();
+    }
+
+    /**
+     * Searches patients by first name, last name, phone and national id.
+     *
+     * @param query the text typed so far; prefixes, substrings and small typos match
+     * @param limit the maximum number of results, or {@code null} for the default page size
+     * @return the best matching patients, best first; empty for a blank query
+     * @throws IllegalArgumentException if the limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public List<PatientResponse> search(String query, Integer limit) {
+        int size = paginator.resolveSize(limit);
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        List<UUID> ids = liveIndex.current().search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PatientResponse> rows = patientRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PatientResponse::id, Function.identity()));
+        List<PatientResponse> ranked = new ArrayList<>(rows.size());
+        for (UUID id : ids) {
+            PatientResponse row = rows.get(id);
+            if (row != null) {
+                ranked.add(row);
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Indexes a created or updated patient once the current transaction commits.
+     *
+     * @param patient the patient as saved
+     */
+    public void indexAfterCommit(PatientResponse patient) {
+        String text = textOf(patient);
+        liveIndex.afterCommit(index -> index.put(patient.id(), text));
+    }
+
+    /**
+     * Removes a deleted patient from the index once the current transaction commits.
+     *
+     * @param id the patient id
+     */
+    public void removeAfterCommit(UUID id) {
+        liveIndex.afterCommit(index -> index.remove(id));
+    }
+
+    /**
+     * Replaces the index with one built from the {@code patients} table, returning once the
+     * new index is in place.
+     */
+    public void rebuild() {
+        liveIndex.rebuild(this::loadInto);
+    }
+
+    /**
+     * Starts a {@link #rebuild()} in the background and returns at once. A request made
+     * while another is still waiting to start is merged into it.
+     */
+    @Scheduled(fixedDelayString = "${app.patient-search.rebuild-interval-ms:600000}",
+            initialDelayString = "${app.patient-search.rebuild-interval-ms:600000}")
+    public void rebuildInBackground() {
+        liveIndex.rebuildInBackground(this::loadInto);
+    }
+
+    private void loadInto(TrigramIndex fresh) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PatientResponse> rows = patientRepository.streamAllForExport()) {
+                rows.forEach(p -> fresh.put(p.id(), textOf(p)));
+            }
+        });
+    }
+
+    /**
+     * Joins the searchable fields; phone and national id are compacted so that their
+     * punctuation does not split them into separate tokens.
+     */
+    private static String textOf(PatientResponse patient) {
+        return String.join(" ", nullToEmpty(patient.firstName()), nullToEmpty(patient.lastName()),
+                compact(patient.phone()), compact(patient.nationalId()));
+    }
+
+    private static String compact(String value) {
+        return value == null ? "" : value.replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
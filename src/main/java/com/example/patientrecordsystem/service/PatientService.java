@@ -1,26 +1,37 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PatientCreateRequest;
 import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.entity.DeletionTombstone;
 import com.example.patientrecordsystem.entity.Department;
 import com.example.patientrecordsystem.entity.Doctor;
 import com.example.patientrecordsystem.entity.Patient;
 import com.example.patientrecordsystem.repository.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.webjars.NotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Service managing patient entities and related business logic.
  *
- * <p>Supports create, update, retrieve, list, delete and helper methods to require entities.
+ * <p>Supports create, update, retrieve, list, delete and helper methods to reference entities.
  */
 @Service
 public class PatientService {
 
+    private static final FieldCatalog FIELDS = FieldCatalog.of(PatientResponse.class, Patient.class,
+            Map.of("doctorId", "primaryDoctor.id", "departmentId", "department.id"));
+
     private final PatientRepository patientRepository;
     private final DoctorService doctorService;
     private final DepartmentService departmentService;
@@ -28,9 +39,16 @@ public class PatientService {
     private final PatientVisitRepository patientVisitRepository;
     private final PrescriptionRepository prescriptionRepository;
     private final AppointmentRepository appointmentRepository;
+    private final KeysetPaginator paginator;
+    private final BatchFetcher batchFetcher;
+    private final SparseFieldsets sparseFieldsets;
+    private final NdjsonWriter ndjsonWriter;
+    private final PatientSearchService patientSearchService;
+    private final SyncService syncService;
+    private final ClinicalNoteSearchService clinicalNoteSearchService;
 
 
-    public PatientService(PatientRepository patientRepository, DoctorService doctorService, DepartmentService departmentService, MedicalRecordRepository medicalRecordRepository, PatientVisitRepository patientVisitRepository, PrescriptionRepository prescriptionRepository, AppointmentRepository appointmentRepository) {
+    public PatientService(PatientRepository patientRepository, DoctorService doctorService, DepartmentService departmentService, MedicalRecordRepository medicalRecordRepository, PatientVisitRepository patientVisitRepository, PrescriptionRepository prescriptionRepository, AppointmentRepository appointmentRepository, KeysetPaginator paginator, BatchFetcher batchFetcher, SparseFieldsets sparseFieldsets, NdjsonWriter ndjsonWriter, PatientSearchService patientSearchService, SyncService syncService, ClinicalNoteSearchService clinicalNoteSearchService) {
         this.patientRepository = patientRepository;
         this.doctorService = doctorService;
         this.departmentService = departmentService;
@@ -38,6 +56,13 @@ public class PatientService {
         this.patientVisitRepository = patientVisitRepository;
         this.prescriptionRepository = prescriptionRepository;
         this.appointmentRepository = appointmentRepository;
+        this.paginator = paginator;
+        this.batchFetcher = batchFetcher;
+        this.sparseFieldsets = sparseFieldsets;
+        this.ndjsonWriter = ndjsonWriter;
+        this.patientSearchService = patientSearchService;
+        this.syncService = syncService;
+        this.clinicalNoteSearchService = clinicalNoteSearchService;
     }
 
     /**
@@ -46,7 +71,7 @@ public class PatientService {
      * @param req the patient creation request with personal and medical details
      * @return the created patient response
      * @throws IllegalArgumentException if national ID is not unique
-     * @throws NotFoundException if primary doctor or department is not found
+     * @throws DataIntegrityViolationException if the primary doctor or department does not exist (reported as 404)
      */
     @Transactional
     public PatientResponse create(PatientCreateRequest req) {
@@ -55,7 +80,9 @@ public class PatientService {
         }
         Patient p = new Patient();
         apply(p, req, true);
-        return toResponse(patientRepository.save(p));
+        PatientResponse response = toResponse(patientRepository.save(p));
+        patientSearchService.indexAfterCommit(response);
+        return response;
     }
 
     /**
@@ -65,7 +92,8 @@ public class PatientService {
      * @param req the patient update request
      * @return the updated patient response
      * @throws IllegalArgumentException if national ID is not unique
-     * @throws NotFoundException if patient, primary doctor or department is not found
+     * @throws NotFoundException if patient is not found
+     * @throws DataIntegrityViolationException if the primary doctor or department does not exist (reported as 404)
      */
     @Transactional
     public PatientResponse update(UUID id, PatientCreateRequest req) {
@@ -74,7 +102,9 @@ public class PatientService {
             throw new IllegalArgumentException("National ID must be unique");
         }
         apply(p, req, false);
-        return toResponse(patientRepository.save(p));
+        PatientResponse response = toResponse(patientRepository.save(p));
+        patientSearchService.indexAfterCommit(response);
+        return response;
     }
 
     /**
@@ -86,18 +116,79 @@ public class PatientService {
      */
     @Transactional(readOnly = true)
     public PatientResponse get(UUID id) {
-        return patientRepository.findById(id).map(this::toResponse)
+        return patientRepository.findResponseById(id)
                 .orElseThrow(() -> new NotFoundException("Patient not found"));
     }
 
     /**
-     * Lists all patients.
+     * Retrieves a patient by id, reading only the selected fields.
+     *
+     * @param id the patient id
+     * @param fields comma-separated names of the {@link PatientResponse} fields to return; {@code id} is always included
+     * @return the patient, holding only the selected fields
+     * @throws NotFoundException if the patient is not found
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> get(UUID id, String fields) {
+        return sparseFieldsets.get(FIELDS, fields, id, "Patient not found");
+    }
+
+    /**
+     * Lists patients one page at a time, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of patient responses
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<PatientResponse> list(String cursor, Integer limit) {
+        return paginator.page(cursor, limit, patientRepository::findResponses,
+                patientRepository::findResponsesAfter, PatientResponse::id);
+    }
+
+    /**
+     * Lists patients one page at a time, ordered by id, reading only the selected fields.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @param fields comma-separated names of the {@link PatientResponse} fields to return; {@code id} is always included
+     * @return one page of patients, each holding only the selected fields
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> list(String cursor, Integer limit, String fields) {
+        return sparseFieldsets.page(FIELDS, fields, cursor, limit);
+    }
+
+    /**
+     * Loads patients by id in one query per chunk of ids.
+     *
+     * @param ids the ids to load, in the order the results should follow
+     * @return the patients found in request order, and the ids that do not exist
+     * @throws IllegalArgumentException if the list is empty, too large or contains {@code null}
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResponse<PatientResponse> batchGet(List<UUID> ids) {
+        return batchFetcher.fetch(ids, patientRepository::findResponsesByIdIn, PatientResponse::id);
+    }
+
+    /**
+     * Writes every patient as newline-delimited JSON.
+     *
+     * <p>Rows are read as DTO projections through a forward-only cursor and written as they
+     * arrive, so no entity enters the persistence context and heap use does not grow with
+     * the table size.
      *
-     * @return a list of all patient responses
+     * @param out the output to write to
+     * @throws IOException if writing fails
      */
     @Transactional(readOnly = true)
-    public List<PatientResponse> list() {
-        return patientRepository.findAll().stream().map(this::toResponse).toList();
+    public void export(OutputStream out) throws IOException {
+        try (Stream<PatientResponse> rows = patientRepository.streamAllForExport()) {
+            ndjsonWriter.write(rows, out);
+        }
     }
 
     /**
@@ -109,23 +200,28 @@ public class PatientService {
     @Transactional
     public void delete(UUID id) {
         if (!patientRepository.existsById(id)) throw new NotFoundException("Patient not found");
+        syncService.recordDeletionOfPatientItems(id);
         appointmentRepository.deleteByPatient_Id(id);
         prescriptionRepository.deleteByPatient_Id(id);
         patientVisitRepository.deleteByPatient_Id(id);
         medicalRecordRepository.deleteByPatient_Id(id);
         patientRepository.deleteById(id);
+        syncService.recordDeletion(DeletionTombstone.PATIENT, id);
+        patientSearchService.removeAfterCommit(id);
+        clinicalNoteSearchService.removePatientAfterCommit(id);
     }
 
     /**
-     * Retrieves a patient by id (internal use).
+     * Returns a reference to a patient for use as a foreign key, without querying it.
+     *
+     * <p>Existence is enforced by the database when the referencing row is flushed; a
+     * dangling id surfaces as a foreign key violation, which is reported as {@code 404}.
      *
      * @param id the patient id
-     * @return the patient entity
-     * @throws NotFoundException if patient is not found
+     * @return an uninitialized patient proxy
      */
-    @Transactional(readOnly = true)
-    public Patient require(UUID id) {
-        return patientRepository.findById(id).orElseThrow(() -> new NotFoundException("Patient not found"));
+    public Patient reference(UUID id) {
+        return patientRepository.getReferenceById(id);
     }
 
     private void apply(Patient p, PatientCreateRequest req, boolean isCreate) {
@@ -146,11 +242,11 @@ public class PatientService {
         p.setEmergencyContactPhone(req.emergencyContactPhone());
 
         Doctor doctor = null;
-        if (req.primaryDoctorId() != null) doctor = doctorService.require(req.primaryDoctorId());
+        if (req.primaryDoctorId() != null) doctor = doctorService.reference(req.primaryDoctorId());
         p.setPrimaryDoctor(doctor);
 
         Department dept = null;
-        if (req.departmentId() != null) dept = departmentService.require(req.departmentId());
+        if (req.departmentId() != null) dept = departmentService.reference(req.departmentId());
         p.setDepartment(dept);
 
 
@@ -0,0 +1,177 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.TimelineEntry;
+import com.example.patientrecordsystem.repository.AppointmentRepository;
+import com.example.patientrecordsystem.repository.MedicalRecordRepository;
+import com.example.patientrecordsystem.repository.PatientRepository;
+import com.example.patientrecordsystem.repository.PatientVisitRepository;
+import com.example.patientrecordsystem.repository.PrescriptionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.webjars.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds a patient's timeline: appointments, visits, prescriptions and medical records
+ * merged into one list, newest first.
+ *
+ * <p>Each page runs one query per item type concurrently on a pool of
+ * {@code app.timeline.threads} workers. Every query is a range scan of that table's
+ * {@code (patient_id, date, id)} index returning at most one page plus one row, so the cost
+ * of a page depends on its size and not on the patient's history. The four sorted results
+ * are merged in memory. Items are ordered by date and then id, both descending; the cursor
+ * is the position of the last item returned. When the pool's queue is full the queries run
+ * on the calling thread instead.
+ *
+ * <p>The four queries run on separate connections without a shared transaction, so a page
+ * does not come from one snapshot: an item written while the page is being read may show
+ * up in one type's results and not in another's. Each query is bounded to one page, so if
+ * one of them fails the others are left to finish and the first failure is rethrown.
+ */
+@Service
+public class PatientTimelineService {
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::occurredAt)
+            .thenComparing(TimelineEntry::id, DateIdCursor::compareIds)
+            .reversed();
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PatientVisitRepository visitRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final MedicalRecordRepository recordRepository;
+    private final KeysetPaginator paginator;
+    private final ThreadPoolExecutor executor;
+
+    public PatientTimelineService(PatientRepository patientRepository,
+                                  AppointmentRepository appointmentRepository,
+                                  PatientVisitRepository visitRepository,
+                                  PrescriptionRepository prescriptionRepository,
+                                  MedicalRecordRepository recordRepository,
+                                  KeysetPaginator paginator,
+                                  @Value("${app.timeline.threads:8}") int threads,
+                                  @Value("${app.timeline.queue-capacity:256}") int queueCapacity) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.visitRepository = visitRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.recordRepository = recordRepository;
+        this.paginator = paginator;
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "patient-timeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Loads one page of a patient's timeline.
+     *
+     * @param patientId the patient id
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return the page, newest first
+     * @throws NotFoundException if the patient does not exist
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    public PageResponse<TimelineEntry> timeline(UUID patientId, String cursor, Integer limit) {
+        int size = paginator.resolveSize(limit);
+        Limit fetch = Limit.of(size + 1);
+        DateIdCursor after = DateIdCursor.decode(cursor);
+
+        List<CompletableFuture<List<TimelineEntry>>> queries = List.of(
+                submit(() -> after == null
+                        ? appointmentRepository.findTimeline(patientId, fetch)
+                        : appointmentRepository.findTimelineBefore(patientId, after.at(), after.id(), fetch)),
+                submit(() -> after == null
+                        ? visitRepository.findTimeline(patientId, fetch)
+                        : visitRepository.findTimelineBefore(patientId, after.at(), after.id(), fetch)),
+                submit(() -> after == null
+                        ? prescriptionRepository.findTimeline(patientId, fetch)
+                        : prescriptionRepository.findTimelineBefore(patientId, after.at(), after.id(), fetch)),
+                submit(() -> after == null
+                        ? recordRepository.findTimeline(patientId, fetch)
+                        : recordRepository.findTimelineBefore(patientId, after.at(), after.id(), fetch)));
+
+        List<List<TimelineEntry>> results = new ArrayList<>(queries.size());
+        try {
+            for (CompletableFuture<List<TimelineEntry>> query : queries) {
+                results.add(query.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+
+        List<TimelineEntry> merged = merge(results, size + 1);
+        if (merged.isEmpty() && after == null && !patientRepository.existsById(patientId)) {
+            throw new NotFoundException("Patient not found");
+        }
+        boolean hasMore = merged.size() > size;
+        List<TimelineEntry> page = hasMore ? merged.subList(0, size) : merged;
+        String nextCursor = hasMore ? cursorAfter(page.get(size - 1)) : null;
+        return new PageResponse<>(page, nextCursor);
+    }
+
+    private static String cursorAfter(TimelineEntry last) {
+        return new DateIdCursor(last.occurredAt(), last.id()).encode();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<List<TimelineEntry>> submit(Supplier<List<TimelineEntry>> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    /**
+     * Merges lists that are each sorted newest first, stopping after {@code max} items.
+     */
+    static List<TimelineEntry> merge(List<List<TimelineEntry>> sorted, int max) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(sorted.size(), Comparator.comparing(Head::entry, NEWEST_FIRST));
+        for (List<TimelineEntry> list : sorted) {
+            if (!list.isEmpty()) {
+                heads.add(new Head(list, 0));
+            }
+        }
+        List<TimelineEntry> merged = new ArrayList<>(max);
+        while (merged.size() < max && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.entry());
+            if (head.index() + 1 < head.list().size()) {
+                heads.add(new Head(head.list(), head.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Head(List<TimelineEntry> list, int index) {
+        TimelineEntry entry() {
+            return list.get(index);
+        }
+    }
+}
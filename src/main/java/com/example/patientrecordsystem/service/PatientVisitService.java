@@ -1,17 +1,25 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PatientVisitCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.PatientVisitResponse;
+import com.example.patientrecordsystem.entity.DeletionTombstone;
 import com.example.patientrecordsystem.entity.Doctor;
 import com.example.patientrecordsystem.entity.Patient;
 import com.example.patientrecordsystem.entity.PatientVisit;
 import com.example.patientrecordsystem.repository.PatientVisitRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.webjars.NotFoundException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Service handling patient visit business operations.
@@ -21,14 +29,29 @@ import java.util.UUID;
 @Service
 public class PatientVisitService {
 
+    private static final FieldCatalog FIELDS = FieldCatalog.of(PatientVisitResponse.class, PatientVisit.class,
+            Map.of("patientId", "patient.id", "doctorId", "doctor.id"));
+
     private final PatientVisitRepository visitRepository;
     private final PatientService patientService;
     private final DoctorService doctorService;
+    private final KeysetPaginator paginator;
+    private final BatchFetcher batchFetcher;
+    private final SparseFieldsets sparseFieldsets;
+    private final NdjsonWriter ndjsonWriter;
+    private final SyncService syncService;
+    private final ClinicalNoteSearchService clinicalNoteSearchService;
 
-    public PatientVisitService(PatientVisitRepository visitRepository, PatientService patientService, DoctorService doctorService) {
+    public PatientVisitService(PatientVisitRepository visitRepository, PatientService patientService, DoctorService doctorService, KeysetPaginator paginator, BatchFetcher batchFetcher, SparseFieldsets sparseFieldsets, NdjsonWriter ndjsonWriter, SyncService syncService, ClinicalNoteSearchService clinicalNoteSearchService) {
         this.visitRepository = visitRepository;
         this.patientService = patientService;
         this.doctorService = doctorService;
+        this.paginator = paginator;
+        this.batchFetcher = batchFetcher;
+        this.sparseFieldsets = sparseFieldsets;
+        this.ndjsonWriter = ndjsonWriter;
+        this.syncService = syncService;
+        this.clinicalNoteSearchService = clinicalNoteSearchService;
     }
 
     /**
@@ -36,13 +59,15 @@ public class PatientVisitService {
      *
      * @param req the patient visit creation request
      * @return the created patient visit response
-     * @throws NotFoundException if patient or doctor is not found
+     * @throws DataIntegrityViolationException if the patient or doctor does not exist (reported as 404)
      */
     @Transactional
     public PatientVisitResponse create(PatientVisitCreateOrUpdateRequest req) {
         PatientVisit v = new PatientVisit();
         apply(v, req);
-        return toResponse(visitRepository.save(v));
+        PatientVisitResponse response = toResponse(visitRepository.save(v));
+        clinicalNoteSearchService.indexAfterCommit(response);
+        return response;
     }
 
     /**
@@ -51,13 +76,16 @@ public class PatientVisitService {
      * @param id the patient visit id
      * @param req the patient visit update request
      * @return the updated patient visit response
-     * @throws NotFoundException if visit, patient or doctor is not found
+     * @throws NotFoundException if visit is not found
+     * @throws DataIntegrityViolationException if the patient or doctor does not exist (reported as 404)
      */
     @Transactional
     public PatientVisitResponse update(UUID id, PatientVisitCreateOrUpdateRequest req) {
         PatientVisit v = visitRepository.findById(id).orElseThrow(() -> new NotFoundException("Visit not found"));
         apply(v, req);
-        return toResponse(visitRepository.save(v));
+        PatientVisitResponse response = toResponse(visitRepository.save(v));
+        clinicalNoteSearchService.indexAfterCommit(response);
+        return response;
     }
 
     /**
@@ -69,18 +97,77 @@ public class PatientVisitService {
      */
     @Transactional(readOnly = true)
     public PatientVisitResponse get(UUID id) {
-        return visitRepository.findById(id).map(this::toResponse)
+        return visitRepository.findResponseById(id)
                 .orElseThrow(() -> new NotFoundException("Visit not found"));
     }
 
     /**
-     * Lists all patient visits.
+     * Retrieves a visit by id, reading only the selected fields.
+     *
+     * @param id the visit id
+     * @param fields comma-separated names of the {@link PatientVisitResponse} fields to return; {@code id} is always included
+     * @return the visit, holding only the selected fields
+     * @throws NotFoundException if the visit is not found
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> get(UUID id, String fields) {
+        return sparseFieldsets.get(FIELDS, fields, id, "Visit not found");
+    }
+
+    /**
+     * Lists patient visits one page at a time, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of patient visit responses
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<PatientVisitResponse> list(String cursor, Integer limit) {
+        return paginator.page(cursor, limit, visitRepository::findResponses,
+                visitRepository::findResponsesAfter, PatientVisitResponse::id);
+    }
+
+    /**
+     * Lists visits one page at a time, ordered by id, reading only the selected fields.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @param fields comma-separated names of the {@link PatientVisitResponse} fields to return; {@code id} is always included
+     * @return one page of visits, each holding only the selected fields
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> list(String cursor, Integer limit, String fields) {
+        return sparseFieldsets.page(FIELDS, fields, cursor, limit);
+    }
+
+    /**
+     * Loads patient visits by id in one query per chunk of ids.
+     *
+     * @param ids the ids to load, in the order the results should follow
+     * @return the patient visits found in request order, and the ids that do not exist
+     * @throws IllegalArgumentException if the list is empty, too large or contains {@code null}
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResponse<PatientVisitResponse> batchGet(List<UUID> ids) {
+        return batchFetcher.fetch(ids, visitRepository::findResponsesByIdIn, PatientVisitResponse::id);
+    }
+
+    /**
+     * Writes every patient visit as newline-delimited JSON.
+     *
+     * <p>Streams DTO projections the same way as {@link PatientService#export(OutputStream)}.
      *
-     * @return a list of all patient visit responses
+     * @param out the output to write to
+     * @throws IOException if writing fails
      */
     @Transactional(readOnly = true)
-    public List<PatientVisitResponse> list() {
-        return visitRepository.findAll().stream().map(this::toResponse).toList();
+    public void export(OutputStream out) throws IOException {
+        try (Stream<PatientVisitResponse> rows = visitRepository.streamAllForExport()) {
+            ndjsonWriter.write(rows, out);
+        }
     }
 
     /**
@@ -93,11 +180,13 @@ public class PatientVisitService {
     public void delete(UUID id) {
         if (!visitRepository.existsById(id)) throw new NotFoundException("Visit not found");
         visitRepository.deleteById(id);
+        syncService.recordDeletion(DeletionTombstone.VISIT, id);
+        clinicalNoteSearchService.removeAfterCommit(id);
     }
 
     private void apply(PatientVisit v, PatientVisitCreateOrUpdateRequest req) {
-        Patient patient = patientService.require(req.patientId());
-        Doctor doctor = doctorService.require(req.doctorId());
+        Patient patient = patientService.reference(req.patientId());
+        Doctor doctor = doctorService.reference(req.doctorId());
 
         v.setPatient(patient);
         v.setDoctor(doctor);
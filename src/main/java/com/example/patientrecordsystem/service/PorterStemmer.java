@@ -0,0 +1,316 @@
+package com.example.patientrecordsystem.service;
+
+import java.util.Arrays;
+
+/**
+ * The Porter stemming algorithm for English, reducing inflected and derived words to a
+ * common stem so that {@code diabetic}, {@code diabetes} and {@code diabetics} match.
+ *
+ * <p>Follows M.F. Porter, "An algorithm for suffix stripping" (1980). Input must be a
+ * lower-case token of ASCII letters and digits; words of one or two characters and
+ * tokens containing digits are returned unchanged. Stems are not words, only keys.
+ */
+final class PorterStemmer {
+
+    private char[] b;
+    private int k;
+    private int j;
+
+    private PorterStemmer(String word) {
+        b = word.toCharArray();
+        k = b.length - 1;
+    }
+
+    /**
+     * Returns the stem of a word.
+     *
+     * @param word a lower-case token
+     * @return the stem
+     */
+    static String stem(String word) {
+        if (word.length() <= 2) {
+            return word;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return word;
+            }
+        }
+        PorterStemmer stemmer = new PorterStemmer(word);
+        stemmer.step1ab();
+        if (stemmer.k > 0) {
+            stemmer.step1c();
+            stemmer.step2();
+            stemmer.step3();
+            stemmer.step4();
+            stemmer.step5();
+        }
+        return new String(stemmer.b, 0, stemmer.k + 1);
+    }
+
+    /** Whether {@code b[i]} is a consonant; {@code y} is one unless it follows a consonant. */
+    private boolean consonant(int i) {
+        return switch (b[i]) {
+            case 'a', 'e', 'i', 'o', 'u' -> false;
+            case 'y' -> i == 0 || !consonant(i - 1);
+            default -> true;
+        };
+    }
+
+    /** Counts the vowel-consonant sequences in {@code b[0..j]}, the measure m of the stem. */
+    private int measure() {
+        int n = 0;
+        int i = 0;
+        while (true) {
+            if (i > j) {
+                return n;
+            }
+            if (!consonant(i)) {
+                break;
+            }
+            i++;
+        }
+        i++;
+        while (true) {
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (consonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+            n++;
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (!consonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+        }
+    }
+
+    /** Whether {@code b[0..j]} contains a vowel. */
+    private boolean vowelInStem() {
+        for (int i = 0; i <= j; i++) {
+            if (!consonant(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether {@code b[i-1..i]} is a double consonant. */
+    private boolean doubleConsonant(int i) {
+        return i >= 1 && b[i] == b[i - 1] && consonant(i);
+    }
+
+    /**
+     * Whether {@code b[i-2..i]} is consonant-vowel-consonant and the last consonant is not
+     * {@code w}, {@code x} or {@code y}, as in {@code hop} but not {@code snow}.
+     */
+    private boolean cvc(int i) {
+        if (i < 2 || !consonant(i) || consonant(i - 1) || !consonant(i - 2)) {
+            return false;
+        }
+        char c = b[i];
+        return c != 'w' && c != 'x' && c != 'y';
+    }
+
+    /** Whether {@code b[0..k]} ends with the suffix; if so, sets {@code j} before it. */
+    private boolean ends(String suffix) {
+        int length = suffix.length();
+        int start = k - length + 1;
+        if (start < 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (b[start + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        j = k - length;
+        return true;
+    }
+
+    /** Replaces {@code b[j+1..k]} with the given string. */
+    private void setTo(String s) {
+        int length = s.length();
+        int needed = j + 1 + length;
+        if (needed > b.length) {
+            b = Arrays.copyOf(b, needed);
+        }
+        for (int i = 0; i < length; i++) {
+            b[j + 1 + i] = s.charAt(i);
+        }
+        k = j + length;
+    }
+
+    /** Replaces the suffix if the stem before it has a positive measure. */
+    private void replace(String s) {
+        if (measure() > 0) {
+            setTo(s);
+        }
+    }
+
+    /** Removes plurals and {@code -ed} or {@code -ing}. */
+    private void step1ab() {
+        if (b[k] == 's') {
+            if (ends("sses")) {
+                k -= 2;
+            } else if (ends("ies")) {
+                setTo("i");
+            } else if (b[k - 1] != 's') {
+                k--;
+            }
+        }
+        if (ends("eed")) {
+            if (measure() > 0) {
+                k--;
+            }
+        } else if ((ends("ed") || ends("ing")) && vowelInStem()) {
+            k = j;
+            if (ends("at")) {
+                setTo("ate");
+            } else if (ends("bl")) {
+                setTo("ble");
+            } else if (ends("iz")) {
+                setTo("ize");
+            } else if (doubleConsonant(k)) {
+                char c = b[k];
+                if (c != 'l' && c != 's' && c != 'z') {
+                    k--;
+                }
+            } else {
+                j = k;
+                if (measure() == 1 && cvc(k)) {
+                    setTo("e");
+                }
+            }
+        }
+    }
+
+    /** Turns a terminal {@code y} into {@code i} when there is another vowel in the stem. */
+    private void step1c() {
+        if (ends("y") && vowelInStem()) {
+            b[k] = 'i';
+        }
+    }
+
+    /** Maps double suffixes to single ones, as {@code -ization} to {@code -ize}. */
+    private void step2() {
+        if (k == 0) {
+            return;
+        }
+        switch (b[k - 1]) {
+            case 'a' -> {
+                if (ends("ational")) replace("ate");
+                else if (ends("tional")) replace("tion");
+            }
+            case 'c' -> {
+                if (ends("enci")) replace("ence");
+                else if (ends("anci")) replace("ance");
+            }
+            case 'e' -> {
+                if (ends("izer")) replace("ize");
+            }
+            case 'l' -> {
+                if (ends("bli")) replace("ble");
+                else if (ends("alli")) replace("al");
+                else if (ends("entli")) replace("ent");
+                else if (ends("eli")) replace("e");
+                else if (ends("ousli")) replace("ous");
+            }
+            case 'o' -> {
+                if (ends("ization")) replace("ize");
+                else if (ends("ation")) replace("ate");
+                else if (ends("ator")) replace("ate");
+            }
+            case 's' -> {
+                if (ends("alism")) replace("al");
+                else if (ends("iveness")) replace("ive");
+                else if (ends("fulness")) replace("ful");
+                else if (ends("ousness")) replace("ous");
+            }
+            case 't' -> {
+                if (ends("aliti")) replace("al");
+                else if (ends("iviti")) replace("ive");
+                else if (ends("biliti")) replace("ble");
+            }
+            case 'g' -> {
+                if (ends("logi")) replace("log");
+            }
+            default -> {
+            }
+        }
+    }
+
+    /** Handles {@code -ic-}, {@code -full}, {@code -ness} and similar suffixes. */
+    private void step3() {
+        switch (b[k]) {
+            case 'e' -> {
+                if (ends("icate")) replace("ic");
+                else if (ends("ative")) replace("");
+                else if (ends("alize")) replace("al");
+            }
+            case 'i' -> {
+                if (ends("iciti")) replace("ic");
+            }
+            case 'l' -> {
+                if (ends("ical")) replace("ic");
+                else if (ends("ful")) replace("");
+            }
+            case 's' -> {
+                if (ends("ness")) replace("");
+            }
+            default -> {
+            }
+        }
+    }
+
+    /** Removes {@code -ant}, {@code -ence} and similar suffixes from stems of measure above one. */
+    private void step4() {
+        if (k == 0) {
+            return;
+        }
+        boolean matched = switch (b[k - 1]) {
+            case 'a' -> ends("al");
+            case 'c' -> ends("ance") || ends("ence");
+            case 'e' -> ends("er");
+            case 'i' -> ends("ic");
+            case 'l' -> ends("able") || ends("ible");
+            case 'n' -> ends("ant") || ends("ement") || ends("ment") || ends("ent");
+            case 'o' -> (ends("ion") && j >= 0 && (b[j] == 's' || b[j] == 't')) || ends("ou");
+            case 's' -> ends("ism");
+            case 't' -> ends("ate") || ends("iti");
+            case 'u' -> ends("ous");
+            case 'v' -> ends("ive");
+            case 'z' -> ends("ize");
+            default -> false;
+        };
+        if (matched && measure() > 1) {
+            k = j;
+        }
+    }
+
+    /** Removes a final {@code -e} and reduces a final {@code -ll} on long stems. */
+    private void step5() {
+        j = k;
+        if (b[k] == 'e') {
+            int m = measure();
+            if (m > 1 || (m == 1 && !cvc(k - 1))) {
+                k--;
+            }
+        }
+        if (b[k] == 'l' && doubleConsonant(k) && measure() > 1) {
+            k--;
+        }
+    }
+}
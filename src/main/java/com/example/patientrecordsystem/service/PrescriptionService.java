@@ -1,17 +1,22 @@
 package com.example.patientrecordsystem.service;
 
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PrescriptionCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.PrescriptionResponse;
+import com.example.patientrecordsystem.entity.DeletionTombstone;
 import com.example.patientrecordsystem.entity.Doctor;
 import com.example.patientrecordsystem.entity.Patient;
 import com.example.patientrecordsystem.entity.Prescription;
 import com.example.patientrecordsystem.repository.PrescriptionRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.webjars.NotFoundException;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -22,14 +27,25 @@ import java.util.UUID;
 @Service
 public class PrescriptionService {
 
+    private static final FieldCatalog FIELDS = FieldCatalog.of(PrescriptionResponse.class, Prescription.class,
+            Map.of("patientId", "patient.id", "doctorId", "doctor.id"));
+
     private final PrescriptionRepository prescriptionRepository;
     private final PatientService patientService;
     private final DoctorService doctorService;
+    private final KeysetPaginator paginator;
+    private final BatchFetcher batchFetcher;
+    private final SparseFieldsets sparseFieldsets;
+    private final SyncService syncService;
 
-    public PrescriptionService(PrescriptionRepository prescriptionRepository, PatientService patientService, DoctorService doctorService) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepository, PatientService patientService, DoctorService doctorService, KeysetPaginator paginator, BatchFetcher batchFetcher, SparseFieldsets sparseFieldsets, SyncService syncService) {
         this.prescriptionRepository = prescriptionRepository;
         this.patientService = patientService;
         this.doctorService = doctorService;
+        this.paginator = paginator;
+        this.batchFetcher = batchFetcher;
+        this.sparseFieldsets = sparseFieldsets;
+        this.syncService = syncService;
     }
 
     /**
@@ -37,7 +53,7 @@ public class PrescriptionService {
      *
      * @param req the prescription creation request with medication and patient/doctor details
      * @return the created prescription response
-     * @throws NotFoundException if patient or doctor is not found
+     * @throws DataIntegrityViolationException if the patient or doctor does not exist (reported as 404)
      */
     @Transactional
     public PrescriptionResponse create(PrescriptionCreateOrUpdateRequest req) {
@@ -52,7 +68,8 @@ public class PrescriptionService {
      * @param id the prescription id
      * @param req the prescription update request
      * @return the updated prescription response
-     * @throws NotFoundException if prescription, patient or doctor is not found
+     * @throws NotFoundException if prescription is not found
+     * @throws DataIntegrityViolationException if the patient or doctor does not exist (reported as 404)
      */
     @Transactional
     public PrescriptionResponse update(UUID id, PrescriptionCreateOrUpdateRequest req) {
@@ -70,18 +87,62 @@ public class PrescriptionService {
      */
     @Transactional(readOnly = true)
     public PrescriptionResponse get(UUID id) {
-        return prescriptionRepository.findById(id).map(this::toResponse)
+        return prescriptionRepository.findResponseById(id)
                 .orElseThrow(() -> new NotFoundException("Prescription not found"));
     }
 
     /**
-     * Lists all prescriptions.
+     * Retrieves a prescription by id, reading only the selected fields.
+     *
+     * @param id the prescription id
+     * @param fields comma-separated names of the {@link PrescriptionResponse} fields to return; {@code id} is always included
+     * @return the prescription, holding only the selected fields
+     * @throws NotFoundException if the prescription is not found
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> get(UUID id, String fields) {
+        return sparseFieldsets.get(FIELDS, fields, id, "Prescription not found");
+    }
+
+    /**
+     * Lists prescriptions one page at a time, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of prescription responses
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<PrescriptionResponse> list(String cursor, Integer limit) {
+        return paginator.page(cursor, limit, prescriptionRepository::findResponses,
+                prescriptionRepository::findResponsesAfter, PrescriptionResponse::id);
+    }
+
+    /**
+     * Lists prescriptions one page at a time, ordered by id, reading only the selected fields.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @param fields comma-separated names of the {@link PrescriptionResponse} fields to return; {@code id} is always included
+     * @return one page of prescriptions, each holding only the selected fields
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> list(String cursor, Integer limit, String fields) {
+        return sparseFieldsets.page(FIELDS, fields, cursor, limit);
+    }
+
+    /**
+     * Loads prescriptions by id in one query per chunk of ids.
      *
-     * @return a list of all prescription responses
+     * @param ids the ids to load, in the order the results should follow
+     * @return the prescriptions found in request order, and the ids that do not exist
+     * @throws IllegalArgumentException if the list is empty, too large or contains {@code null}
      */
     @Transactional(readOnly = true)
-    public List<PrescriptionResponse> list() {
-        return prescriptionRepository.findAll().stream().map(this::toResponse).toList();
+    public BatchGetResponse<PrescriptionResponse> batchGet(List<UUID> ids) {
+        return batchFetcher.fetch(ids, prescriptionRepository::findResponsesByIdIn, PrescriptionResponse::id);
     }
 
     /**
@@ -94,11 +155,12 @@ public class PrescriptionService {
     public void delete(UUID id) {
         if (!prescriptionRepository.existsById(id)) throw new NotFoundException("Prescription not found");
         prescriptionRepository.deleteById(id);
+        syncService.recordDeletion(DeletionTombstone.PRESCRIPTION, id);
     }
 
     private void apply(Prescription p, PrescriptionCreateOrUpdateRequest req) {
-        Patient patient = patientService.require(req.patientId());
-        Doctor doctor = doctorService.require(req.doctorId());
+        Patient patient = patientService.reference(req.patientId());
+        Doctor doctor = doctorService.reference(req.doctorId());
 
         p.setPatient(patient);
         p.setDoctor(doctor);
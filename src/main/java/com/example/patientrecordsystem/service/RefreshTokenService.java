@@ -0,0 +1,123 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.entity.RefreshToken;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.webjars.NotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ *
+ * <p>A refresh token is 256 random bits; only its SHA-256 digest is stored, so exchanging it
+ * costs one indexed lookup and no password hashing. Every token is single-use: exchanging
+ * it marks it used and issues a successor in the same family. Presenting a used or revoked
+ * token means it was leaked, so the whole family is revoked and the holder has to log in
+ * again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshExpirationMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = Duration.ofMillis(refreshExpirationMillis);
+    }
+
+    /**
+     * A refresh token exchange: the user the token belonged to and its successor.
+     *
+     * @param user the token owner
+     * @param refreshToken the new raw refresh token
+     */
+    public record Rotation(User user, String refreshToken) {}
+
+    /**
+     * Issues a refresh token starting a new family, e.g. after a password login.
+     *
+     * @param user the token owner
+     * @return the raw refresh token, to be handed to the client once
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /**
+     * Exchanges a refresh token for its successor.
+     *
+     * @param rawToken the presented refresh token
+     * @return the owner and the new refresh token
+     * @throws NotFoundException if the token is unknown, expired, already used or revoked
+     */
+    @Transactional(noRollbackFor = NotFoundException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHashWithUser(digest(rawToken))
+                .orElseThrow(() -> new NotFoundException("Invalid refresh token"));
+        Instant now = Instant.now();
+        if (!token.getExpiresAt().isAfter(now)) {
+            throw new NotFoundException("Invalid refresh token");
+        }
+        if (token.isRevoked() || token.getUsedAt() != null
+                || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            throw new NotFoundException("Invalid refresh token");
+        }
+        return new Rotation(token.getUser(), issue(token.getUser(), token.getFamilyId()));
+    }
+
+    /**
+     * Revokes the family of a refresh token, e.g. on logout. Unknown tokens are ignored.
+     *
+     * @param rawToken the refresh token
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHashWithUser(digest(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval-ms:3600000}",
+            initialDelayString = "${jwt.refresh-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private String issue(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = Instant.now();
+        refreshTokenRepository.save(new RefreshToken(digest(rawToken), familyId, user, now, now.plus(lifetime)));
+        return rawToken;
+    }
+
+    private static String digest(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
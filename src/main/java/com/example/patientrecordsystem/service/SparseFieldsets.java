@@ -0,0 +1,63 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.repository.FieldProjectionRepository;
+import org.springframework.stereotype.Component;
+import org.webjars.NotFoundException;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Serves list and get requests that carry a {@code fields=} parameter.
+ *
+ * <p>The selected fields are pushed down into the query by
+ * {@link FieldProjectionRepository}, so only their columns are read, and each row is
+ * returned as a map holding just those fields, so only they are serialized. Paging works
+ * as for full responses: ordered by id, with the same cursors and page size limits.
+ */
+@Component
+public class SparseFieldsets {
+
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final KeysetPaginator paginator;
+
+    public SparseFieldsets(FieldProjectionRepository fieldProjectionRepository, KeysetPaginator paginator) {
+        this.fieldProjectionRepository = fieldProjectionRepository;
+        this.paginator = paginator;
+    }
+
+    /**
+     * Loads one page of rows with the selected fields.
+     *
+     * @param catalog the selectable fields of the resource
+     * @param fields comma-separated field names
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default
+     * @return one page of rows
+     * @throws IllegalArgumentException if a field is unknown, or the cursor or limit is invalid
+     */
+    public PageResponse<Map<String, Object>> page(FieldCatalog catalog, String fields, String cursor, Integer limit) {
+        Map<String, String> selected = catalog.select(fields);
+        return paginator.page(cursor, limit,
+                page -> fieldProjectionRepository.findPage(catalog.entity(), selected, null, page.max()),
+                (after, page) -> fieldProjectionRepository.findPage(catalog.entity(), selected, after, page.max()),
+                row -> (UUID) row.get("id"));
+    }
+
+    /**
+     * Loads one row with the selected fields.
+     *
+     * @param catalog the selectable fields of the resource
+     * @param fields comma-separated field names
+     * @param id the id
+     * @param notFoundMessage the message reported when the row does not exist
+     * @return the row
+     * @throws NotFoundException if the row does not exist
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    public Map<String, Object> get(FieldCatalog catalog, String fields, UUID id, String notFoundMessage) {
+        return fieldProjectionRepository.findById(catalog.entity(), catalog.select(fields), id)
+                .orElseThrow(() -> new NotFoundException(notFoundMessage));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.patientrecordsystem.service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-memory token bucket rate limiter keyed by string.
+ *
+ * <p>Buckets live in preallocated arrays split into lock stripes, so memory does not grow
+ * with the number of distinct keys and contention is limited to keys that share a
+ * stripe. Within a stripe a key is located by a short linear probe over its 64-bit hash,
+ * which is seeded with random bits per instance so that callers cannot choose keys that
+ * collide. A new key takes a free probed slot or one whose bucket has fully refilled, and
+ * is thus indistinguishable from a fresh bucket. A bucket that is still below capacity is
+ * never reused: when every probed slot holds one, the new key is rejected until the first
+ * of them refills, so flooding a stripe with new keys cannot reset a throttled key.
+ *
+ * <p>Each check is a hash plus a handful of array reads under one stripe lock.
+ */
+public class StripedTokenBucketLimiter {
+
+    private static final int PROBES = 8;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int stripeMask;
+    private final int slotMask;
+    private final Stripe[] stripes;
+    private final LongSupplier nanoClock;
+    private final long seed = new SecureRandom().nextLong();
+
+    /**
+     * Creates a limiter.
+     *
+     * @param capacity the bucket size, i.e. the allowed burst
+     * @param refillPeriod the time needed to regain one token
+     * @param refillUnit the unit of {@code refillPeriod}
+     * @param stripes the number of lock stripes, rounded up to a power of two
+     * @param slotsPerStripe the number of buckets per stripe, rounded up to a power of two
+     */
+    public StripedTokenBucketLimiter(int capacity, long refillPeriod, TimeUnit refillUnit, int stripes, int slotsPerStripe) {
+        this(capacity, refillPeriod, refillUnit, stripes, slotsPerStripe, System::nanoTime);
+    }
+
+    StripedTokenBucketLimiter(int capacity, long refillPeriod, TimeUnit refillUnit, int stripes, int slotsPerStripe,
+                              LongSupplier nanoClock) {
+        if (capacity < 1 || refillPeriod < 1) {
+            throw new IllegalArgumentException("capacity and refill period must be positive");
+        }
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokensPerNano = 1.0 / refillUnit.toNanos(refillPeriod);
+        int stripeCount = powerOfTwo(stripes);
+        int slotCount = Math.max(PROBES, powerOfTwo(slotsPerStripe));
+        this.stripeMask = stripeCount - 1;
+        this.slotMask = slotCount - 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(slotCount);
+        }
+    }
+
+    /**
+     * Takes one token from the key's bucket if available.
+     *
+     * @param key the key, e.g. an email or a client address
+     * @return {@code 0} if the call is allowed, otherwise the nanoseconds until a token is
+     *         available, or until a bucket is free when the key has none
+     */
+    public long tryAcquire(String key) {
+        long hash = hash(key);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            int start = (int) (hash >>> 32);
+            int slot = stripe.locate(hash, start, now);
+            if (slot < 0) {
+                return stripe.untilRefilled(start, now);
+            }
+            double tokens = Math.min(capacity, stripe.tokens[slot] + (now - stripe.updatedAt[slot]) * tokensPerNano);
+            stripe.updatedAt[slot] = now;
+            if (tokens >= 1.0) {
+                stripe.tokens[slot] = tokens - 1.0;
+                return 0;
+            }
+            stripe.tokens[slot] = tokens;
+            return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+        }
+    }
+
+    private final class Stripe {
+        final long[] keys;
+        final double[] tokens;
+        final long[] updatedAt;
+        final boolean[] used;
+
+        Stripe(int slots) {
+            keys = new long[slots];
+            tokens = new double[slots];
+            updatedAt = new long[slots];
+            used = new boolean[slots];
+        }
+
+        int locate(long hash, int start, long now) {
+            for (int i = 0; i < PROBES; i++) {
+                int slot = (start + i) & slotMask;
+                if (used[slot] && keys[slot] == hash) {
+                    return slot;
+                }
+            }
+            for (int i = 0; i < PROBES; i++) {
+                int slot = (start + i) & slotMask;
+                if (!used[slot] || tokens[slot] + (now - updatedAt[slot]) * tokensPerNano >= capacity) {
+                    return claim(slot, hash, now);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the nanoseconds until the first of the probed buckets is full again.
+         */
+        long untilRefilled(int start, long now) {
+            double missing = capacity;
+            for (int i = 0; i < PROBES; i++) {
+                int slot = (start + i) & slotMask;
+                missing = Math.min(missing, capacity - tokens[slot] - (now - updatedAt[slot]) * tokensPerNano);
+            }
+            return Math.max(1, (long) Math.ceil(missing / tokensPerNano));
+        }
+
+        private int claim(int slot, long hash, long now) {
+            used[slot] = true;
+            keys[slot] = hash;
+            tokens[slot] = capacity;
+            updatedAt[slot] = now;
+            return slot;
+        }
+    }
+
+    private long hash(String key) {
+        // seeded FNV-1a followed by a murmur3 finalizer, so both halves of the hash are well mixed
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= seed;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.MedicalRecordResponse;
+import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.dto.PatientVisitResponse;
+import com.example.patientrecordsystem.dto.PrescriptionResponse;
+import com.example.patientrecordsystem.dto.SyncChange;
+import com.example.patientrecordsystem.dto.SyncMarker;
+import com.example.patientrecordsystem.dto.SyncResponse;
+import com.example.patientrecordsystem.entity.DeletionTombstone;
+import com.example.patientrecordsystem.repository.AppointmentRepository;
+import com.example.patientrecordsystem.repository.DeletionTombstoneRepository;
+import com.example.patientrecordsystem.repository.MedicalRecordRepository;
+import com.example.patientrecordsystem.repository.PatientRepository;
+import com.example.patientrecordsystem.repository.PatientVisitRepository;
+import com.example.patientrecordsystem.repository.PrescriptionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Serves the sync feed: every patient, appointment, visit, prescription and medical
+ * record created, updated or deleted since a cursor, oldest first.
+ *
+ * <p>Creates and updates are read from each table's {@code (updatedAt, id)} index and
+ * deletions from the {@link DeletionTombstone} log, which the services' {@code delete}
+ * methods write to in the same transaction as the delete. Each batch runs one range scan
+ * per table starting at the cursor and returning at most one batch plus one row, merges
+ * the results and then loads the changed rows by id, one query per type. A sync with
+ * nothing new therefore costs six index probes that return no rows.
+ *
+ * <p>Timestamps are taken when a row is flushed, so a row may become visible slightly
+ * after a later timestamp has been read. Changes younger than {@code app.sync.settle-ms}
+ * are therefore held back until the next sync; transactions writing these tables must
+ * commit within that window. Tombstones are purged after
+ * {@code app.sync.tombstone-retention-days}, and older cursors are rejected.
+ *
+ * <p>Visits, prescriptions and medical records written before they had an
+ * {@code updatedAt} column are stamped with the current time, in batches of
+ * {@code app.sync.backfill-batch-size}, so that the next sync of every client picks them
+ * up whatever its cursor. The backfill runs on a thread of its own after startup, so
+ * startup does not wait for it; until it finishes, the rows it has not reached yet are
+ * missing from the feed.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+
+    private static final Comparator<SyncMarker> OLDEST_FIRST = Comparator
+            .comparing(SyncMarker::changedAt)
+            .thenComparing(SyncMarker::id, DateIdCursor::compareIds);
+
+    /** The largest id in database order; a cursor at it is past every change at its time. */
+    private static final UUID LAST_ID = new UUID(-1L, -1L);
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PatientVisitRepository visitRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final MedicalRecordRepository recordRepository;
+    private final DeletionTombstoneRepository tombstoneRepository;
+    private final KeysetPaginator paginator;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settleDelay;
+    private final Duration retention;
+    private final int backfillBatchSize;
+    private final ExecutorService backfiller = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sync-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SyncService(PatientRepository patientRepository,
+                       AppointmentRepository appointmentRepository,
+                       PatientVisitRepository visitRepository,
+                       PrescriptionRepository prescriptionRepository,
+                       MedicalRecordRepository recordRepository,
+                       DeletionTombstoneRepository tombstoneRepository,
+                       KeysetPaginator paginator,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.sync.settle-ms:5000}") long settleMillis,
+                       @Value("${app.sync.tombstone-retention-days:30}") long retentionDays,
+                       @Value("${app.sync.backfill-batch-size:1000}") int backfillBatchSize) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.visitRepository = visitRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.recordRepository = recordRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.paginator = paginator;
+        this.transactionTemplate = transactionTemplate;
+        this.settleDelay = Duration.ofMillis(settleMillis);
+        this.retention = Duration.ofDays(retentionDays);
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    @PostConstruct
+    void init() {
+        backfiller.execute(() -> {
+            try {
+                int updated = backfill();
+                if (updated > 0) {
+                    logger.info("Stamped {} sync rows without updatedAt", updated);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Sync backfill failed; it resumes at the next startup", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfiller.shutdownNow();
+    }
+
+    /**
+     * Loads the changes made after a cursor.
+     *
+     * @param since the {@code nextCursor} of the previous sync, or {@code null} to read every resource
+     * @param limit the batch size, or {@code null} for the default page size
+     * @return the changes, oldest first, and the cursor to sync from next
+     * @throws IllegalArgumentException if the cursor is malformed or older than the tombstone retention, or the limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse changes(String since, Integer limit) {
+        int size = paginator.resolveSize(limit);
+        DateIdCursor after = DateIdCursor.decode(since);
+        Instant now = Instant.now();
+        if (after != null && after.at().isBefore(now.minus(retention))) {
+            throw new IllegalArgumentException("Sync cursor has expired; sync again without it");
+        }
+        Instant until = now.minus(settleDelay);
+        Limit fetch = Limit.of(size + 1);
+
+        List<SyncMarker> markers = new ArrayList<>();
+        markers.addAll(after == null
+                ? patientRepository.findChanges(until, fetch)
+                : patientRepository.findChangesAfter(after.at(), after.id(), until, fetch));
+        markers.addAll(after == null
+                ? appointmentRepository.findChanges(until, fetch)
+                : appointmentRepository.findChangesAfter(after.at(), after.id(), until, fetch));
+        markers.addAll(after == null
+                ? visitRepository.findChanges(until, fetch)
+                : visitRepository.findChangesAfter(after.at(), after.id(), until, fetch));
+        markers.addAll(after == null
+                ? prescriptionRepository.findChanges(until, fetch)
+                : prescriptionRepository.findChangesAfter(after.at(), after.id(), until, fetch));
+        markers.addAll(after == null
+                ? recordRepository.findChanges(until, fetch)
+                : recordRepository.findChangesAfter(after.at(), after.id(), until, fetch));
+        markers.addAll(after == null
+                ? tombstoneRepository.findChanges(until, fetch)
+                : tombstoneRepository.findChangesAfter(after.at(), after.id(), until, fetch));
+        markers.sort(OLDEST_FIRST);
+
+        boolean hasMore = markers.size() > size;
+        List<SyncMarker> batch = hasMore ? markers.subList(0, size) : markers;
+        return new SyncResponse(load(batch), nextCursor(batch, hasMore, after, until), hasMore);
+    }
+
+    /**
+     * Records the deletion of a patient, appointment, visit, prescription or medical record.
+     * Must be called in the transaction that deletes it.
+     *
+     * @param type the resource type, one of the {@link DeletionTombstone} constants
+     * @param id the id of the deleted resource
+     */
+    public void recordDeletion(String type, UUID id) {
+        tombstoneRepository.save(new DeletionTombstone(id, type, Instant.now()));
+    }
+
+    /**
+     * Records the deletion of a patient's appointments, visits, prescriptions and medical
+     * records. Must be called in the transaction that deletes them, before they are deleted.
+     *
+     * @param patientId the patient id
+     */
+    public void recordDeletionOfPatientItems(UUID patientId) {
+        Instant now = Instant.now();
+        tombstoneRepository.insertForAppointmentsOfPatient(patientId, now);
+        tombstoneRepository.insertForVisitsOfPatient(patientId, now);
+        tombstoneRepository.insertForPrescriptionsOfPatient(patientId, now);
+        tombstoneRepository.insertForRecordsOfPatient(patientId, now);
+    }
+
+    /**
+     * Deletes tombstones older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${app.sync.purge-interval-ms:3600000}",
+            initialDelayString = "${app.sync.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        tombstoneRepository.deleteOlderThan(Instant.now().minus(retention));
+    }
+
+    /**
+     * Stamps visits, prescriptions and medical records that have no {@code updatedAt} with
+     * the current time. Rows without one never match a sync range, so they would otherwise
+     * be missing from every client. The current time rather than the creation time is used
+     * so that clients whose cursors are already past the creation time receive them too.
+     *
+     * <p>Each batch runs in its own transaction and is stamped with the time it runs, so
+     * the backfill can be interrupted and resumed, and a batch written after clients have
+     * synced past the start of the backfill still lands ahead of their cursors.
+     *
+     * @return the number of rows updated
+     */
+    public int backfill() {
+        return backfill(visitRepository::findIdsWithoutUpdatedAt, visitRepository::stampUpdatedAt)
+                + backfill(prescriptionRepository::findIdsWithoutUpdatedAt, prescriptionRepository::stampUpdatedAt)
+                + backfill(recordRepository::findIdsWithoutUpdatedAt, recordRepository::stampUpdatedAt);
+    }
+
+    private int backfill(Function<Limit, List<UUID>> findIds, BiFunction<List<UUID>, Instant, Integer> stamp) {
+        int updated = 0;
+        while (true) {
+            List<UUID> batch = transactionTemplate.execute(status -> {
+                List<UUID> ids = findIds.apply(Limit.of(backfillBatchSize));
+                if (!ids.isEmpty()) {
+                    stamp.apply(ids, Instant.now());
+                }
+                return ids;
+            });
+            updated += batch.size();
+            if (batch.size() < backfillBatchSize) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Pairs each marker with its current row, loading the rows of each type in one query.
+     * A row deleted since its marker was read is left out; its tombstone follows in a
+     * later batch.
+     */
+    private List<SyncChange> load(List<SyncMarker> batch) {
+        Map<String, List<UUID>> idsByType = new LinkedHashMap<>();
+        for (SyncMarker marker : batch) {
+            if (!marker.deleted()) {
+                idsByType.computeIfAbsent(marker.type(), t -> new ArrayList<>()).add(marker.id());
+            }
+        }
+        Map<UUID, Object> rows = new HashMap<>();
+        idsByType.forEach((type, ids) -> rows.putAll(switch (type) {
+            case DeletionTombstone.PATIENT -> byId(patientRepository.findResponsesByIdIn(ids), PatientResponse::id);
+            case DeletionTombstone.APPOINTMENT -> byId(appointmentRepository.findResponsesByIdIn(ids), AppointmentResponse::id);
+            case DeletionTombstone.VISIT -> byId(visitRepository.findResponsesByIdIn(ids), PatientVisitResponse::id);
+            case DeletionTombstone.PRESCRIPTION -> byId(prescriptionRepository.findResponsesByIdIn(ids), PrescriptionResponse::id);
+            case DeletionTombstone.RECORD -> byId(recordRepository.findResponsesByIdIn(ids), MedicalRecordResponse::id);
+            default -> throw new IllegalStateException("Unknown sync type " + type);
+        }));
+        List<SyncChange> changes = new ArrayList<>(batch.size());
+        for (SyncMarker marker : batch) {
+            Object row = marker.deleted() ? null : rows.get(marker.id());
+            if (marker.deleted() || row != null) {
+                changes.add(new SyncChange(marker.type(), marker.id(), marker.deleted(), marker.changedAt(), row));
+            }
+        }
+        return changes;
+    }
+
+    private static <R> Map<UUID, Object> byId(Collection<R> rows, Function<R, UUID> idOf) {
+        Map<UUID, Object> byId = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> byId.put(idOf.apply(row), row));
+        return byId;
+    }
+
+    /**
+     * Returns the position of the last change when more are waiting; otherwise every change
+     * up to {@code until} has been returned and the next sync can start there, so that the
+     * cursor keeps moving forward even when nothing changes.
+     */
+    private static String nextCursor(List<SyncMarker> batch, boolean hasMore, DateIdCursor after, Instant until) {
+        if (hasMore) {
+            SyncMarker last = batch.get(batch.size() - 1);
+            return new DateIdCursor(last.changedAt(), last.id()).encode();
+        }
+        if (after != null && !after.at().isBefore(until)) {
+            return after.encode();
+        }
+        return new DateIdCursor(until, LAST_ID).encode();
+    }
+}
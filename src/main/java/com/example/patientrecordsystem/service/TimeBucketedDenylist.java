@@ -0,0 +1,78 @@
+package com.example.patientrecordsystem.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set of revoked token ids grouped into buckets by token expiry.
+ *
+ * <p>A token's bucket is derived from its own {@code exp} claim, so a lookup is one map
+ * get plus one set lookup. Once the whole bucket lies in the past every token in it has
+ * expired and is rejected by signature verification anyway, so the bucket is dropped in one
+ * step. Memory is therefore bounded by the number of revoked tokens that have not expired
+ * yet.
+ */
+public class TimeBucketedDenylist {
+
+    private final long bucketSeconds;
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a denylist.
+     *
+     * @param bucketSeconds the expiry range covered by one bucket
+     */
+    public TimeBucketedDenylist(long bucketSeconds) {
+        if (bucketSeconds < 1) {
+            throw new IllegalArgumentException("bucket size must be positive");
+        }
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    /**
+     * Adds a token id.
+     *
+     * @param tokenId the token id
+     * @param expiresAt the token expiry
+     */
+    public void add(String tokenId, Instant expiresAt) {
+        buckets.computeIfAbsent(bucketOf(expiresAt), b -> ConcurrentHashMap.newKeySet()).add(tokenId);
+    }
+
+    /**
+     * Tells whether a token id was added.
+     *
+     * @param tokenId the token id
+     * @param expiresAt the token expiry, used to find its bucket
+     * @return {@code true} if the token is denied
+     */
+    public boolean contains(String tokenId, Instant expiresAt) {
+        Set<String> bucket = buckets.get(bucketOf(expiresAt));
+        return bucket != null && bucket.contains(tokenId);
+    }
+
+    /**
+     * Drops every bucket whose tokens have all expired.
+     *
+     * @param now the current time
+     */
+    public void dropExpired(Instant now) {
+        long current = bucketOf(now);
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+
+    /**
+     * Returns the number of token ids held.
+     *
+     * @return the size
+     */
+    public int size() {
+        return buckets.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private long bucketOf(Instant expiresAt) {
+        return expiresAt == null ? Long.MAX_VALUE : Math.floorDiv(expiresAt.getEpochSecond(), bucketSeconds);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.entity.RevokedToken;
+import com.example.patientrecordsystem.entity.UserTokenCutoff;
+import com.example.patientrecordsystem.repository.RevokedTokenRepository;
+import com.example.patientrecordsystem.repository.UserTokenCutoffRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revokes access tokens before they expire and answers whether a token was revoked.
+ *
+ * <p>Revocations are persisted in {@code revoked_tokens} and mirrored in a
+ * {@link TimeBucketedDenylist}, which is what {@link com.example.patientrecordsystem.config.JwtAuthFilter}
+ * consults, so checking a token never queries the database. The denylist is loaded at
+ * startup and refreshed every {@code auth.revocation.sync-interval-ms} with revocations
+ * made by other instances; the same task drops expired buckets and purges expired rows.
+ *
+ * <p>All tokens of one user can be cut off at once with {@link #revokeAllFor(UUID)}, which
+ * rejects every token issued to that user up to now. Cutoffs are persisted in
+ * {@code user_token_cutoffs}, kept in memory and synced the same way, and dropped once
+ * {@code jwt.expiration} has passed since they were set. Cutoffs are kept to the
+ * millisecond; tokens that only carry a second-precision issue time are compared by that
+ * rounded-down time, so one issued in the same second as the cutoff is rejected too.
+ *
+ * <p>Tokens issued without a {@code jti} cannot be revoked one by one, and tokens without a
+ * user id are not affected by cutoffs; they resolve their principal from the database
+ * anyway. The denylist size is published as {@code auth.revocation.denylist.size}.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserTokenCutoffRepository cutoffRepository;
+    private final TransactionTemplate newTransaction;
+    private final TimeBucketedDenylist denylist;
+    private final Map<UUID, Instant> cutoffs = new ConcurrentHashMap<>();
+    private final Duration tokenLifetime;
+    private final Duration syncOverlap;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  UserTokenCutoffRepository cutoffRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.expiration}") long tokenLifetimeMillis,
+                                  @Value("${auth.revocation.bucket-seconds:300}") long bucketSeconds,
+                                  @Value("${auth.revocation.sync-interval-ms:30000}") long syncIntervalMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.cutoffRepository = cutoffRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.denylist = new TimeBucketedDenylist(bucketSeconds);
+        this.tokenLifetime = Duration.ofMillis(tokenLifetimeMillis);
+        this.syncOverlap = Duration.ofMillis(syncIntervalMillis);
+        Gauge.builder("auth.revocation.denylist.size", denylist, TimeBucketedDenylist::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByExpiresAtAfter(now)
+                .forEach(t -> denylist.add(t.getTokenId(), t.getExpiresAt()));
+        cutoffRepository.findByExpiresAtAfter(now)
+                .forEach(c -> cutoffs.merge(c.getUserId(), c.getIssuedBefore(), TokenRevocationService::later));
+        lastSync = now;
+    }
+
+    /**
+     * Revokes a verified token.
+     *
+     * @param claims the claims of the token to revoke
+     * @throws IllegalArgumentException if the token has no id or no expiry
+     */
+    @Transactional
+    public void revoke(JwtClaims claims) {
+        if (claims.tokenId() == null || claims.expiresAt() == null) {
+            throw new IllegalArgumentException("Token cannot be revoked");
+        }
+        if (!revokedTokenRepository.existsById(claims.tokenId())) {
+            revokedTokenRepository.save(new RevokedToken(claims.tokenId(), claims.subject(), claims.expiresAt(), Instant.now()));
+        }
+        denylist.add(claims.tokenId(), claims.expiresAt());
+    }
+
+    /**
+     * Revokes every token issued to a user up to now.
+     *
+     * <p>The cutoff applies on this instance immediately and is set again, and persisted,
+     * once the surrounding transaction commits, so a login that still read the old state
+     * cannot obtain a token that outlives the change. Without a transaction the cutoff is
+     * persisted right away.
+     *
+     * @param userId the user id
+     */
+    public void revokeAllFor(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            persistCutoff(userId);
+            return;
+        }
+        cutoffs.merge(userId, Instant.now().truncatedTo(ChronoUnit.MILLIS), TokenRevocationService::later);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                persistCutoff(userId);
+            }
+        });
+    }
+
+    /**
+     * Tells whether a verified token was revoked. Never touches the database.
+     *
+     * @param claims the token claims
+     * @return {@code true} if the token must be rejected
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        if (claims.tokenId() != null && denylist.contains(claims.tokenId(), claims.expiresAt())) {
+            return true;
+        }
+        Instant cutoff = claims.userId() != null ? cutoffs.get(claims.userId()) : null;
+        return cutoff != null && (claims.issuedAt() == null || !claims.issuedAt().isAfter(cutoff));
+    }
+
+    /**
+     * Picks up revocations and cutoffs made by other instances, drops expired buckets and
+     * cutoffs, and purges expired rows.
+     *
+     * <p>Each run re-reads one interval before the previous run, so rows committed while
+     * the previous run was in progress are not missed.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval-ms:30000}",
+            initialDelayString = "${auth.revocation.sync-interval-ms:30000}")
+    @Transactional
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync.minus(syncOverlap);
+        revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now)
+                .forEach(t -> denylist.add(t.getTokenId(), t.getExpiresAt()));
+        cutoffRepository.findByIssuedBeforeGreaterThanEqualAndExpiresAtAfter(since, now)
+                .forEach(c -> cutoffs.merge(c.getUserId(), c.getIssuedBefore(), TokenRevocationService::later));
+        lastSync = now;
+        denylist.dropExpired(now);
+        cutoffs.values().removeIf(cutoff -> !cutoff.plus(tokenLifetime).isAfter(now));
+        revokedTokenRepository.deleteExpired(now);
+        cutoffRepository.deleteExpired(now);
+    }
+
+    private void persistCutoff(UUID userId) {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        newTransaction.executeWithoutResult(status ->
+                cutoffRepository.save(new UserTokenCutoff(userId, cutoff, cutoff.plus(tokenLifetime))));
+        cutoffs.merge(userId, cutoff, TokenRevocationService::later);
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
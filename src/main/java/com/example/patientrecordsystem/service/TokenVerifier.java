@@ -0,0 +1,19 @@
+package com.example.patientrecordsystem.service;
+
+/**
+ * Verifies bearer tokens and returns their claims.
+ *
+ * <p>Implemented by {@link JwtService}, which performs the signature check on every call,
+ * and by {@link VerifiedTokenCache}, which remembers tokens it has already verified.
+ */
+public interface TokenVerifier {
+
+    /**
+     * Verifies the token signature and expiry and returns its claims.
+     *
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or has an invalid signature
+     */
+    JwtClaims parse(String token);
+}
@@ -0,0 +1,361 @@
+package com.example.patientrecordsystem.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over short texts, answering ranked, typo-tolerant prefix and
+ * substring queries.
+ *
+ * <p>Texts are lower-cased, stripped of accents and split into tokens of letters and
+ * digits in any script; other characters are ignored. Latin letters that carry no
+ * separable accent, such as {@code ø}, {@code đ} or {@code ß}, are spelled out as their
+ * nearest ASCII letters, so {@code Søren} and {@code Soren} index alike. Each token is prefixed with two boundary markers
+ * and cut into overlapping trigrams, so {@code ann} yields {@code ^^a}, {@code ^an} and
+ * {@code ann}. A query that is the prefix of a token shares all of its trigrams with it, a
+ * substring shares its inner trigrams and a misspelling still shares most of them.
+ * Documents containing at least half of the query trigrams are ranked by how many they
+ * contain, then by their own trigram count so that the shortest match comes first.
+ *
+ * <p>Trigrams are built over 64 symbols: the boundary marker, the ASCII letters and
+ * digits, and 27 buckets that all other letters and digits are spread over by code point.
+ * Contiguous alphabets such as Greek or Cyrillic mostly land in buckets of their own, and
+ * a collision can only add a weak candidate, never lose a match. With fewer than 263,000
+ * trigrams, posting lists are addressed directly by trigram and hold document ordinals in ascending order. A query walks the
+ * lists of its trigrams in step, keeping only the best {@code limit} documents, so its cost
+ * depends on the lengths of those lists and not on the number of documents. Candidates are
+ * taken only from the shortest lists that every match must appear in, and the longest
+ * lists, typically those of common prefixes, are merely probed. Ordinals of
+ * removed documents are not reused; build a new index to compact it. Searches run
+ * concurrently, writes are exclusive.
+ */
+public class TrigramIndex {
+
+    private static final char MARKER = '^';
+    private static final int ASCII_SYMBOLS = 37;
+    private static final int SYMBOLS = 64;
+    private static final int MAX_QUERY_LENGTH = 64;
+
+    private final int[][] postings = new int[SYMBOLS * SYMBOLS * SYMBOLS][];
+    private final int[] postingSizes = new int[postings.length];
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private UUID[] ids = new UUID[1024];
+    private String[] texts = new String[1024];
+    private int[] gramCounts = new int[1024];
+    private int nextOrdinal;
+
+    /**
+     * Adds a document, or replaces the text of an indexed one.
+     *
+     * @param id the document id
+     * @param text the text to index
+     */
+    public void put(UUID id, String text) {
+        String normalized = normalize(text);
+        int[] grams = trigrams(normalized);
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(id);
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                for (int gram : trigrams(texts[ordinal])) {
+                    removePosting(gram, ordinal);
+                }
+            } else {
+                ordinal = nextOrdinal++;
+                ensureCapacity(nextOrdinal);
+                ordinals.put(id, ordinal);
+                ids[ordinal] = id;
+            }
+            texts[ordinal] = normalized;
+            gramCounts[ordinal] = grams.length;
+            for (int gram : grams) {
+                addPosting(gram, ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document; does nothing if it is not indexed.
+     *
+     * @param id the document id
+     */
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            for (int gram : trigrams(texts[ordinal])) {
+                removePosting(gram, ordinal);
+            }
+            ids[ordinal] = null;
+            texts[ordinal] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents best matching a query.
+     *
+     * @param query the query text; only its first 64 characters are used
+     * @param limit the maximum number of results
+     * @return the ids of the matching documents, best first
+     */
+    public List<UUID> search(String query, int limit) {
+        String text = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        int[] grams = trigrams(normalize(text));
+        if (grams.length == 0 || limit < 1) {
+            return List.of();
+        }
+        int minScore = (grams.length + 1) / 2;
+        lock.readLock().lock();
+        try {
+            Integer[] order = new Integer[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                order[i] = grams[i];
+            }
+            Arrays.sort(order, Comparator.comparingInt(gram -> postingSizes[gram]));
+            int[][] lists = new int[grams.length][];
+            int[] sizes = new int[grams.length];
+            int[] positions = new int[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings[order[i]];
+                sizes[i] = postingSizes[order[i]];
+            }
+            // a match shares at least minScore trigrams, so it is in one of the shortest
+            // (n - minScore + 1) lists; the longer ones are only probed for its ordinal
+            int candidateLists = grams.length - minScore + 1;
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+            while (true) {
+                int ordinal = Integer.MAX_VALUE;
+                for (int i = 0; i < candidateLists; i++) {
+                    if (positions[i] < sizes[i] && lists[i][positions[i]] < ordinal) {
+                        ordinal = lists[i][positions[i]];
+                    }
+                }
+                if (ordinal == Integer.MAX_VALUE) {
+                    break;
+                }
+                int score = 0;
+                for (int i = 0; i < candidateLists; i++) {
+                    if (positions[i] < sizes[i] && lists[i][positions[i]] == ordinal) {
+                        score++;
+                        positions[i]++;
+                    }
+                }
+                for (int i = candidateLists; i < lists.length && score + lists.length - i >= minScore; i++) {
+                    positions[i] = seek(lists[i], positions[i], sizes[i], ordinal);
+                    if (positions[i] < sizes[i] && lists[i][positions[i]] == ordinal) {
+                        score++;
+                    }
+                }
+                if (score >= minScore) {
+                    long rank = rank(score, gramCounts[ordinal], ordinal);
+                    if (best.size() < limit) {
+                        best.add(rank);
+                    } else if (rank > best.peek()) {
+                        best.poll();
+                        best.add(rank);
+                    }
+                }
+            }
+            List<UUID> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(ids[Integer.MAX_VALUE - (int) (best.poll() & 0x7FFF_FFFFL)]);
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return the size
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the first position at or after {@code from} holding a value not less than
+     * {@code target}, galloping so that long skips cost logarithmic time.
+     */
+    private static int seek(int[] list, int from, int size, int target) {
+        int bound = 1;
+        while (from + bound < size && list[from + bound] < target) {
+            bound <<= 1;
+        }
+        int at = Arrays.binarySearch(list, from + (bound >> 1), Math.min(from + bound + 1, size), target);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    /**
+     * Packs the ranking keys so that a larger value is a better match: more shared
+     * trigrams, then fewer trigrams in the document, then the earlier ordinal.
+     */
+    private static long rank(int score, int gramCount, int ordinal) {
+        return ((long) score << 48) | ((long) (0xFFFF - Math.min(gramCount, 0xFFFF)) << 32)
+                | (Integer.MAX_VALUE - ordinal);
+    }
+
+    /**
+     * Lower-cases the text, drops accents, spells out the Latin letters listed in
+     * {@link #fold(char)} and reduces it to letter and digit tokens separated by single
+     * spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            String folded = fold(c);
+            if (folded != null) {
+                out.append(folded);
+            } else if (Character.isLetterOrDigit(c)) {
+                out.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK
+                    && out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+                out.append(' ');
+            }
+        }
+        int end = out.length();
+        return end > 0 && out.charAt(end - 1) == ' ' ? out.substring(0, end - 1) : out.toString();
+    }
+
+    /**
+     * Returns the ASCII spelling of a lower-case Latin letter that NFD does not decompose,
+     * or {@code null} for any other character.
+     */
+    private static String fold(char c) {
+        return switch (c) {
+            case '\u00f8' -> "o";  // ø
+            case '\u0111' -> "d";  // đ
+            case '\u0142' -> "l";  // ł
+            case '\u0127' -> "h";  // ħ
+            case '\u0131' -> "i";  // dotless ı
+            case '\u00f0' -> "d";  // ð
+            case '\u00fe' -> "th"; // þ
+            case '\u00df' -> "ss"; // ß
+            case '\u00e6' -> "ae"; // æ
+            case '\u0153' -> "oe"; // œ
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the distinct trigrams of a normalized text, sorted.
+     */
+    private static int[] trigrams(String normalized) {
+        int[] grams = new int[normalized.length()];
+        int count = 0;
+        char first = MARKER;
+        char second = MARKER;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == ' ') {
+                first = MARKER;
+                second = MARKER;
+                continue;
+            }
+            grams[count++] = (symbol(first) * SYMBOLS + symbol(second)) * SYMBOLS + symbol(c);
+            first = second;
+            second = c;
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static int symbol(char c) {
+        if (c == MARKER) {
+            return 0;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return ASCII_SYMBOLS + c % (SYMBOLS - ASCII_SYMBOLS);
+    }
+
+    private void addPosting(int gram, int ordinal) {
+        int[] list = postings[gram];
+        int size = postingSizes[gram];
+        if (list == null) {
+            list = postings[gram] = new int[4];
+        }
+        int at = size == 0 || list[size - 1] < ordinal ? size : Arrays.binarySearch(list, 0, size, ordinal);
+        if (at < 0) {
+            at = -at - 1;
+        } else if (at < size) {
+            return;
+        }
+        if (size == list.length) {
+            list = postings[gram] = Arrays.copyOf(list, size + (size >> 1) + 1);
+        }
+        System.arraycopy(list, at, list, at + 1, size - at);
+        list[at] = ordinal;
+        postingSizes[gram] = size + 1;
+    }
+
+    private void removePosting(int gram, int ordinal) {
+        int size = postingSizes[gram];
+        if (size == 0) {
+            return;
+        }
+        int[] list = postings[gram];
+        int at = Arrays.binarySearch(list, 0, size, ordinal);
+        if (at < 0) {
+            return;
+        }
+        System.arraycopy(list, at + 1, list, at, size - at - 1);
+        postingSizes[gram] = size - 1;
+        if (size == 1) {
+            postings[gram] = null;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, grown);
+            texts = Arrays.copyOf(texts, grown);
+            gramCounts = Arrays.copyOf(gramCounts, grown);
+        }
+    }
+}
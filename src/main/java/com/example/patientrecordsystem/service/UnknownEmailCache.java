@@ -0,0 +1,95 @@
+package com.example.patientrecordsystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-expiring set of emails known not to belong to any user.
+ *
+ * <p>Lets {@link AuthService#login} reject logins for unknown emails without querying
+ * {@code users}. Entries are removed by {@link UserCacheEvictionListener} whenever a user is
+ * created or its email changes. To avoid caching a miss that raced with such a write, callers
+ * take a {@link #stamp()} before the lookup and pass it to {@link #recordUnknown(String, long)},
+ * which drops the entry if anything was invalidated in between.
+ *
+ * <p>The cache is local to each instance and so are those removals: an account created or
+ * renamed through another instance is only seen here once the entry expires. Logins for such
+ * an email that were rejected in the last {@code auth.unknown-email-cache.ttl-seconds}
+ * therefore keep being rejected for up to that long, which is why the TTL is kept to
+ * seconds. That is still enough to absorb repeated attempts at the same unknown email.
+ *
+ * <p>Hit, miss and eviction counts are published as {@code cache.*} meters tagged
+ * {@code cache=unknown-emails}.
+ */
+@Service
+public class UnknownEmailCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "unknown-emails";
+
+    private final Cache<String, Boolean> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UnknownEmailCache(@Value("${auth.unknown-email-cache.max-size:100000}") long maxSize,
+                             @Value("${auth.unknown-email-cache.ttl-seconds:10}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Tells whether an email is known not to exist.
+     *
+     * @param email the email
+     * @return {@code true} if a recent lookup found no user with that email
+     */
+    public boolean isKnownUnknown(String email) {
+        return cache.getIfPresent(email) != null;
+    }
+
+    /**
+     * Returns the current invalidation stamp, to be taken before looking an email up.
+     *
+     * @return the stamp
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Records that no user has the given email, unless an invalidation happened since {@code stamp}.
+     *
+     * @param email the email that was not found
+     * @param stamp the value of {@link #stamp()} taken before the lookup
+     */
+    public void recordUnknown(String email, long stamp) {
+        cache.put(email, Boolean.TRUE);
+        if (invalidations.get() != stamp) {
+            cache.invalidate(email);
+        }
+    }
+
+    /**
+     * Forgets that an email is unknown, e.g. because a user was just created with it.
+     *
+     * @param email the email
+     */
+    public void forget(String email) {
+        invalidations.incrementAndGet();
+        cache.invalidate(email);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps {@link UserPrincipalCache} and {@link UnknownEmailCache}
+ * consistent with the {@code users} table, and revokes the tokens of deleted users through
+ * {@link TokenRevocationService}.
+ *
+ * <p>Entries are evicted immediately and again after the surrounding transaction commits,
+ * so a concurrent request cannot re-cache the pre-commit state. The services are looked up
+ * lazily because Hibernate creates this listener while the entity manager factory, which
+ * the principal cache depends on, is still being built.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserPrincipalCache> principalCacheProvider;
+    private final ObjectProvider<UnknownEmailCache> unknownEmailCacheProvider;
+    private final ObjectProvider<TokenRevocationService> revocationServiceProvider;
+
+    public UserCacheEvictionListener(ObjectProvider<UserPrincipalCache> principalCacheProvider,
+                                     ObjectProvider<UnknownEmailCache> unknownEmailCacheProvider,
+                                     ObjectProvider<TokenRevocationService> revocationServiceProvider) {
+        this.principalCacheProvider = principalCacheProvider;
+        this.unknownEmailCacheProvider = unknownEmailCacheProvider;
+        this.revocationServiceProvider = revocationServiceProvider;
+    }
+
+    @PostPersist
+    public void onCreate(User user) {
+        UnknownEmailCache unknownEmailCache = unknownEmailCacheProvider.getObject();
+        runNowAndAfterCommit(() -> unknownEmailCache.forget(user.getEmail()));
+    }
+
+    @PostRemove
+    public void onDelete(User user) {
+        onChange(user);
+        revocationServiceProvider.getObject().revokeAllFor(user.getId());
+    }
+
+    @PostUpdate
+    public void onChange(User user) {
+        UserPrincipalCache principalCache = principalCacheProvider.getObject();
+        UnknownEmailCache unknownEmailCache = unknownEmailCacheProvider.getObject();
+        runNowAndAfterCommit(() -> {
+            principalCache.evict(user.getId(), user.getEmail());
+            unknownEmailCache.forget(user.getEmail());
+        });
+    }
+
+    private static void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
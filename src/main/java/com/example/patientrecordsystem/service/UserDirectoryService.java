@@ -0,0 +1,176 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.UserResponse;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.webjars.NotFoundException;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Staff directory: finds users by the start of their last and/or first name.
+ *
+ * <p>Names are matched through their normalized key columns (see {@link User#nameKey(String)}),
+ * so case, accents and punctuation are ignored and the search is an index range scan that
+ * stops after one page. Pages are ordered by the searched key and then id, and never hold
+ * more than {@code app.directory.max-size} users whatever {@code limit} asks for. Rows
+ * written before the key columns existed are backfilled at startup in batches of
+ * {@code app.directory.backfill-batch-size}.
+ *
+ * <p>Administrators change a user's role through {@link #assignRole(UUID, String)}; this is
+ * the only way to grant {@code ADMIN} once an administrator exists. To create the first one,
+ * register the account and set {@code auth.bootstrap-admin-email} to its email: at startup,
+ * if no user has {@code ADMIN}, that user is promoted.
+ */
+@Service
+public class UserDirectoryService {
+
+    private final UserRepository userRepository;
+    private final TokenRevocationService revocationService;
+    private final KeysetPaginator paginator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSize;
+    private final int backfillBatchSize;
+    private final String bootstrapAdminEmail;
+
+    public UserDirectoryService(UserRepository userRepository,
+                                TokenRevocationService revocationService,
+                                KeysetPaginator paginator,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.directory.max-size:50}") int maxSize,
+                                @Value("${app.directory.backfill-batch-size:1000}") int backfillBatchSize,
+                                @Value("${auth.bootstrap-admin-email:}") String bootstrapAdminEmail) {
+        this.userRepository = userRepository;
+        this.revocationService = revocationService;
+        this.paginator = paginator;
+        this.transactionTemplate = transactionTemplate;
+        this.maxSize = maxSize;
+        this.backfillBatchSize = backfillBatchSize;
+        this.bootstrapAdminEmail = bootstrapAdminEmail;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!bootstrapAdminEmail.isBlank()) {
+            bootstrapAdmin(bootstrapAdminEmail.trim());
+        }
+        backfill();
+    }
+
+    /**
+     * Searches users by name prefix, one page at a time.
+     *
+     * @param lastName the start of the last name, or {@code null}
+     * @param firstName the start of the first name, or {@code null}
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the page size, or {@code null} for the default; capped at {@code app.directory.max-size}
+     * @return one page of matching users
+     * @throws IllegalArgumentException if neither name is given, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> search(String lastName, String firstName, String cursor, Integer limit) {
+        String lastNamePrefix = prefixOf(lastName);
+        String firstNamePrefix = prefixOf(firstName);
+        if (lastNamePrefix == null && firstNamePrefix == null) {
+            throw new IllegalArgumentException("lastName or firstName is required");
+        }
+        int size = Math.min(paginator.resolveSize(limit), maxSize);
+        KeyIdCursor after = KeyIdCursor.decode(cursor);
+        List<UserResponse> rows = userRepository.searchDirectory(lastNamePrefix, firstNamePrefix,
+                after == null ? null : after.key(), after == null ? null : after.id(), size + 1);
+        boolean hasMore = rows.size() > size;
+        List<UserResponse> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            UserResponse last = page.get(size - 1);
+            String key = User.nameKey(lastNamePrefix != null ? last.lastName() : last.firstName());
+            nextCursor = new KeyIdCursor(key, last.id()).encode();
+        }
+        return new PageResponse<>(page, nextCursor);
+    }
+
+    /**
+     * Changes the role of a user. Access tokens already issued carry the old role, so they
+     * are revoked through {@link TokenRevocationService#revokeAllFor(UUID)} and the user has
+     * to log in again; the cached principal is evicted by {@link UserCacheEvictionListener}.
+     *
+     * @param id the user id
+     * @param role the new role
+     * @return the updated user
+     * @throws NotFoundException if the user is not found
+     * @throws IllegalArgumentException if the role is blank
+     */
+    @Transactional
+    public UserResponse assignRole(UUID id, String role) {
+        String normalized = User.normalizeRole(role);
+        if (normalized == null) {
+            throw new IllegalArgumentException("role is required");
+        }
+        User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
+        if (!normalized.equals(user.getRole())) {
+            user.setRole(normalized);
+            revocationService.revokeAllFor(id);
+        }
+        return new UserResponse(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getRole(), user.getPhone());
+    }
+
+    /**
+     * Promotes a registered user to {@code ADMIN}, but only while no administrator exists.
+     *
+     * @param email the email of the user to promote
+     * @return {@code true} if the user was promoted
+     */
+    public boolean bootstrapAdmin(String email) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (userRepository.existsByRole(User.ADMIN)) {
+                return false;
+            }
+            User user = userRepository.findByEmail(email).orElse(null);
+            if (user == null) {
+                return false;
+            }
+            user.setRole(User.ADMIN);
+            return true;
+        }));
+    }
+
+    /**
+     * Fills the normalized name columns of users that do not have them yet.
+     *
+     * <p>Each batch runs in its own transaction, walking the table in id order, so the
+     * backfill can be interrupted and resumed.
+     *
+     * @return the number of users updated
+     */
+    public int backfill() {
+        int updated = 0;
+        UUID after = new UUID(0, 0);
+        while (true) {
+            UUID from = after;
+            List<User> batch = transactionTemplate.execute(status -> {
+                List<User> users = userRepository.findWithoutNameKeys(from, Limit.of(backfillBatchSize));
+                users.forEach(User::normalizeNames);
+                return users;
+            });
+            updated += batch.size();
+            if (batch.size() < backfillBatchSize) {
+                return updated;
+            }
+            after = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private static String prefixOf(String name) {
+        String key = User.nameKey(name);
+        return key == null || key.isEmpty() ? null : key;
+    }
+}
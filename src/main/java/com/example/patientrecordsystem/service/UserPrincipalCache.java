@@ -0,0 +1,109 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.config.AuthenticatedUser;
+import com.example.patientrecordsystem.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-expiring cache of authenticated principals keyed by email.
+ *
+ * <p>Used by {@link com.example.patientrecordsystem.config.JwtAuthFilter} so that an
+ * authenticated request does not need a {@code users} lookup each time. Unknown emails are
+ * not cached. Entries are evicted by {@link UserCacheEvictionListener} when a user is
+ * updated or deleted, and in any case expire after the configured TTL. A side map from user
+ * id to cached email lets an eviction by id find the entry directly, even after the
+ * email has changed; it only holds ids whose principal is cached.
+ *
+ * <p>Hit, miss and eviction counts are published as {@code cache.*} meters tagged
+ * {@code cache=principals}.
+ */
+@Service
+public class UserPrincipalCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "principals";
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> cache;
+    private final Map<UUID, String> emailsById = new ConcurrentHashMap<>();
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${auth.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((String email, AuthenticatedUser principal, RemovalCause cause) -> {
+                    if (principal != null) {
+                        emailsById.remove(principal.id(), email);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the principal for an email, loading it from the database on a miss.
+     *
+     * @param email the user email
+     * @return the principal, or empty if no user has that email
+     */
+    public Optional<AuthenticatedUser> get(String email) {
+        return Optional.ofNullable(cache.get(email, key -> {
+            AuthenticatedUser principal = userRepository.findByEmail(key).map(AuthenticatedUser::from).orElse(null);
+            if (principal != null) {
+                emailsById.put(principal.id(), key);
+            }
+            return principal;
+        }));
+    }
+
+    /**
+     * Evicts every cached principal for the given user.
+     *
+     * <p>Entries are matched by id as well as email so that an email change does not
+     * leave the old key behind; both are single lookups.
+     *
+     * @param id the user id, may be {@code null}
+     * @param email the user email, may be {@code null}
+     */
+    public void evict(UUID id, String email) {
+        if (id != null) {
+            String cachedEmail = emailsById.remove(id);
+            if (cachedEmail != null) {
+                cache.invalidate(cachedEmail);
+            }
+        }
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    /**
+     * Returns a snapshot of hit, miss and eviction counts.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
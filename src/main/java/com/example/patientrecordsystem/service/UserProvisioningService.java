@@ -0,0 +1,167 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.dto.BulkRegisterResponse;
+import com.example.patientrecordsystem.dto.BulkRegisterResult;
+import com.example.patientrecordsystem.dto.RegisterRequest;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service that creates many user accounts in one call.
+ *
+ * <p>Rows are validated individually. Existing emails are found with one {@code IN} query
+ * per {@code auth.bulk-register.lookup-chunk-size} emails instead of one query per row,
+ * passwords are hashed in parallel by {@link PasswordHashingService#encodeAll(List)}, and the
+ * users are inserted in a single transaction using JDBC batching (see
+ * {@link com.example.patientrecordsystem.config.JpaConfig}). No transaction is open while
+ * hashing. If another request registers one of the emails between the lookup and the
+ * insert, the whole batch fails on the unique constraint and can simply be retried.
+ *
+ * <p>Every row must carry a role, which is trimmed and upper-cased (see
+ * {@link User#normalizeRole(String)}) before it is checked against
+ * {@code auth.bulk-register.allowed-roles} and stored; other rows are reported as invalid.
+ * {@code ADMIN} can never be listed, so one batch cannot mint administrators.
+ */
+@Service
+public class UserProvisioningService {
+
+    static final String CREATED = "CREATED";
+    static final String DUPLICATE = "DUPLICATE";
+    static final String INVALID = "INVALID";
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final int lookupChunkSize;
+    private final int flushSize;
+    private final Set<String> allowedRoles;
+
+    public UserProvisioningService(UserRepository userRepository,
+                                   PasswordHashingService passwordHashingService,
+                                   Validator validator,
+                                   EntityManager entityManager,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${auth.bulk-register.max-size:10000}") int maxBatchSize,
+                                   @Value("${auth.bulk-register.lookup-chunk-size:1000}") int lookupChunkSize,
+                                   @Value("${app.jpa.batch-size:50}") int flushSize,
+                                   @Value("${auth.bulk-register.allowed-roles:STAFF,NURSE,DOCTOR,PATIENT}") List<String> allowedRoles) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.lookupChunkSize = lookupChunkSize;
+        this.flushSize = flushSize;
+        this.allowedRoles = allowedRoles.stream().map(User::normalizeRole).filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        if (this.allowedRoles.contains(User.ADMIN)) {
+            throw new IllegalStateException("auth.bulk-register.allowed-roles must not include " + User.ADMIN);
+        }
+    }
+
+    /**
+     * Registers a batch of users.
+     *
+     * @param requests the rows to register
+     * @return a report with one result per row, in request order
+     * @throws IllegalArgumentException if the batch exceeds {@code auth.bulk-register.max-size}
+     */
+    public BulkRegisterResponse registerAll(List<RegisterRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " users can be registered at once");
+        }
+        BulkRegisterResult[] results = new BulkRegisterResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RegisterRequest req = requests.get(i);
+            String error = validate(req);
+            if (error != null) {
+                results[i] = new BulkRegisterResult(i, req == null ? null : req.email(), INVALID, null, error);
+            } else if (!seen.add(req.email())) {
+                results[i] = new BulkRegisterResult(i, req.email(), DUPLICATE, null, "Email appears earlier in the batch");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        Set<String> existing = findExistingEmails(seen);
+        List<RegisterRequest> toCreate = new ArrayList<>();
+        List<Integer> toCreateIndexes = new ArrayList<>();
+        for (int i : accepted) {
+            RegisterRequest req = requests.get(i);
+            if (existing.contains(req.email())) {
+                results[i] = new BulkRegisterResult(i, req.email(), DUPLICATE, null, "Email already exists");
+            } else {
+                toCreate.add(req);
+                toCreateIndexes.add(i);
+            }
+        }
+
+        List<String> hashes = passwordHashingService.encodeAll(toCreate.stream().map(RegisterRequest::password).toList());
+        List<User> users = new ArrayList<>(toCreate.size());
+        for (int i = 0; i < toCreate.size(); i++) {
+            RegisterRequest req = toCreate.get(i);
+            users.add(new User(req.email(), hashes.get(i), req.firstName(), req.lastName(), User.normalizeRole(req.role()), req.phone()));
+        }
+        insert(users);
+
+        for (int i = 0; i < users.size(); i++) {
+            int index = toCreateIndexes.get(i);
+            results[index] = new BulkRegisterResult(index, users.get(i).getEmail(), CREATED, users.get(i).getId(), null);
+        }
+        return new BulkRegisterResponse(users.size(), requests.size() - users.size(), Arrays.asList(results));
+    }
+
+    private String validate(RegisterRequest req) {
+        if (req == null) {
+            return "Row is empty";
+        }
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(req);
+        if (violations.isEmpty()) {
+            String role = User.normalizeRole(req.role());
+            if (role == null) {
+                return "role must not be blank";
+            }
+            return allowedRoles.contains(role) ? null : "role " + role + " cannot be assigned in bulk";
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(emails);
+        for (int from = 0; from < all.size(); from += lookupChunkSize) {
+            existing.addAll(userRepository.findExistingEmails(all.subList(from, Math.min(all.size(), from + lookupChunkSize))));
+        }
+        return existing;
+    }
+
+    private void insert(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < users.size(); i++) {
+                entityManager.persist(users.get(i));
+                if ((i + 1) % flushSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.patientrecordsystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link TokenVerifier} that remembers tokens already verified by {@link JwtService}.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the token, so the cache never holds raw
+ * bearer tokens and keys have a fixed size. A hit skips the HMAC check and claims
+ * parsing entirely. Each entry expires at the earlier of the token's {@code exp} and the
+ * configured maximum TTL, and a hit is re-checked against {@code exp} before it is
+ * returned, so an expired token is never served. Failed verifications are not cached.
+ *
+ * <p>Hit and miss counts are published as {@code cache.*} meters tagged
+ * {@code cache=verified-tokens}.
+ */
+@Service
+public class VerifiedTokenCache implements TokenVerifier, MeterBinder {
+
+    private static final String CACHE_NAME = "verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final JwtService jwtService;
+    private final Cache<ByteBuffer, JwtClaims> cache;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              @Value("${jwt.verified-cache.max-size:50000}") long maxSize,
+                              @Value("${jwt.verified-cache.max-ttl-seconds:900}") long maxTtlSeconds) {
+        this.jwtService = jwtService;
+        long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<ByteBuffer, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, JwtClaims claims, long currentTime) {
+                        if (claims.expiresAt() == null) {
+                            return maxTtlNanos;
+                        }
+                        long untilExpiry = Duration.between(Instant.now(), claims.expiresAt()).toNanos();
+                        return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public JwtClaims parse(String token) {
+        ByteBuffer key = digest(token);
+        JwtClaims claims = cache.getIfPresent(key);
+        if (claims != null) {
+            if (claims.expiresAt() == null || claims.expiresAt().isAfter(Instant.now())) {
+                return claims;
+            }
+            cache.invalidate(key);
+        }
+        claims = jwtService.parse(token);
+        cache.put(key, claims);
+        return claims;
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache since startup.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private static ByteBuffer digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
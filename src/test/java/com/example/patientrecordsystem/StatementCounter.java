@@ -0,0 +1,55 @@
+package com.example.patientrecordsystem;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the threads a test is measuring.
+ *
+ * <p>Hibernate's {@link org.hibernate.stat.Statistics} are shared by the whole test context,
+ * so scheduled tasks and background rebuilds running on other threads would be counted too.
+ * Registered through {@code hibernate.session_factory.statement_inspector} in the test
+ * properties.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final AtomicLong COUNT = new AtomicLong();
+    private static volatile Predicate<Thread> scope = thread -> false;
+
+    /**
+     * Starts counting statements prepared on the calling thread only.
+     */
+    public static void start() {
+        Thread caller = Thread.currentThread();
+        start(thread -> thread == caller);
+    }
+
+    /**
+     * Starts counting statements prepared on the threads matching {@code threads}.
+     *
+     * @param threads the threads to count
+     */
+    public static void start(Predicate<Thread> threads) {
+        scope = threads;
+        COUNT.set(0);
+    }
+
+    /**
+     * Returns the number of statements counted since the last {@code start}.
+     *
+     * @return the statement count
+     */
+    public static long count() {
+        return COUNT.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (scope.test(Thread.currentThread())) {
+            COUNT.incrementAndGet();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.patientrecordsystem.benchmark;
+
+import com.example.patientrecordsystem.service.Bm25Index;
+import com.example.patientrecordsystem.service.ClinicalNoteSearchService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures clinical note search against the in-memory {@link Bm25Index} used by
+ * {@link ClinicalNoteSearchService}.
+ *
+ * <p>The index holds {@code visits} synthetic notes of 10 to 50 words, spread over one
+ * patient per 10 visits and one doctor per 2,000. Words are drawn with a skewed
+ * distribution from a clinical vocabulary, so {@code pain} or {@code follow} appear in a
+ * large share of the notes, plus uncommon diagnoses found in about one note in a hundred
+ * and made-up words that keep the vocabulary realistic in size. {@code search} runs the query over all notes, {@code searchPatient} within one
+ * patient's notes. Only the index is measured; a search then loads at most {@code limit}
+ * rows by id.
+ *
+ * <p>Run with {@code mvn test-compile} followed by executing {@link #main(String[])}
+ * on the test classpath, with enough heap for the index (about 200 MB per million notes of 30 words,
+ * twice that while building).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class Bm25IndexBenchmark {
+
+    private static final String[] WORDS = {"pain", "follow", "up", "patient", "reports", "no", "history", "mild",
+            "left", "right", "chest", "cough", "fever", "headache", "blood", "pressure", "review", "medication",
+            "daily", "weeks", "days", "advised", "rest", "fluids", "chronic", "acute", "swelling", "knee", "back",
+            "nausea", "fatigue", "dizziness", "rash", "infection", "viral", "bacterial", "antibiotics", "dose",
+            "increase", "reduce", "diabetes", "glucose", "hypertension", "asthma", "inhaler", "wheezing",
+            "fracture", "xray", "referral", "cardiology", "ecg", "normal", "abnormal", "shortness", "breath",
+            "persistent", "intermittent", "sleep", "anxiety", "depression", "migraine", "allergy"};
+    private static final String[] DIAGNOSES = {"sarcoidosis", "gout", "cellulitis", "pleurisy", "shingles",
+            "anaemia", "tendinitis", "sinusitis", "vertigo", "psoriasis"};
+    private static final String[] SYLLABLES = {"an", "bel", "car", "da", "el", "fer", "gar", "han", "is", "jo",
+            "ka", "lin", "mar", "na", "ol", "per", "ri", "san", "ta", "vin", "wel", "son", "ton", "ber"};
+
+    @Param({"1000000"})
+    public int visits;
+
+    @Param({"cough", "persistent cough fever", "chest pain follow up", "sarcoidosis"})
+    public String query;
+
+    private Bm25Index index;
+    private UUID patientId;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new Bm25Index();
+        UUID[] doctors = new UUID[Math.max(1, visits / 2000)];
+        for (int i = 0; i < doctors.length; i++) {
+            doctors[i] = UUID.randomUUID();
+        }
+        UUID[] patients = new UUID[Math.max(1, visits / 10)];
+        for (int i = 0; i < patients.length; i++) {
+            patients[i] = UUID.randomUUID();
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < visits; i++) {
+            text.setLength(0);
+            for (int w = 10 + random.nextInt(41); w > 0; w--) {
+                text.append(word(random)).append(' ');
+            }
+            index.put(UUID.randomUUID(), "VISIT", patients[random.nextInt(patients.length)],
+                    doctors[random.nextInt(doctors.length)], text.toString());
+        }
+        patientId = patients[0];
+    }
+
+    @Benchmark
+    public List<Bm25Index.Hit> search() {
+        return index.search(query, null, null, 50);
+    }
+
+    @Benchmark
+    public List<Bm25Index.Hit> searchPatient() {
+        return index.search(query, patientId, null, 50);
+    }
+
+    private static String word(Random random) {
+        if (random.nextInt(400) == 0) {
+            return DIAGNOSES[random.nextInt(DIAGNOSES.length)];
+        }
+        if (random.nextInt(10) == 0) {
+            return SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)];
+        }
+        // skewed towards the start of the list, so early words are common and late ones rare
+        double skew = random.nextDouble();
+        return WORDS[(int) (skew * skew * skew * WORDS.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Bm25IndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
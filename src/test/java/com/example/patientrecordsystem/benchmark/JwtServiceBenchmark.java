@@ -0,0 +1,84 @@
+package com.example.patientrecordsystem.benchmark;
+
+import com.example.patientrecordsystem.service.JwtClaims;
+import com.example.patientrecordsystem.service.JwtService;
+import com.example.patientrecordsystem.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-token cost of JWT verification.
+ *
+ * <p>{@code legacy*} reproduces the previous behaviour of rebuilding the HMAC key and
+ * parser on every call and parsing the token once per extracted claim;
+ * {@code parseOnce} uses the shared parser in {@link JwtService} and {@code cachedParse}
+ * the {@link VerifiedTokenCache} in front of it, as used by the JWT filter.
+ *
+ * <p>Run with {@code mvn test-compile} followed by executing {@link #main(String[])}
+ * on the test classpath, or pass {@code -prof gc} through the JMH launcher to see
+ * allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, TimeUnit.HOURS.toMillis(1));
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, 1000, 900);
+        token = jwtService.generateToken("doctor@example.com", "DOCTOR");
+    }
+
+    @Benchmark
+    public void legacyExtractEmailAndRole(Blackhole bh) {
+        bh.consume(legacyParse(token).getSubject());
+        bh.consume(legacyParse(token).get("role", String.class));
+    }
+
+    @Benchmark
+    public String legacyExtractEmail() {
+        return legacyParse(token).getSubject();
+    }
+
+    @Benchmark
+    public JwtClaims parseOnce() {
+        return jwtService.parse(token);
+    }
+
+    @Benchmark
+    public JwtClaims cachedParse() {
+        return verifiedTokenCache.parse(token);
+    }
+
+    private Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
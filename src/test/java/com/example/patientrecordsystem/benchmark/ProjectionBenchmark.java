@@ -0,0 +1,142 @@
+package com.example.patientrecordsystem.benchmark;
+
+import com.example.patientrecordsystem.PatientRecordSystemApplication;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.entity.Department;
+import com.example.patientrecordsystem.entity.Doctor;
+import com.example.patientrecordsystem.entity.Patient;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.DepartmentRepository;
+import com.example.patientrecordsystem.repository.DoctorRepository;
+import com.example.patientrecordsystem.repository.PatientRepository;
+import com.example.patientrecordsystem.repository.UserRepository;
+import com.example.patientrecordsystem.service.KeysetPaginator;
+import com.example.patientrecordsystem.service.PatientService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares listing patients through entities against DTO projection queries.
+ *
+ * <p>{@code entityPage} reproduces the previous list path, which now only exists here: load
+ * a page of {@link Patient} entities, whose doctor, user and department associations are
+ * then batch-fetched, into the persistence context and map them in Java. {@code projectionPage} is the current
+ * {@link PatientService#list(String, Integer)}, which selects only the response columns.
+ * The application runs against the in-memory H2 database from the test properties,
+ * seeded with {@code patients} rows spread over a handful of doctors.
+ *
+ * <p>Run with {@code mvn test-compile} followed by executing {@link #main(String[])}
+ * on the test classpath; pass {@code -prof gc} through the JMH launcher to compare the
+ * allocation per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final int DOCTORS = 20;
+
+    @Param({"10000"})
+    public int patients;
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private PatientRepository patientRepository;
+    private KeysetPaginator paginator;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PatientRecordSystemApplication.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:projection-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "app.pagination.max-size=" + pageSize,
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+        patientService = context.getBean(PatientService.class);
+        patientRepository = context.getBean(PatientRepository.class);
+        paginator = context.getBean(KeysetPaginator.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponse<PatientResponse> entityPage() {
+        return readOnly.execute(status -> {
+            PageResponse<Patient> page = paginator.page(null, pageSize,
+                    limit -> entityManager.createQuery("select p from Patient p order by p.id", Patient.class)
+                            .setMaxResults(limit.max()).getResultList(),
+                    (after, limit) -> entityManager.createQuery(
+                                    "select p from Patient p where p.id > :after order by p.id", Patient.class)
+                            .setParameter("after", after).setMaxResults(limit.max()).getResultList(),
+                    Patient::getId);
+            return new PageResponse<>(page.items().stream().map(p -> new PatientResponse(p.getId(),
+                    p.getFirstName(), p.getLastName(), p.getNationalId(), p.getGender(), p.getPhone(),
+                    p.getPrimaryDoctor() != null ? p.getPrimaryDoctor().getId() : null,
+                    p.getDepartment() != null ? p.getDepartment().getId() : null)).toList(), page.nextCursor());
+        });
+    }
+
+    @Benchmark
+    public PageResponse<PatientResponse> projectionPage() {
+        return patientService.list(null, pageSize);
+    }
+
+    private void seed() {
+        Department department = context.getBean(DepartmentRepository.class)
+                .save(new Department("Benchmark", null, true));
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        DoctorRepository doctorRepository = context.getBean(DoctorRepository.class);
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            User user = userRepository.save(User.builder().email("doctor" + i + "@bench.test")
+                    .passwordHash("x").role("DOCTOR").build());
+            doctors.add(doctorRepository.save(Doctor.builder().user(user).department(department)
+                    .licenseNumber("LIC-" + i).isActive(true).build()));
+        }
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < patients; i++) {
+            batch.add(Patient.builder().firstName("First" + i).lastName("Last" + i).nationalId("NAT-" + i)
+                    .gender(i % 2 == 0 ? "F" : "M").phone("555-" + i)
+                    .primaryDoctor(doctors.get(i % DOCTORS)).department(department).build());
+            if (batch.size() == 1000) {
+                patientRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        patientRepository.saveAll(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.patientrecordsystem.benchmark;
+
+import com.example.patientrecordsystem.service.PatientSearchService;
+import com.example.patientrecordsystem.service.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures patient search against the in-memory {@link TrigramIndex} used by
+ * {@link PatientSearchService}.
+ *
+ * <p>The index holds {@code patients} synthetic patients whose names are built from a
+ * small syllable set, so common prefixes have long posting lists as real names do. The
+ * queries cover what a registration desk types: a one- and three-letter prefix, a full
+ * name, a misspelled name and a phone fragment. Only the index is measured; a search
+ * then loads at most {@code limit} rows by id.
+ *
+ * <p>Run with {@code mvn test-compile} followed by executing {@link #main(String[])}
+ * on the test classpath, with enough heap for the index (about 1 GB per million patients
+ * while building).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class TrigramIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "bel", "car", "da", "el", "fer", "gar", "han", "is", "jo",
+            "ka", "lin", "mar", "na", "ol", "per", "ri", "san", "ta", "vin", "wel", "son", "ton", "ber"};
+
+    @Param({"1000000"})
+    public int patients;
+
+    @Param({"j", "jos", "johnson", "jonhson", "5551234"})
+    public String query;
+
+    private TrigramIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        for (int i = 0; i < patients; i++) {
+            String text = name(random) + " " + name(random) + name(random) + " "
+                    + String.format("%010d", Math.floorMod(random.nextLong(), 10_000_000_000L))
+                    + " " + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36);
+            index.put(UUID.randomUUID(), text);
+        }
+        index.put(UUID.randomUUID(), "John Johnson 5551234567 ab99887");
+    }
+
+    @Benchmark
+    public List<UUID> search() {
+        return index.search(query, 20);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 1 + random.nextInt(2); i >= 0; i--) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrigramIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
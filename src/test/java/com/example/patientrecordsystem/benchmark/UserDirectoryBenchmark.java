@@ -0,0 +1,122 @@
+package com.example.patientrecordsystem.benchmark;
+
+import com.example.patientrecordsystem.PatientRecordSystemApplication;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.UserResponse;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import com.example.patientrecordsystem.service.UserDirectoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the staff directory search against the unexposed contains query it replaces.
+ *
+ * <p>{@code containsQuery} runs
+ * {@link UserRepository#findByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase},
+ * a {@code lower(...) like '%x%'} on both names that reads every row and returns every
+ * match. {@code prefixSearch} is {@link UserDirectoryService#search}, a range scan of
+ * {@code idx_users_last_name_key} that stops after one page. The application runs against
+ * an in-memory H2 database seeded with {@code users} rows whose names are built from a
+ * small syllable set, so a three-letter prefix matches a few thousand of them.
+ *
+ * <p>Run with {@code mvn test-compile} followed by executing {@link #main(String[])}
+ * on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDirectoryBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "bel", "car", "da", "el", "fer", "gar", "han", "is", "jo",
+            "ka", "lin", "mar", "na", "ol", "per", "ri", "san", "ta", "vin", "wel", "son", "ton", "ber"};
+
+    @Param({"200000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserDirectoryService userDirectoryService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PatientRecordSystemApplication.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:directory-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        userDirectoryService = context.getBean(UserDirectoryService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> containsQuery() {
+        return userRepository.findByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase("jo", "mar");
+    }
+
+    @Benchmark
+    public PageResponse<UserResponse> prefixSearch() {
+        return userDirectoryService.search("mar", "jo", null, 50);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String firstName = name(random);
+            String lastName = name(random);
+            batch.add(new Object[]{UUID.randomUUID(), "user" + i + "@bench.test", "x", firstName, lastName,
+                    User.nameKey(firstName), User.nameKey(lastName), "STAFF", now, now});
+            if (batch.size() == 5000) {
+                insert(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        insert(jdbcTemplate, batch);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into users (id, email, password_hash, first_name, last_name,"
+                + " first_name_key, last_name_key, role, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 1 + random.nextInt(2); i >= 0; i--) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserDirectoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.patientrecordsystem.config;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.ApiKeyCreateRequest;
+import com.example.patientrecordsystem.dto.ApiKeyResponse;
+import com.example.patientrecordsystem.dto.LoginRequest;
+import com.example.patientrecordsystem.dto.RegisterRequest;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import com.example.patientrecordsystem.service.ApiKeyService;
+import com.example.patientrecordsystem.service.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ApiKeyAuthFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApiKeyService apiKeyService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void me_WithCachedApiKey_ShouldNotQueryDatabase() throws Exception {
+        // Given
+        ApiKeyResponse key = apiKeyService.create(new ApiKeyCreateRequest("lab", "LAB"));
+        mockMvc.perform(get("/api/auth/me").header(ApiKeyAuthFilter.HEADER, key.key()))
+                .andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/me").header(ApiKeyAuthFilter.HEADER, key.key()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("LAB"));
+
+        assertThat(StatementCounter.count()).isZero();
+    }
+
+    @Test
+    void me_WithMalformedApiKey_ShouldNotQueryDatabase() throws Exception {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        for (String key : new String[]{"not-a-key", "prs_short", "prs_" + "a".repeat(42) + "!", "xyz_" + "a".repeat(43), "prs_" + "a".repeat(44)}) {
+            mockMvc.perform(get("/api/auth/me").header(ApiKeyAuthFilter.HEADER, key))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        assertThat(StatementCounter.count()).isZero();
+    }
+
+    @Test
+    void me_WithRevokedApiKey_ShouldBeUnauthorized() throws Exception {
+        // Given
+        ApiKeyResponse key = apiKeyService.create(new ApiKeyCreateRequest("billing", "BILLING"));
+        apiKeyService.revoke(key.id());
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/me").header(ApiKeyAuthFilter.HEADER, key.key()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void me_WithKeyLookedUpWhileRevocationCommits_ShouldBeUnauthorized() throws Exception {
+        // Given
+        ApiKeyResponse key = apiKeyService.create(new ApiKeyCreateRequest("pharmacy", "PHARMACY"));
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            apiKeyService.revoke(key.id());
+            assertThat(CompletableFuture.supplyAsync(() -> apiKeyService.authenticate(key.key())).join()).isPresent();
+        });
+
+        // Then
+        mockMvc.perform(get("/api/auth/me").header(ApiKeyAuthFilter.HEADER, key.key()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void create_WithUntrimmedLowerCaseRole_ShouldStoreNormalizedRole() {
+        // When
+        ApiKeyResponse key = apiKeyService.create(new ApiKeyCreateRequest("imaging", " imaging "));
+
+        // Then
+        assertThat(key.role()).isEqualTo("IMAGING");
+    }
+
+    @Test
+    void apiKeys_WithNonAdminToken_ShouldBeForbidden() throws Exception {
+        // Given
+        User user = new User("doctor@example.com", "hash", "Doc", "Tor", "DOCTOR", null);
+        user.setId(UUID.randomUUID());
+        String token = jwtService.generateToken(user);
+
+        // When & Then
+        mockMvc.perform(get("/api/api-keys").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void register_AsAdmin_ShouldNotGrantApiKeyAccess() throws Exception {
+        // Given
+        String email = UUID.randomUUID() + "@example.com";
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(registration(email, "ADMIN")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(registration(email, null)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.role").value("STAFF"));
+
+        mockMvc.perform(get("/api/api-keys").header("Authorization", "Bearer " + login(email)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void assignRole_ByAdmin_ShouldGrantAdminOnNextLogin() throws Exception {
+        // Given
+        String email = UUID.randomUUID() + "@example.com";
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(registration(email, null)))
+                .andExpect(status().isCreated());
+        User registered = userRepository.findByEmail(email).orElseThrow();
+        String staffToken = login(email);
+        User admin = userRepository.save(new User(UUID.randomUUID() + "@example.com", "hash", "Ad", "Min", User.ADMIN, null));
+
+        // When & Then
+        mockMvc.perform(put("/api/users/{id}/role", registered.getId())
+                        .header("Authorization", "Bearer " + staffToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\": \"ADMIN\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/users/{id}/role", registered.getId())
+                        .header("Authorization", "Bearer " + jwtService.generateToken(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\": \"admin\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value(User.ADMIN));
+
+        mockMvc.perform(get("/api/api-keys").header("Authorization", "Bearer " + login(email)))
+                .andExpect(status().isOk());
+    }
+
+    private String registration(String email, String role) throws Exception {
+        return objectMapper.writeValueAsString(new RegisterRequest(email, "secret-password", role, "Self", "Registered", null));
+    }
+
+    private String login(String email) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "secret-password"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        return json.get("accessToken").asText();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.patientrecordsystem.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_ShouldOnlyReportHashesBelowTheCost() {
+        // Given
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        // When & Then
+        assertThat(encoder.upgradeEncoding(new CalibratedBCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new CalibratedBCryptPasswordEncoder(6).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding("{noop}secret")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinTheBounds() {
+        // When
+        CalibratedBCryptPasswordEncoder fast = CalibratedBCryptPasswordEncoder.calibrate(1, 5, 12);
+        CalibratedBCryptPasswordEncoder slow = CalibratedBCryptPasswordEncoder.calibrate(1_000_000, 4, 6);
+        CalibratedBCryptPasswordEncoder clamped = CalibratedBCryptPasswordEncoder.calibrate(Long.MAX_VALUE, 1, 99);
+
+        // Then
+        assertThat(fast.getStrength()).isBetween(5, 12);
+        assertThat(slow.getStrength()).isEqualTo(6);
+        assertThat(clamped.getStrength()).isEqualTo(31);
+        assertThat(fast.matches("secret", fast.encode("secret"))).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.patientrecordsystem.config;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import com.example.patientrecordsystem.service.JwtService;
+import com.example.patientrecordsystem.service.UserDirectoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtAuthFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void me_WithSelfContainedToken_ShouldNotQueryDatabase() throws Exception {
+        // Given
+        User user = new User("jane@example.com", "hash", "Jane", "Doe", "DOCTOR", "555-0100");
+        user.setId(UUID.randomUUID());
+        String token = jwtService.generateToken(user);
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId().toString()))
+                .andExpect(jsonPath("$.firstName").value("Jane"))
+                .andExpect(jsonPath("$.role").value("DOCTOR"));
+
+        assertThat(StatementCounter.count()).isZero();
+    }
+
+    @Test
+    void me_WithLegacyToken_ShouldLoadPrincipalFromDatabase() throws Exception {
+        // Given
+        User user = userRepository.save(new User("legacy@example.com", "hash", "Leo", "Gacy", "NURSE", null));
+        String token = jwtService.generateToken(user.getEmail(), user.getRole());
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId().toString()))
+                .andExpect(jsonPath("$.lastName").value("Gacy"));
+    }
+
+    @Test
+    void me_WithInvalidToken_ShouldBeUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void me_AfterLogout_ShouldBeUnauthorizedWithoutQueryingDatabase() throws Exception {
+        // Given
+        User user = new User("logout@example.com", "hash", "Lou", "Gout", "PATIENT", null);
+        user.setId(UUID.randomUUID());
+        String token = jwtService.generateToken(user);
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(StatementCounter.count()).isZero();
+    }
+
+    @Test
+    void adminRoute_AfterDemotion_ShouldRejectOldToken() throws Exception {
+        // Given
+        User admin = userRepository.save(new User("demoted@example.com", "hash", "Dee", "Moted", "ADMIN", null));
+        String token = jwtService.generateToken(admin);
+        mockMvc.perform(get("/api/api-keys").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // When
+        userDirectoryService.assignRole(admin.getId(), "STAFF");
+
+        // Then
+        mockMvc.perform(get("/api/api-keys").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+}
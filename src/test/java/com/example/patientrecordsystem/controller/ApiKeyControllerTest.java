@@ -0,0 +1,86 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.ApiKeyCreateRequest;
+import com.example.patientrecordsystem.dto.ApiKeyResponse;
+import com.example.patientrecordsystem.service.ApiKeyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ApiKeyController.class)
+class ApiKeyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ApiKeyService apiKeyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final UUID keyId = UUID.randomUUID();
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void create_ShouldReturnRawKeyOnce() throws Exception {
+        // Given
+        ApiKeyCreateRequest request = new ApiKeyCreateRequest("lab-integration", "LAB");
+        ApiKeyResponse response = new ApiKeyResponse(keyId, "lab-integration", "LAB", true, Instant.now(), "prs_secret");
+        when(apiKeyService.create(any(ApiKeyCreateRequest.class))).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/api-keys")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(keyId.toString()))
+                .andExpect(jsonPath("$.key").value("prs_secret"));
+
+        verify(apiKeyService).create(any(ApiKeyCreateRequest.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void list_ShouldReturnKeysWithoutSecrets() throws Exception {
+        // Given
+        when(apiKeyService.list()).thenReturn(List.of(
+                new ApiKeyResponse(keyId, "billing", "BILLING", true, Instant.now(), null)));
+
+        // When & Then
+        mockMvc.perform(get("/api/api-keys"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("billing"))
+                .andExpect(jsonPath("$[0].key").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void revoke_ShouldRevokeKey() throws Exception {
+        // Given
+        doNothing().when(apiKeyService).revoke(keyId);
+
+        // When & Then
+        mockMvc.perform(delete("/api/api-keys/{id}", keyId).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(apiKeyService).revoke(keyId);
+    }
+}
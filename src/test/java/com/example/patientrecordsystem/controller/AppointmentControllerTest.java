@@ -2,6 +2,8 @@ package com.example.patientrecordsystem.controller;
 
 import com.example.patientrecordsystem.dto.AppointmentCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.AppointmentSearchCriteria;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.service.AppointmentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -48,16 +50,40 @@ class AppointmentControllerTest {
         List<AppointmentResponse> appointments = List.of(
                 new AppointmentResponse(appointmentId, patientId, doctorId, departmentId, appointmentDate, "Scheduled", "Checkup")
         );
-        when(appointmentService.list()).thenReturn(appointments);
+        when(appointmentService.list(null, null)).thenReturn(new PageResponse<>(appointments, null));
 
         // When & Then
         mockMvc.perform(get("/api/appointments"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].id").value(appointmentId.toString()));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(appointmentId.toString()));
 
-        verify(appointmentService).list();
+        verify(appointmentService).list(null, null);
+    }
+
+    @Test
+    @WithMockUser
+    void search_ShouldPassFiltersToService() throws Exception {
+        // Given
+        Instant from = Instant.parse("2030-01-01T00:00:00Z");
+        Instant to = Instant.parse("2030-01-02T00:00:00Z");
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria(doctorId, null, null, "SCHEDULED", from, to);
+        AppointmentResponse response = new AppointmentResponse(appointmentId, patientId, doctorId, departmentId, from, "SCHEDULED", null);
+        when(appointmentService.search(criteria, null, 20)).thenReturn(new PageResponse<>(List.of(response), "next"));
+
+        // When & Then
+        mockMvc.perform(get("/api/appointments/search")
+                        .param("doctorId", doctorId.toString())
+                        .param("status", "SCHEDULED")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(appointmentId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(appointmentService).search(criteria, null, 20);
     }
 
     @Test
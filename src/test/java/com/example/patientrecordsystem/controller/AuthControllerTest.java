@@ -0,0 +1,124 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.AuthResponse;
+import com.example.patientrecordsystem.dto.LoginRequest;
+import com.example.patientrecordsystem.dto.RefreshRequest;
+import com.example.patientrecordsystem.exception.ServiceBusyException;
+import com.example.patientrecordsystem.exception.TooManyRequestsException;
+import com.example.patientrecordsystem.service.AuthService;
+import com.example.patientrecordsystem.service.LoginRateLimiter;
+import com.example.patientrecordsystem.service.TokenRevocationService;
+import com.example.patientrecordsystem.service.UserProvisioningService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AuthController.class)
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser
+    void login_ShouldReturnToken() throws Exception {
+        // Given
+        LoginRequest request = new LoginRequest("john@example.com", "secret");
+        when(authService.login(any(LoginRequest.class))).thenReturn(new AuthResponse("token", "Bearer"));
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/login")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("token"))
+                .andExpect(jsonPath("$.tokenType").value("Bearer"));
+
+        verify(authService).login(any(LoginRequest.class));
+    }
+
+    @Test
+    @WithMockUser
+    void login_WhenHashingSaturated_ShouldReturnServiceUnavailable() throws Exception {
+        // Given
+        LoginRequest request = new LoginRequest("john@example.com", "secret");
+        when(authService.login(any(LoginRequest.class))).thenThrow(new ServiceBusyException("busy", 2));
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/login")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    @WithMockUser
+    void login_WhenThrottled_ShouldReturnTooManyRequestsWithoutAuthenticating() throws Exception {
+        // Given
+        LoginRequest request = new LoginRequest("john@example.com", "secret");
+        doThrow(new TooManyRequestsException("slow down", 30))
+                .when(loginRateLimiter).check(eq("john@example.com"), anyString());
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/login")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    @WithMockUser
+    void refresh_ShouldReturnNewTokenPair() throws Exception {
+        // Given
+        RefreshRequest request = new RefreshRequest("old-refresh");
+        when(authService.refresh(any(RefreshRequest.class)))
+                .thenReturn(new AuthResponse("access", "Bearer", "new-refresh", 900L));
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/refresh")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("access"))
+                .andExpect(jsonPath("$.refreshToken").value("new-refresh"))
+                .andExpect(jsonPath("$.expiresIn").value(900));
+
+        verifyNoInteractions(loginRateLimiter);
+    }
+}
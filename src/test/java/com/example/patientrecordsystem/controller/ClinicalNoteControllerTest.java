@@ -0,0 +1,70 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.ClinicalNoteHit;
+import com.example.patientrecordsystem.dto.PatientVisitResponse;
+import com.example.patientrecordsystem.service.ClinicalNoteSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ClinicalNoteController.class)
+class ClinicalNoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ClinicalNoteSearchService clinicalNoteSearchService;
+
+    private final UUID visitId = UUID.randomUUID();
+    private final UUID patientId = UUID.randomUUID();
+    private final UUID doctorId = UUID.randomUUID();
+
+    @Test
+    @WithMockUser
+    void search_ShouldReturnRankedHits() throws Exception {
+        // Given
+        PatientVisitResponse visit = new PatientVisitResponse(visitId, patientId, doctorId,
+                Instant.parse("2030-01-01T09:00:00Z"), "Dry cough", null, null, null);
+        when(clinicalNoteSearchService.search("cough", patientId, null, 10))
+                .thenReturn(List.of(new ClinicalNoteHit("VISIT", visitId, 1.5, visit)));
+
+        // When & Then
+        mockMvc.perform(get("/api/clinical-notes/search")
+                        .param("q", "cough")
+                        .param("patientId", patientId.toString())
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].type").value("VISIT"))
+                .andExpect(jsonPath("$[0].id").value(visitId.toString()))
+                .andExpect(jsonPath("$[0].score").value(1.5))
+                .andExpect(jsonPath("$[0].data.symptoms").value("Dry cough"));
+
+        verify(clinicalNoteSearchService).search("cough", patientId, null, 10);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rebuild_ShouldStartInTheBackgroundAndReturnAccepted() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/clinical-notes/rebuild").with(csrf()))
+                .andExpect(status().isAccepted());
+
+        verify(clinicalNoteSearchService).rebuildInBackground();
+    }
+}
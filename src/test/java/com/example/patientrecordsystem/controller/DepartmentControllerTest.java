@@ -2,6 +2,7 @@ package com.example.patientrecordsystem.controller;
 
 import com.example.patientrecordsystem.dto.DepartmentCreateRequest;
 import com.example.patientrecordsystem.dto.DepartmentResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.service.DepartmentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -63,16 +64,16 @@ class DepartmentControllerTest {
         List<DepartmentResponse> departments = List.of(
                 new DepartmentResponse(departmentId, "Cardiology", "Heart department", true)
         );
-        when(departmentService.list()).thenReturn(departments);
+        when(departmentService.list(null, null)).thenReturn(new PageResponse<>(departments, null));
 
         // When & Then
         mockMvc.perform(get("/api/departments"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].name").value("Cardiology"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Cardiology"));
 
-        verify(departmentService).list();
+        verify(departmentService).list(null, null);
     }
 
     @Test
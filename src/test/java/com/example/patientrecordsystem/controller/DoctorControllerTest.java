@@ -2,6 +2,7 @@ package com.example.patientrecordsystem.controller;
 
 import com.example.patientrecordsystem.dto.DoctorCreateRequest;
 import com.example.patientrecordsystem.dto.DoctorResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.service.DoctorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -68,16 +69,16 @@ class DoctorControllerTest {
         List<DoctorResponse> doctors = List.of(
                 new DoctorResponse(doctorId, userId, departmentId, "LIC123", "Cardiology", true)
         );
-        when(doctorService.list()).thenReturn(doctors);
+        when(doctorService.list(null, null)).thenReturn(new PageResponse<>(doctors, null));
 
         // When & Then
         mockMvc.perform(get("/api/doctors"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].specialization").value("Cardiology"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].specialization").value("Cardiology"));
 
-        verify(doctorService).list();
+        verify(doctorService).list(null, null);
     }
 
     @Test
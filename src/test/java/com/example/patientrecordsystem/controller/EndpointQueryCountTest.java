@@ -0,0 +1,409 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.entity.*;
+import com.example.patientrecordsystem.repository.*;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class EndpointQueryCountTest {
+
+    private static final int DOCTORS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientVisitRepository visitRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private MedicalRecordRepository recordRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/appointments", "/api/departments", "/api/doctors", "/api/patients",
+            "/api/prescriptions", "/api/records", "/api/visits"})
+    void list_ShouldCostOneStatementWhateverThePageSize(String path) throws Exception {
+        // Given
+        seed(3);
+        long small = statementsFor(path + "?limit=100");
+        clear();
+        seed(30);
+
+        // When
+        long large = statementsFor(path + "?limit=100");
+
+        // Then
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void get_ShouldCostOneStatement() throws Exception {
+        // Given
+        Map<String, UUID> ids = seed(3);
+
+        // When & Then
+        for (Map.Entry<String, UUID> entry : ids.entrySet()) {
+            assertThat(statementsFor(entry.getKey() + "/" + entry.getValue())).as(entry.getKey()).isEqualTo(1);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/api/appointments, status", "/api/departments, name", "/api/doctors, departmentId",
+            "/api/patients, doctorId", "/api/prescriptions, medicationName", "/api/records, recordType",
+            "/api/visits, patientId"})
+    void list_WithFields_ShouldReturnOnlyThoseFieldsWithoutLoadingEntities(String path, String field) throws Exception {
+        // Given
+        seed(5);
+        Statistics statistics = statistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        mockMvc.perform(get(path).param("fields", field).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0]", aMapWithSize(2)))
+                .andExpect(jsonPath("$.items[0]", hasKey("id")))
+                .andExpect(jsonPath("$.items[0]", hasKey(field)))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void list_WithFields_ShouldWalkTheSamePagesAsFullResponses() throws Exception {
+        // Given
+        seed(5);
+        List<UUID> ids = new ArrayList<>();
+
+        // When
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/prescriptions").param("fields", "medicationName").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            List<String> page = JsonPath.read(body, "$.items[*].id");
+            page.forEach(id -> ids.add(UUID.fromString(id)));
+            cursor = JsonPath.read(body, "$.nextCursor");
+        } while (cursor != null);
+
+        // Then
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(idsOf("/api/prescriptions"));
+    }
+
+    @Test
+    void get_WithFields_ShouldKeepRowsWithoutOptionalAssociations() throws Exception {
+        // Given
+        Patient patient = patientRepository.save(Patient.builder().firstName("Sparse").lastName("Fields")
+                .nationalId("SF-" + UUID.randomUUID()).build());
+        Statistics statistics = statistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/" + patient.getId()).param("fields", "lastName,doctorId,departmentId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", aMapWithSize(4)))
+                .andExpect(jsonPath("$.id").value(patient.getId().toString()))
+                .andExpect(jsonPath("$.lastName").value("Fields"))
+                .andExpect(jsonPath("$.doctorId").value(nullValue()));
+
+        assertThat(StatementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        // Given
+        Map<String, UUID> ids = seed(3);
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/" + ids.get("/api/patients")).param("fields", "lastName,passwordHash"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/appointments", "/api/departments", "/api/doctors", "/api/patients",
+            "/api/prescriptions", "/api/records", "/api/visits"})
+    void batchGet_ShouldCostOneStatementAndKeepRequestOrder(String path) throws Exception {
+        // Given
+        seed(5);
+        List<UUID> existing = idsOf(path);
+        UUID unknown = UUID.randomUUID();
+        List<UUID> ids = List.of(existing.get(2), unknown, existing.get(0), existing.get(2));
+        Statistics statistics = statistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        mockMvc.perform(post(path + "/batch-get").contentType(MediaType.APPLICATION_JSON).content(idsJson(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(existing.get(2).toString()))
+                .andExpect(jsonPath("$.items[1].id").value(existing.get(0).toString()))
+                .andExpect(jsonPath("$.missing.length()").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(unknown.toString()));
+
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void batchGet_ShouldChunkLargeRequests() throws Exception {
+        // Given
+        seed(30);
+        List<UUID> ids = new ArrayList<>(idsOf("/api/patients"));
+        int existing = ids.size();
+        while (ids.size() < 1200) {
+            ids.add(UUID.randomUUID());
+        }
+        Statistics statistics = statistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then: chunks of 500, 500 and 200 ids
+        mockMvc.perform(post("/api/patients/batch-get").contentType(MediaType.APPLICATION_JSON).content(idsJson(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(existing))
+                .andExpect(jsonPath("$.missing.length()").value(1200 - existing));
+
+        assertThat(StatementCounter.count()).isEqualTo(3);
+    }
+
+    @Test
+    void batchGet_WithoutIds_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/patients/batch-get").contentType(MediaType.APPLICATION_JSON).content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void associationsOfAnEntityPage_ShouldBeBatchFetched() {
+        // Given
+        seed(30);
+        Statistics statistics = statistics();
+        statistics.clear();
+        StatementCounter.start();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // When
+        readOnly.executeWithoutResult(status -> entityManager
+                .createQuery("select a from Appointment a order by a.id", Appointment.class).setMaxResults(30)
+                .getResultList().forEach(a -> {
+                    assertThat(a.getDoctor().getLicenseNumber()).isNotNull();
+                    assertThat(a.getDoctor().getUser().getEmail()).isNotNull();
+                }));
+
+        // Then: appointments, then one IN query for the doctors and one for their users
+        assertThat(StatementCounter.count()).isEqualTo(3);
+    }
+
+    @Test
+    void create_ShouldResolveReferencesWithoutSelecting() throws Exception {
+        // Given
+        seed(1);
+        Appointment existing = appointmentRepository.findAll().get(0);
+        String body = appointmentJson(existing.getPatient().getId(), existing.getDoctor().getId(),
+                existing.getDepartment().getId());
+        Statistics statistics = statistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    void create_WithUnknownReference_ShouldReturnNotFound(CapturedOutput output) throws Exception {
+        // Given
+        seed(1);
+        Appointment existing = appointmentRepository.findAll().get(0);
+        String body = appointmentJson(UUID.randomUUID(), existing.getDoctor().getId(),
+                existing.getDepartment().getId());
+
+        // When & Then
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Patient not found"));
+        assertThat(output.getOut()).contains("Resource not found: Patient not found")
+                .doesNotContain("SqlExceptionHelper").doesNotContain("Data integrity violation");
+        assertThat(appointmentRepository.count()).isEqualTo(1);
+    }
+
+    private static String appointmentJson(UUID patientId, UUID doctorId, UUID departmentId) {
+        return """
+                {"patientId": "%s", "doctorId": "%s", "departmentId": "%s",
+                 "appointmentDate": "2030-01-01T09:00:00Z", "status": "SCHEDULED"}
+                """.formatted(patientId, doctorId, departmentId);
+    }
+
+    private static String idsJson(List<UUID> ids) {
+        return ids.stream().map(id -> "\"" + id + "\"")
+                .collect(Collectors.joining(", ", "{\"ids\": [", "]}"));
+    }
+
+    private List<UUID> idsOf(String path) {
+        List<UUID> ids = switch (path) {
+            case "/api/appointments" -> appointmentRepository.findAll().stream().map(Appointment::getId).toList();
+            case "/api/departments" -> departmentRepository.findAll().stream().map(Department::getId).toList();
+            case "/api/doctors" -> doctorRepository.findAll().stream().map(Doctor::getId).toList();
+            case "/api/patients" -> patientRepository.findAll().stream().map(Patient::getId).toList();
+            case "/api/prescriptions" -> prescriptionRepository.findAll().stream().map(Prescription::getId).toList();
+            case "/api/records" -> recordRepository.findAll().stream().map(MedicalRecord::getId).toList();
+            case "/api/visits" -> visitRepository.findAll().stream().map(PatientVisit::getId).toList();
+            default -> throw new IllegalArgumentException(path);
+        };
+        assertThat(ids).hasSizeGreaterThanOrEqualTo(3);
+        return ids;
+    }
+
+    private long statementsFor(String uri) throws Exception {
+        Statistics statistics = statistics();
+        statistics.clear();
+        StatementCounter.start();
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+        return StatementCounter.count();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Map<String, UUID> seed(int rows) {
+        List<Department> departments = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            departments.add(new Department("Query count " + i, null, true));
+        }
+        departmentRepository.saveAll(departments);
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            User user = userRepository.save(User.builder().email(UUID.randomUUID() + "@query-count.test")
+                    .passwordHash("x").role("DOCTOR").build());
+            userIds.add(user.getId());
+            doctors.add(Doctor.builder().user(user).department(departments.get(i % rows))
+                    .licenseNumber("QC-" + UUID.randomUUID()).isActive(true).build());
+        }
+        doctorRepository.saveAll(doctors);
+        List<Patient> patients = new ArrayList<>();
+        List<Appointment> appointments = new ArrayList<>();
+        List<PatientVisit> visits = new ArrayList<>();
+        List<Prescription> prescriptions = new ArrayList<>();
+        List<MedicalRecord> records = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Doctor doctor = doctors.get(i % DOCTORS);
+            Department department = departments.get(i);
+            Patient patient = Patient.builder().firstName("Query").lastName("Count " + i)
+                    .nationalId("QC-" + UUID.randomUUID()).primaryDoctor(doctor).department(department).build();
+            patients.add(patient);
+            appointments.add(Appointment.builder().patient(patient).doctor(doctor).department(department)
+                    .appointmentDate(Instant.now()).status("SCHEDULED").build());
+            visits.add(PatientVisit.builder().patient(patient).doctor(doctor).visitDate(Instant.now()).build());
+            prescriptions.add(Prescription.builder().patient(patient).doctor(doctor).medicationName("Drug " + i).build());
+            records.add(MedicalRecord.builder().patient(patient).doctor(doctor).recordType("NOTE").build());
+        }
+        patientRepository.saveAll(patients);
+        appointmentRepository.saveAll(appointments);
+        visitRepository.saveAll(visits);
+        prescriptionRepository.saveAll(prescriptions);
+        recordRepository.saveAll(records);
+        return Map.of(
+                "/api/appointments", appointments.get(0).getId(),
+                "/api/patients", patients.get(0).getId(),
+                "/api/prescriptions", prescriptions.get(0).getId(),
+                "/api/records", records.get(0).getId(),
+                "/api/visits", visits.get(0).getId());
+    }
+
+    private void clear() {
+        appointmentRepository.deleteAllInBatch();
+        visitRepository.deleteAllInBatch();
+        prescriptionRepository.deleteAllInBatch();
+        recordRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+        userRepository.deleteAllByIdInBatch(userIds);
+        userIds.clear();
+    }
+}
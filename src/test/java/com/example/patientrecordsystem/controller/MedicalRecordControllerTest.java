@@ -2,6 +2,7 @@ package com.example.patientrecordsystem.controller;
 
 import com.example.patientrecordsystem.dto.MedicalRecordCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.MedicalRecordResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.service.MedicalRecordService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -45,16 +46,16 @@ class MedicalRecordControllerTest {
         List<MedicalRecordResponse> records = List.of(
                 new MedicalRecordResponse(recordId, patientId, doctorId, "Diagnosis", "Patient has flu", "attachment.pdf")
         );
-        when(recordService.list()).thenReturn(records);
+        when(recordService.list(null, null)).thenReturn(new PageResponse<>(records, null));
 
         // When & Then
         mockMvc.perform(get("/api/records"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].recordType").value("Diagnosis"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].recordType").value("Diagnosis"));
 
-        verify(recordService).list();
+        verify(recordService).list(null, null);
     }
 
     @Test
@@ -1,8 +1,12 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PatientCreateRequest;
 import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.dto.TimelineEntry;
+import com.example.patientrecordsystem.service.PatientSearchService;
 import com.example.patientrecordsystem.service.PatientService;
+import com.example.patientrecordsystem.service.PatientTimelineService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +16,13 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +41,12 @@ class PatientControllerTest {
     @MockBean
     private PatientService patientService;
 
+    @MockBean
+    private PatientTimelineService patientTimelineService;
+
+    @MockBean
+    private PatientSearchService patientSearchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -46,16 +61,51 @@ class PatientControllerTest {
         List<PatientResponse> patients = List.of(
                 new PatientResponse(patientId, "John", "Doe", "123456789", "Male", "1234567890", doctorId, departmentId)
         );
-        when(patientService.list()).thenReturn(patients);
+        when(patientService.list(null, null)).thenReturn(new PageResponse<>(patients, null));
 
         // When & Then
         mockMvc.perform(get("/api/patients"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].firstName").value("John"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].firstName").value("John"));
 
-        verify(patientService).list();
+        verify(patientService).list(null, null);
+    }
+
+    @Test
+    @WithMockUser
+    void list_WithFields_ShouldReturnOnlySelectedFields() throws Exception {
+        // Given
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", patientId);
+        row.put("lastName", "Doe");
+        when(patientService.list(null, null, "lastName")).thenReturn(new PageResponse<>(List.of(row), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/patients").param("fields", "lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$.items[0].firstName").doesNotExist());
+
+        verify(patientService).list(null, null, "lastName");
+    }
+
+    @Test
+    @WithMockUser
+    void export_ShouldStreamNdjson() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"firstName\":\"John\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(patientService).export(any(OutputStream.class));
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"firstName\":\"John\"}\n"));
     }
 
     @Test
@@ -75,6 +125,44 @@ class PatientControllerTest {
         verify(patientService).get(patientId);
     }
 
+    @Test
+    @WithMockUser
+    void timeline_ShouldReturnPageOfEntries() throws Exception {
+        // Given
+        UUID visitId = UUID.randomUUID();
+        List<TimelineEntry> entries = List.of(
+                new TimelineEntry("VISIT", visitId, Instant.parse("2030-01-02T09:00:00Z"), doctorId, "Flu", "Fever")
+        );
+        when(patientTimelineService.timeline(patientId, "abc", 20)).thenReturn(new PageResponse<>(entries, "next"));
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/{id}/timeline", patientId).param("cursor", "abc").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].type").value("VISIT"))
+                .andExpect(jsonPath("$.items[0].id").value(visitId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(patientTimelineService).timeline(patientId, "abc", 20);
+    }
+
+    @Test
+    @WithMockUser
+    void search_ShouldReturnRankedPatients() throws Exception {
+        // Given
+        List<PatientResponse> patients = List.of(
+                new PatientResponse(patientId, "John", "Doe", "123456789", "Male", "1234567890", doctorId, departmentId)
+        );
+        when(patientSearchService.search("joh", 5)).thenReturn(patients);
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/search").param("q", "joh").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(patientId.toString()));
+
+        verify(patientSearchService).search("joh", 5);
+    }
+
     @Test
     @WithMockUser
     void create_ShouldCreatePatient() throws Exception {
@@ -1,5 +1,6 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PatientVisitCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.PatientVisitResponse;
 import com.example.patientrecordsystem.service.PatientVisitService;
@@ -47,16 +48,16 @@ class PatientVisitControllerTest {
         List<PatientVisitResponse> visits = List.of(
                 new PatientVisitResponse(visitId, patientId, doctorId, visitDate, "Cough", "Cold", "Rest", "Notes")
         );
-        when(visitService.list()).thenReturn(visits);
+        when(visitService.list(null, null)).thenReturn(new PageResponse<>(visits, null));
 
         // When & Then
         mockMvc.perform(get("/api/visits"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].symptoms").value("Cough"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].symptoms").value("Cough"));
 
-        verify(visitService).list();
+        verify(visitService).list(null, null);
     }
 
     @Test
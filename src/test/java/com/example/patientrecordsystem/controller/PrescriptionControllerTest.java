@@ -1,5 +1,8 @@
 package com.example.patientrecordsystem.controller;
 
+import com.example.patientrecordsystem.dto.BatchGetRequest;
+import com.example.patientrecordsystem.dto.BatchGetResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
 import com.example.patientrecordsystem.dto.PrescriptionCreateOrUpdateRequest;
 import com.example.patientrecordsystem.dto.PrescriptionResponse;
 import com.example.patientrecordsystem.service.PrescriptionService;
@@ -47,16 +50,37 @@ class PrescriptionControllerTest {
         List<PrescriptionResponse> prescriptions = List.of(
                 new PrescriptionResponse(prescriptionId, patientId, doctorId, "Aspirin", "100mg", "Twice daily", "7 days", "Take with food", issuedAt)
         );
-        when(prescriptionService.list()).thenReturn(prescriptions);
+        when(prescriptionService.list(null, null)).thenReturn(new PageResponse<>(prescriptions, null));
 
         // When & Then
         mockMvc.perform(get("/api/prescriptions"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].medicationName").value("Aspirin"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].medicationName").value("Aspirin"));
 
-        verify(prescriptionService).list();
+        verify(prescriptionService).list(null, null);
+    }
+
+    @Test
+    @WithMockUser
+    void batchGet_ShouldReturnFoundAndMissing() throws Exception {
+        // Given
+        UUID missingId = UUID.randomUUID();
+        PrescriptionResponse response = new PrescriptionResponse(prescriptionId, patientId, doctorId, "Aspirin", "100mg", "Twice daily", "7 days", "Take with food", issuedAt);
+        when(prescriptionService.batchGet(List.of(prescriptionId, missingId)))
+                .thenReturn(new BatchGetResponse<>(List.of(response), List.of(missingId)));
+
+        // When & Then
+        mockMvc.perform(post("/api/prescriptions/batch-get")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchGetRequest(List.of(prescriptionId, missingId)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(prescriptionId.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+
+        verify(prescriptionService).batchGet(List.of(prescriptionId, missingId));
     }
 
     @Test
@@ -0,0 +1,66 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.SyncChange;
+import com.example.patientrecordsystem.dto.SyncResponse;
+import com.example.patientrecordsystem.service.SyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SyncController.class)
+class SyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SyncService syncService;
+
+    private final UUID patientId = UUID.randomUUID();
+
+    @Test
+    @WithMockUser
+    void sync_ShouldReturnChangesSinceCursor() throws Exception {
+        // Given
+        List<SyncChange> changes = List.of(
+                new SyncChange("PATIENT", patientId, true, Instant.parse("2030-01-01T09:00:00Z"), null)
+        );
+        when(syncService.changes("abc", 100)).thenReturn(new SyncResponse(changes, "next", false));
+
+        // When & Then
+        mockMvc.perform(get("/api/sync").param("since", "abc").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.changes[0].type").value("PATIENT"))
+                .andExpect(jsonPath("$.changes[0].id").value(patientId.toString()))
+                .andExpect(jsonPath("$.changes[0].deleted").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        verify(syncService).changes("abc", 100);
+    }
+
+    @Test
+    @WithMockUser
+    void sync_WithExpiredCursor_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(syncService.changes("old", null))
+                .thenThrow(new IllegalArgumentException("Sync cursor has expired; sync again without it"));
+
+        // When & Then
+        mockMvc.perform(get("/api/sync").param("since", "old"))
+                .andExpect(status().isBadRequest());
+    }
+}
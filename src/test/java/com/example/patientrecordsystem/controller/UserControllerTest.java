@@ -0,0 +1,83 @@
+package com.example.patientrecordsystem.controller;
+
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.UserResponse;
+import com.example.patientrecordsystem.service.UserDirectoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserController.class)
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserDirectoryService userDirectoryService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    @WithMockUser
+    void search_ShouldReturnPageOfUsers() throws Exception {
+        // Given
+        List<UserResponse> users = List.of(
+                new UserResponse(userId, "jane@example.com", "Jane", "Smith", "DOCTOR", "555-0100")
+        );
+        when(userDirectoryService.search("smi", "ja", null, 10)).thenReturn(new PageResponse<>(users, "next"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/search").param("lastName", "smi").param("firstName", "ja").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].id").value(userId.toString()))
+                .andExpect(jsonPath("$.items[0].lastName").value("Smith"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(userDirectoryService).search("smi", "ja", null, 10);
+    }
+
+    @Test
+    @WithMockUser
+    void search_WithoutName_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(userDirectoryService.search(null, null, null, null))
+                .thenThrow(new IllegalArgumentException("lastName or firstName is required"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void assignRole_ShouldReturnUpdatedUser() throws Exception {
+        // Given
+        when(userDirectoryService.assignRole(userId, "DOCTOR"))
+                .thenReturn(new UserResponse(userId, "jane@example.com", "Jane", "Smith", "DOCTOR", null));
+
+        // When & Then
+        mockMvc.perform(put("/api/users/{id}/role", userId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\": \"DOCTOR\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("DOCTOR"));
+
+        verify(userDirectoryService).assignRole(userId, "DOCTOR");
+    }
+}
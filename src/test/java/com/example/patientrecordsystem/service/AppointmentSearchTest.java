@@ -0,0 +1,164 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.AppointmentResponse;
+import com.example.patientrecordsystem.dto.AppointmentSearchCriteria;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.entity.*;
+import com.example.patientrecordsystem.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AppointmentSearchTest {
+
+    private static final Instant DAY = Instant.parse("2030-03-01T00:00:00Z");
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private Doctor doctor;
+    private Doctor otherDoctor;
+    private Department department;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        department = departmentRepository.save(new Department("Search", null, true));
+        doctor = doctor("SR-1");
+        otherDoctor = doctor("SR-2");
+        patient = patientRepository.save(Patient.builder().firstName("Search").lastName("Patient").nationalId("SR-1").build());
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            // two appointments per hour, so ordering within an hour falls back to the id
+            Instant at = DAY.plusSeconds(3600L * (i / 2));
+            appointments.add(Appointment.builder().patient(patient).doctor(i % 3 == 0 ? otherDoctor : doctor)
+                    .department(department).appointmentDate(at).status(i % 4 == 0 ? "CANCELLED" : "SCHEDULED").build());
+        }
+        appointments.add(Appointment.builder().patient(patient).doctor(doctor).department(department)
+                .appointmentDate(DAY.plusSeconds(86_400)).status("SCHEDULED").build());
+        appointmentRepository.saveAll(appointments);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+        userRepository.deleteAllByIdInBatch(userIds);
+        userIds.clear();
+    }
+
+    @Test
+    void search_ShouldWalkMatchingAppointmentsInDateOrder() {
+        // Given
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria(doctor.getId(), null, null, null,
+                DAY, DAY.plusSeconds(86_400));
+        List<AppointmentResponse> seen = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            PageResponse<AppointmentResponse> page = appointmentService.search(criteria, cursor, 3);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Then: the appointment exactly at "to" is excluded
+        assertThat(seen).hasSize(8);
+        assertThat(seen).extracting(AppointmentResponse::doctorId).containsOnly(doctor.getId());
+        assertThat(seen).extracting(AppointmentResponse::id).doesNotHaveDuplicates();
+        for (int i = 1; i < seen.size(); i++) {
+            assertThat(seen.get(i).appointmentDate()).isAfterOrEqualTo(seen.get(i - 1).appointmentDate());
+        }
+    }
+
+    @Test
+    void search_ShouldCombineFiltersInOneStatement() {
+        // Given
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria(null, patient.getId(), department.getId(),
+                "CANCELLED", null, null);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When
+        PageResponse<AppointmentResponse> page = appointmentService.search(criteria, null, null);
+
+        // Then
+        assertThat(page.items()).hasSize(3).extracting(AppointmentResponse::status).containsOnly("CANCELLED");
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void doctorDateRange_ShouldUseTheCompositeIndex() {
+        // When
+        String plan = jdbcTemplate.queryForObject("explain select id from appointments where doctor_id = ?"
+                + " and appointment_date >= ? and appointment_date < ? order by appointment_date, id",
+                String.class, doctor.getId(), DAY, DAY.plusSeconds(86_400));
+
+        // Then
+        assertThat(plan).containsIgnoringCase("idx_appointments_doctor_date");
+    }
+
+    @Test
+    void search_WithoutIndexedFilter_ShouldFail() {
+        assertThatThrownBy(() -> appointmentService.search(
+                new AppointmentSearchCriteria(null, null, null, "SCHEDULED", null, null), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void search_WithInvertedRange_ShouldFail() {
+        assertThatThrownBy(() -> appointmentService.search(
+                new AppointmentSearchCriteria(doctor.getId(), null, null, null, DAY.plusSeconds(1), DAY), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Doctor doctor(String license) {
+        User user = userRepository.save(User.builder().email(UUID.randomUUID() + "@search.test")
+                .passwordHash("x").role("DOCTOR").build());
+        userIds.add(user.getId());
+        return doctorRepository.save(Doctor.builder().user(user).department(department)
+                .licenseNumber(license + "-" + UUID.randomUUID()).isActive(true).build());
+    }
+}
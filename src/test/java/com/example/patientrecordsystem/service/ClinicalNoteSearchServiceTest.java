@@ -0,0 +1,245 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.ClinicalNoteHit;
+import com.example.patientrecordsystem.dto.MedicalRecordCreateOrUpdateRequest;
+import com.example.patientrecordsystem.dto.MedicalRecordResponse;
+import com.example.patientrecordsystem.dto.PatientVisitCreateOrUpdateRequest;
+import com.example.patientrecordsystem.dto.PatientVisitResponse;
+import com.example.patientrecordsystem.entity.*;
+import com.example.patientrecordsystem.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+class ClinicalNoteSearchServiceTest {
+
+    @Autowired
+    private ClinicalNoteSearchService clinicalNoteSearchService;
+
+    @Autowired
+    private PatientVisitService visitService;
+
+    @Autowired
+    private MedicalRecordService recordService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientVisitRepository visitRepository;
+
+    @Autowired
+    private MedicalRecordRepository recordRepository;
+
+    @Autowired
+    private DeletionTombstoneRepository tombstoneRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private Doctor doctor;
+    private Doctor otherDoctor;
+    private Patient patient;
+    private Patient otherPatient;
+
+    @BeforeEach
+    void setUp() {
+        Department department = departmentRepository.save(new Department("Notes", null, true));
+        doctor = doctor(department);
+        otherDoctor = doctor(department);
+        patient = patientRepository.save(Patient.builder().firstName("Ada").lastName("Lowe").nationalId("CN-1").build());
+        otherPatient = patientRepository.save(Patient.builder().firstName("Ben").lastName("Hart").nationalId("CN-2").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        visitRepository.deleteAllInBatch();
+        recordRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+        userRepository.deleteAllByIdInBatch(userIds);
+        userIds.clear();
+        clinicalNoteSearchService.rebuild();
+    }
+
+    @Test
+    void search_ShouldRankByRelevanceAndMatchWordForms() {
+        // Given
+        PatientVisitResponse shortVisit = visit(patient, doctor, "Dry cough", null);
+        PatientVisitResponse longVisit = visit(patient, doctor, "Persistent coughing with fever and fatigue for three days",
+                "Suspected viral infection");
+        MedicalRecordResponse record = record(patient, doctor, "Repeated coughs; chest x-ray clear");
+        visit(patient, doctor, "Sprained ankle", "Ligament strain");
+
+        // When
+        List<ClinicalNoteHit> results = clinicalNoteSearchService.search("coughs", null, null, null);
+
+        // Then
+        assertThat(results).extracting(ClinicalNoteHit::id).containsExactly(shortVisit.id(), record.id(), longVisit.id());
+        assertThat(results).extracting(ClinicalNoteHit::type).containsExactly("VISIT", "RECORD", "VISIT");
+        assertThat(results.get(1).data()).isEqualTo(record);
+        assertThat(results.get(0).score()).isGreaterThan(results.get(2).score());
+        assertThat(clinicalNoteSearchService.search("infections", null, null, null))
+                .extracting(ClinicalNoteHit::id).containsExactly(longVisit.id());
+        assertThat(clinicalNoteSearchService.search("the and of", null, null, null)).isEmpty();
+        assertThat(clinicalNoteSearchService.search("  ", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldFilterByPatientAndDoctor() {
+        // Given
+        PatientVisitResponse mine = visit(patient, doctor, "Migraine with aura", null);
+        PatientVisitResponse otherDoctors = visit(patient, otherDoctor, "Migraine", null);
+        PatientVisitResponse otherPatients = visit(otherPatient, doctor, "Migraine", null);
+
+        // When & Then
+        assertThat(clinicalNoteSearchService.search("migraine", patient.getId(), null, null))
+                .extracting(ClinicalNoteHit::id).containsExactlyInAnyOrder(mine.id(), otherDoctors.id());
+        assertThat(clinicalNoteSearchService.search("migraine", null, doctor.getId(), null))
+                .extracting(ClinicalNoteHit::id).containsExactlyInAnyOrder(mine.id(), otherPatients.id());
+        assertThat(clinicalNoteSearchService.search("migraine", patient.getId(), doctor.getId(), null))
+                .extracting(ClinicalNoteHit::id).containsExactly(mine.id());
+        assertThat(clinicalNoteSearchService.search("migraine", UUID.randomUUID(), null, null)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldFollowUpdatesAndDeletes() {
+        // Given
+        PatientVisitResponse visit = visit(patient, doctor, "Rash on forearm", null);
+        MedicalRecordResponse record = record(patient, doctor, "Allergy panel: penicillin");
+        MedicalRecordResponse otherRecord = record(otherPatient, doctor, "Allergy panel: latex");
+
+        // When
+        visitService.update(visit.id(), new PatientVisitCreateOrUpdateRequest(patient.getId(), doctor.getId(),
+                visit.visitDate(), "Eczema flare", null, null, null));
+        recordService.delete(record.id());
+
+        // Then
+        assertThat(clinicalNoteSearchService.search("rash", null, null, null)).isEmpty();
+        assertThat(clinicalNoteSearchService.search("eczema", null, null, null))
+                .extracting(ClinicalNoteHit::id).containsExactly(visit.id());
+        assertThat(clinicalNoteSearchService.search("allergy", null, null, null))
+                .extracting(ClinicalNoteHit::id).containsExactly(otherRecord.id());
+
+        // When
+        patientService.delete(otherPatient.getId());
+
+        // Then
+        assertThat(clinicalNoteSearchService.search("allergy", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldIgnoreRolledBackChanges() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            visit(patient, doctor, "Rolled back tremor", null);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(clinicalNoteSearchService.search("tremor", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void rebuild_ShouldPickUpRowsWrittenElsewhere() {
+        // Given
+        MedicalRecord record = recordRepository.save(MedicalRecord.builder().patient(patient).doctor(doctor)
+                .recordType("NOTE").description("Written by an import job").build());
+        assertThat(clinicalNoteSearchService.search("import", null, null, null)).isEmpty();
+
+        // When
+        clinicalNoteSearchService.rebuild();
+
+        // Then
+        assertThat(clinicalNoteSearchService.search("imported", null, null, null))
+                .extracting(ClinicalNoteHit::id).containsExactly(record.getId());
+    }
+
+    @Test
+    void rebuildInBackground_ShouldReturnAtOnceAndSwapInTheNewIndex() {
+        // Given
+        MedicalRecord record = recordRepository.save(MedicalRecord.builder().patient(patient).doctor(doctor)
+                .recordType("NOTE").description("Backfilled from the archive").build());
+
+        // When
+        clinicalNoteSearchService.rebuildInBackground();
+
+        // Then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(clinicalNoteSearchService.search("archive", null, null, null))
+                        .extracting(ClinicalNoteHit::id).containsExactly(record.getId()));
+    }
+
+    @Test
+    void search_ShouldCostOneStatementPerResultType() {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            visit(patient, doctor, "Hypertension follow-up " + i, null);
+            record(patient, doctor, "Hypertension medication review " + i);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When
+        List<ClinicalNoteHit> results = clinicalNoteSearchService.search("hypertension", patient.getId(), null, 8);
+
+        // Then
+        assertThat(results).hasSize(8);
+        assertThat(StatementCounter.count()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private Doctor doctor(Department department) {
+        User user = userRepository.save(User.builder().email(UUID.randomUUID() + "@notes.test")
+                .passwordHash("x").role("DOCTOR").build());
+        userIds.add(user.getId());
+        return doctorRepository.save(Doctor.builder().user(user).department(department)
+                .licenseNumber("CN-" + UUID.randomUUID()).isActive(true).build());
+    }
+
+    private PatientVisitResponse visit(Patient patient, Doctor doctor, String symptoms, String diagnosis) {
+        return visitService.create(new PatientVisitCreateOrUpdateRequest(patient.getId(), doctor.getId(),
+                Instant.parse("2030-01-01T09:00:00Z"), symptoms, diagnosis, null, null));
+    }
+
+    private MedicalRecordResponse record(Patient patient, Doctor doctor, String description) {
+        return recordService.create(new MedicalRecordCreateOrUpdateRequest(patient.getId(), doctor.getId(),
+                "NOTE", description, null));
+    }
+}
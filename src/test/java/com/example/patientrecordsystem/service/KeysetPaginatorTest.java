@@ -0,0 +1,79 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.DepartmentCreateRequest;
+import com.example.patientrecordsystem.dto.DepartmentResponse;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.repository.DepartmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.pagination.max-size=3")
+class KeysetPaginatorTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        departmentRepository.deleteAll();
+        for (int i = 0; i < 7; i++) {
+            departmentService.create(new DepartmentCreateRequest("Department " + i, null, true));
+        }
+    }
+
+    @Test
+    void list_ShouldWalkEveryRowOnceWithOneQueryPerPage() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        // When
+        do {
+            PageResponse<DepartmentResponse> page = departmentService.list(cursor, 100);
+            page.items().forEach(d -> seen.add(d.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+        assertThat(StatementCounter.count()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void list_WithMalformedCursor_ShouldFail() {
+        assertThatThrownBy(() -> departmentService.list("not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cursor_ShouldRoundTrip() {
+        UUID id = UUID.randomUUID();
+        assertThat(KeysetPaginator.decodeCursor(KeysetPaginator.encodeCursor(id))).isEqualTo(id);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.entity.Patient;
+import com.example.patientrecordsystem.repository.PatientRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class NdjsonExportTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void export_ShouldWriteOneJsonObjectPerLineWithoutLoadingEntities() throws Exception {
+        // Given
+        patientRepository.deleteAll();
+        for (int i = 0; i < 3; i++) {
+            patientRepository.save(Patient.builder().firstName("Export" + i).lastName("Patient").nationalId("EXP-" + i).build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        patientService.export(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        List<String> names = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            names.add(node.get("firstName").asText());
+        }
+        assertThat(names).containsExactlyInAnyOrder("Export0", "Export1", "Export2");
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n");
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void write_ShouldFlushAfterTheFirstRowAndThenEveryFlushRows() throws Exception {
+        // Given
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, 4);
+        int[] flushes = new int[1];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream out = new FilterOutputStream(bytes) {
+            @Override
+            public void flush() throws IOException {
+                flushes[0]++;
+                super.flush();
+            }
+        };
+
+        // When
+        long count = writer.write(IntStream.range(0, 10).mapToObj(i -> Map.of("row", i)), out);
+
+        // Then rows 1, 4 and 8, and once more when the generator is closed
+        assertThat(count).isEqualTo(10);
+        assertThat(flushes[0]).isEqualTo(4);
+        assertThat(bytes.toString(StandardCharsets.UTF_8).split("\n")).hasSize(10);
+    }
+}
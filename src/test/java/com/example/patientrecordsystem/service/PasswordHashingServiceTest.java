@@ -0,0 +1,88 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch started = new CountDownLatch(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void encodeAll_ShouldReturnHashesInInputOrder() {
+        // Given
+        release.countDown();
+        service = service(3, 16, 10_000);
+
+        // When
+        List<String> hashes = service.encodeAll(List.of("a", "b", "c", "d", "e", "f", "g"));
+
+        // Then
+        assertThat(hashes).containsExactly("hash:a", "hash:b", "hash:c", "hash:d", "hash:e", "hash:f", "hash:g");
+    }
+
+    @Test
+    void encodeAll_WhenTheBulkQueueIsFull_ShouldFailFast() throws Exception {
+        // Given two workers busy with one batch and room for one more task
+        service = service(2, 1, 10_000);
+        CompletableFuture<List<String>> running = CompletableFuture.supplyAsync(() -> service.encodeAll(List.of("a", "b")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When & Then
+        assertThatThrownBy(() -> service.encodeAll(List.of("c", "d"))).isInstanceOf(ServiceBusyException.class);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).containsExactly("hash:a", "hash:b");
+    }
+
+    @Test
+    void encodeAll_WhenTheBatchTimesOut_ShouldFail() {
+        // Given
+        service = service(2, 16, 50);
+
+        // When & Then
+        assertThatThrownBy(() -> service.encodeAll(List.of("a", "b", "c"))).isInstanceOf(ServiceBusyException.class);
+    }
+
+    private PasswordHashingService service(int bulkThreads, int bulkQueueCapacity, long bulkTimeoutMillis) {
+        return new PasswordHashingService(new BlockingEncoder(), new SimpleMeterRegistry(), 1, 1, 1_000, 2,
+                bulkThreads, bulkQueueCapacity, bulkTimeoutMillis, 0);
+    }
+
+    /** Hashes by prefixing, but only once {@link #release} is opened. */
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
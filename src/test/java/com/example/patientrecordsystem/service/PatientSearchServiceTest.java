@@ -0,0 +1,161 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.PatientCreateRequest;
+import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.entity.Patient;
+import com.example.patientrecordsystem.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PatientSearchServiceTest {
+
+    @Autowired
+    private PatientSearchService patientSearchService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAllInBatch();
+        patientSearchService.rebuild();
+    }
+
+    @Test
+    void search_ShouldRankPrefixMatchesFirst() {
+        // Given
+        PatientResponse johnson = create("Mary", "Johnson", "555-0100", "SR-100");
+        PatientResponse john = create("John", "Smith", "555-0101", "SR-101");
+        create("Anna", "Brown", "555-0102", "SR-102");
+
+        // When
+        List<PatientResponse> results = patientSearchService.search("john", null);
+
+        // Then
+        assertThat(results).extracting(PatientResponse::id).containsExactly(john.id(), johnson.id());
+    }
+
+    @Test
+    void search_ShouldTolerateTyposAndMatchPhoneAndNationalId() {
+        // Given
+        PatientResponse patient = create("Eleanor", "Johnson", "+1 (555) 123-4567", "AB-99887");
+        create("Anna", "Brown", "555-0102", "SR-102");
+
+        // When & Then
+        assertThat(patientSearchService.search("jonson", null)).extracting(PatientResponse::id).containsExactly(patient.id());
+        assertThat(patientSearchService.search("elanor", null)).extracting(PatientResponse::id).containsExactly(patient.id());
+        assertThat(patientSearchService.search("1234567", null)).extracting(PatientResponse::id).containsExactly(patient.id());
+        assertThat(patientSearchService.search("ab99887", null)).extracting(PatientResponse::id).containsExactly(patient.id());
+        assertThat(patientSearchService.search("  ", null)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldMatchNamesOutsideAscii() {
+        // Given
+        PatientResponse soren = create("S\u00f8ren", "M\u00fcller", "555-0110", "SR-110");
+        PatientResponse dorde = create("\u0110or\u0111e", "\u0110or\u0111evi\u0107", "555-0111", "SR-111");
+        PatientResponse ivan = create("\u0418\u0432\u0430\u043d", "\u041f\u0435\u0442\u0440\u043e\u0432", "555-0112", "SR-112");
+        PatientResponse eleni = create("\u0395\u03bb\u03ad\u03bd\u03b7", "\u03a0\u03b1\u03c0\u03b1\u03b4\u03ac\u03ba\u03b7", "555-0113", "SR-113");
+        create("Anna", "Brown", "555-0102", "SR-102");
+
+        // When & Then
+        assertThat(patientSearchService.search("soren muller", null)).extracting(PatientResponse::id).containsExactly(soren.id());
+        assertThat(patientSearchService.search("S\u00f8ren", null)).extracting(PatientResponse::id).containsExactly(soren.id());
+        assertThat(patientSearchService.search("dordevic", null)).extracting(PatientResponse::id).containsExactly(dorde.id());
+        assertThat(patientSearchService.search("\u043f\u0435\u0442\u0440", null)).extracting(PatientResponse::id).containsExactly(ivan.id());
+        assertThat(patientSearchService.search("\u03c0\u03b1\u03c0\u03b1\u03b4\u03b1\u03ba\u03b7\u03c2", null)).extracting(PatientResponse::id).containsExactly(eleni.id());
+    }
+
+    @Test
+    void search_ShouldFollowUpdatesAndDeletes() {
+        // Given
+        PatientResponse patient = create("Eleanor", "Johnson", null, "SR-200");
+
+        // When
+        patientService.update(patient.id(), request("Eleanor", "Whitfield", null, "SR-201"));
+
+        // Then
+        assertThat(patientSearchService.search("johnson", null)).isEmpty();
+        assertThat(patientSearchService.search("whitf", null)).extracting(PatientResponse::id).containsExactly(patient.id());
+
+        // When
+        patientService.delete(patient.id());
+
+        // Then
+        assertThat(patientSearchService.search("whitf", null)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldIgnoreRolledBackChanges() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            patientService.create(request("Rolled", "Back", null, "SR-300"));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(patientSearchService.search("rolled", null)).isEmpty();
+    }
+
+    @Test
+    void rebuild_ShouldPickUpRowsWrittenElsewhere() {
+        // Given
+        patientRepository.save(Patient.builder().firstName("Outside").lastName("Writer").nationalId("SR-400").build());
+        assertThat(patientSearchService.search("outside", null)).isEmpty();
+
+        // When
+        patientSearchService.rebuild();
+
+        // Then
+        assertThat(patientSearchService.search("outside", null)).extracting(PatientResponse::lastName).containsExactly("Writer");
+    }
+
+    @Test
+    void search_ShouldCostOneStatement() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            create("Sam", "Carter " + i, null, "SR-50" + i);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When
+        List<PatientResponse> results = patientSearchService.search("sam cart", 5);
+
+        // Then
+        assertThat(results).hasSize(5);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private PatientResponse create(String firstName, String lastName, String phone, String nationalId) {
+        return patientService.create(request(firstName, lastName, phone, nationalId));
+    }
+
+    private static PatientCreateRequest request(String firstName, String lastName, String phone, String nationalId) {
+        return new PatientCreateRequest(firstName, lastName, nationalId, null, null, phone,
+                null, null, null, null, null, null, null, null, null, null, null);
+    }
+}
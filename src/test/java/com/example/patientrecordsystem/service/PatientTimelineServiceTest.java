@@ -0,0 +1,155 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.TimelineEntry;
+import com.example.patientrecordsystem.entity.*;
+import com.example.patientrecordsystem.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.webjars.NotFoundException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class PatientTimelineServiceTest {
+
+    private static final Instant BASE = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private PatientTimelineService patientTimelineService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientVisitRepository visitRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private MedicalRecordRepository recordRepository;
+
+    private User user;
+    private Patient patient;
+    private Patient otherPatient;
+
+    @BeforeEach
+    void setUp() {
+        Department department = departmentRepository.save(new Department("Timeline", null, true));
+        user = userRepository.save(User.builder().email(UUID.randomUUID() + "@timeline.test")
+                .passwordHash("x").role("DOCTOR").build());
+        Doctor doctor = doctorRepository.save(Doctor.builder().user(user).department(department)
+                .licenseNumber("TL-" + UUID.randomUUID()).isActive(true).build());
+        patient = patientRepository.save(Patient.builder().firstName("Time").lastName("Line").nationalId("TL-1").build());
+        otherPatient = patientRepository.save(Patient.builder().firstName("Other").lastName("Line").nationalId("TL-2").build());
+        for (Patient p : List.of(patient, otherPatient)) {
+            for (int i = 0; i < 3; i++) {
+                // every type shares the same three dates, so ordering must fall back to the id
+                Instant at = BASE.plusSeconds(3600L * i);
+                appointmentRepository.save(Appointment.builder().patient(p).doctor(doctor).department(department)
+                        .appointmentDate(at).status("SCHEDULED").build());
+                visitRepository.save(PatientVisit.builder().patient(p).doctor(doctor).visitDate(at).diagnosis("D" + i).build());
+                prescriptionRepository.save(Prescription.builder().patient(p).doctor(doctor).medicationName("M" + i)
+                        .issuedAt(at).build());
+                recordRepository.save(MedicalRecord.builder().patient(p).doctor(doctor).recordType("NOTE").build());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAllInBatch();
+        visitRepository.deleteAllInBatch();
+        prescriptionRepository.deleteAllInBatch();
+        recordRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void timeline_ShouldWalkEveryItemOfThePatientOnceNewestFirst() {
+        // Given
+        List<TimelineEntry> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        // When
+        do {
+            PageResponse<TimelineEntry> page = patientTimelineService.timeline(patient.getId(), cursor, 5);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(12);
+        assertThat(seen).extracting(TimelineEntry::id).doesNotHaveDuplicates();
+        assertThat(seen).extracting(TimelineEntry::type)
+                .containsOnly("APPOINTMENT", "VISIT", "PRESCRIPTION", "RECORD");
+        assertThat(seen.subList(9, 12)).extracting(TimelineEntry::type).containsOnly("RECORD");
+        for (int i = 1; i < seen.size(); i++) {
+            assertThat(seen.get(i).occurredAt()).isBeforeOrEqualTo(seen.get(i - 1).occurredAt());
+        }
+    }
+
+    @Test
+    void timeline_ShouldRunOneQueryPerType() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Thread caller = Thread.currentThread();
+        StatementCounter.start(thread -> thread == caller || thread.getName().startsWith("patient-timeline-"));
+
+        // When
+        PageResponse<TimelineEntry> page = patientTimelineService.timeline(patient.getId(), null, 4);
+
+        // Then
+        assertThat(page.items()).hasSize(4);
+        assertThat(StatementCounter.count()).isEqualTo(4);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void timeline_WithUnknownPatient_ShouldFail() {
+        assertThatThrownBy(() -> patientTimelineService.timeline(UUID.randomUUID(), null, null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void timeline_WithMalformedCursor_ShouldFail() {
+        assertThatThrownBy(() -> patientTimelineService.timeline(patient.getId(), "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.webjars.NotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void rotate_ShouldIssueSuccessorWithSingleLookup() {
+        // Given
+        User user = userRepository.save(new User("rotate@example.com", "hash", "Ro", "Tate", "PATIENT", null));
+        String first = refreshTokenService.issue(user);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        // Then
+        assertThat(rotation.user().getEmail()).isEqualTo("rotate@example.com");
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rotate_WhenTokenReused_ShouldRevokeWholeFamily() {
+        // Given
+        User user = userRepository.save(new User("reuse@example.com", "hash", "Re", "Use", "PATIENT", null));
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(first)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(second)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void rotate_WithUnknownToken_ShouldFail() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown")).isInstanceOf(NotFoundException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.patientrecordsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StripedTokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldAllowTheBurstAndThenRefillOneTokenPerPeriod() {
+        // Given
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(2, 1, TimeUnit.SECONDS, 4, 16, clock::get);
+
+        // When & Then
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isCloseTo(TimeUnit.SECONDS.toNanos(1), within(1_000L));
+        assertThat(limiter.tryAcquire("b")).isZero();
+        advance(500);
+        assertThat(limiter.tryAcquire("a")).isCloseTo(TimeUnit.MILLISECONDS.toNanos(500), within(1_000L));
+        advance(500);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_WhenEveryBucketIsThrottled_ShouldRejectNewKeysUntilOneRefills() {
+        // Given one stripe of eight buckets, all below capacity
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(1, 1, TimeUnit.HOURS, 1, 8, clock::get);
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire("key" + i);
+            advance(1);
+        }
+
+        // When
+        long ninth = limiter.tryAcquire("key8");
+
+        // Then the new key waits for the oldest bucket to refill, and no tracked key starts over
+        assertThat(ninth).isCloseTo(TimeUnit.HOURS.toNanos(1) - TimeUnit.MILLISECONDS.toNanos(8), within(1_000L));
+        assertThat(limiter.tryAcquire("key0")).isPositive();
+        assertThat(limiter.tryAcquire("key7")).isPositive();
+        clock.addAndGet(ninth);
+        assertThat(limiter.tryAcquire("key8")).isZero();
+    }
+
+    @Test
+    void tryAcquire_ShouldReclaimRefilledBucketsBeforeEvictingThrottledKeys() {
+        // Given
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(2, 10, TimeUnit.SECONDS, 1, 8, clock::get);
+        limiter.tryAcquire("throttled");
+        limiter.tryAcquire("throttled");
+        advance(1_000);
+        for (int i = 0; i < 7; i++) {
+            limiter.tryAcquire("refilled" + i);
+        }
+        advance(11_000);
+
+        // When
+        for (int i = 0; i < 7; i++) {
+            assertThat(limiter.tryAcquire("new" + i)).isZero();
+        }
+
+        // Then the least recently used key, not yet refilled, keeps its bucket of 1.2 tokens
+        assertThat(limiter.tryAcquire("throttled")).isZero();
+        assertThat(limiter.tryAcquire("throttled")).isPositive();
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.PatientCreateRequest;
+import com.example.patientrecordsystem.dto.PatientResponse;
+import com.example.patientrecordsystem.dto.SyncChange;
+import com.example.patientrecordsystem.dto.SyncResponse;
+import com.example.patientrecordsystem.entity.*;
+import com.example.patientrecordsystem.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "app.sync.settle-ms=0")
+class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientVisitRepository visitRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private MedicalRecordRepository recordRepository;
+
+    @Autowired
+    private DeletionTombstoneRepository tombstoneRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private Doctor doctor;
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        department = departmentRepository.save(new Department("Sync", null, true));
+        User user = userRepository.save(User.builder().email(UUID.randomUUID() + "@sync.test")
+                .passwordHash("x").role("DOCTOR").build());
+        userIds.add(user.getId());
+        doctor = doctorRepository.save(Doctor.builder().user(user).department(department)
+                .licenseNumber("SY-" + UUID.randomUUID()).isActive(true).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAllInBatch();
+        visitRepository.deleteAllInBatch();
+        prescriptionRepository.deleteAllInBatch();
+        recordRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+        userRepository.deleteAllByIdInBatch(userIds);
+        userIds.clear();
+    }
+
+    @Test
+    void changes_ShouldReturnOnlyWhatChangedSinceTheCursor() {
+        // Given
+        Patient patient = patientWithItems("SY-1");
+        List<SyncChange> initial = new ArrayList<>();
+        String cursor = drain(null, initial);
+
+        // When
+        patientService.update(patient.getId(), request("Renamed", "SY-1b"));
+        Prescription added = prescriptionRepository.save(Prescription.builder().patient(patient).doctor(doctor)
+                .medicationName("Added").build());
+        List<SyncChange> delta = new ArrayList<>();
+        drain(cursor, delta);
+
+        // Then
+        assertThat(initial).extracting(SyncChange::id).contains(patient.getId()).doesNotHaveDuplicates();
+        assertThat(delta).extracting(SyncChange::type, SyncChange::id, SyncChange::deleted).containsExactly(
+                tuple(DeletionTombstone.PATIENT, patient.getId(), false),
+                tuple(DeletionTombstone.PRESCRIPTION, added.getId(), false));
+        assertThat(((PatientResponse) delta.get(0).data()).firstName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void changes_ShouldReportDeletionsOfAPatientAndItsItems() {
+        // Given
+        Patient patient = patientWithItems("SY-2");
+        Patient other = patientWithItems("SY-3");
+        UUID otherPrescription = prescriptionRepository.findAll().stream()
+                .filter(p -> p.getPatient().getId().equals(other.getId())).findFirst().orElseThrow().getId();
+        String cursor = drain(null, new ArrayList<>());
+
+        // When
+        patientService.delete(patient.getId());
+        prescriptionService.delete(otherPrescription);
+        List<SyncChange> delta = new ArrayList<>();
+        drain(cursor, delta);
+
+        // Then
+        assertThat(delta).allMatch(SyncChange::deleted).allMatch(change -> change.data() == null);
+        assertThat(delta).extracting(SyncChange::type).containsExactlyInAnyOrder(DeletionTombstone.PATIENT,
+                DeletionTombstone.APPOINTMENT, DeletionTombstone.VISIT, DeletionTombstone.PRESCRIPTION,
+                DeletionTombstone.RECORD, DeletionTombstone.PRESCRIPTION);
+        assertThat(delta).extracting(SyncChange::id).contains(patient.getId(), otherPrescription);
+    }
+
+    @Test
+    void backfill_ShouldMakeRowsWithoutUpdatedAtVisibleToEveryClient() {
+        // Given
+        Patient patient = patientWithItems("SY-5");
+        String cursor = drain(null, new ArrayList<>());
+        for (String table : List.of("patient_visits", "prescriptions", "medical_records")) {
+            jdbcTemplate.update("update " + table + " set updated_at = null where patient_id = ?", patient.getId());
+        }
+        List<SyncChange> before = new ArrayList<>();
+        drain(null, before);
+
+        // When
+        int updated = syncService.backfill();
+        List<SyncChange> fresh = new ArrayList<>();
+        drain(null, fresh);
+        List<SyncChange> delta = new ArrayList<>();
+        drain(cursor, delta);
+
+        // Then
+        assertThat(before).extracting(SyncChange::type)
+                .doesNotContain(DeletionTombstone.VISIT, DeletionTombstone.PRESCRIPTION, DeletionTombstone.RECORD);
+        assertThat(updated).isEqualTo(3);
+        assertThat(fresh).extracting(SyncChange::type).contains(
+                DeletionTombstone.VISIT, DeletionTombstone.PRESCRIPTION, DeletionTombstone.RECORD);
+        assertThat(delta).extracting(SyncChange::type).containsExactlyInAnyOrder(
+                DeletionTombstone.VISIT, DeletionTombstone.PRESCRIPTION, DeletionTombstone.RECORD);
+        assertThat(syncService.backfill()).isZero();
+    }
+
+    @Test
+    void changes_WithNothingNew_ShouldCostOneIndexProbePerTable() {
+        // Given
+        patientWithItems("SY-4");
+        String cursor = drain(null, new ArrayList<>());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When
+        SyncResponse response = syncService.changes(cursor, null);
+
+        // Then
+        assertThat(response.changes()).isEmpty();
+        assertThat(response.hasMore()).isFalse();
+        assertThat(response.nextCursor()).isNotNull();
+        assertThat(StatementCounter.count()).isEqualTo(6);
+    }
+
+    @Test
+    void changeRangeScan_ShouldUseTheUpdatedAtIndex() {
+        // When
+        String plan = jdbcTemplate.queryForObject("explain select id from patient_visits where updated_at >= ?"
+                + " and updated_at <= ? order by updated_at, id", String.class, Instant.now(), Instant.now());
+
+        // Then
+        assertThat(plan).containsIgnoringCase("idx_patient_visits_updated_at");
+    }
+
+    @Test
+    void changes_WithCursorOlderThanTombstoneRetention_ShouldFail() {
+        String expired = new DateIdCursor(Instant.now().minus(Duration.ofDays(31)), UUID.randomUUID()).encode();
+
+        assertThatThrownBy(() -> syncService.changes(expired, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Follows the feed in small batches until it is caught up, returning the final cursor.
+     */
+    private String drain(String since, List<SyncChange> into) {
+        String cursor = since;
+        SyncResponse response;
+        do {
+            response = syncService.changes(cursor, 2);
+            into.addAll(response.changes());
+            cursor = response.nextCursor();
+        } while (response.hasMore());
+        return cursor;
+    }
+
+    private Patient patientWithItems(String nationalId) {
+        Patient patient = patientRepository.save(Patient.builder().firstName("Sync").lastName(nationalId)
+                .nationalId(nationalId).build());
+        appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor).department(department)
+                .appointmentDate(Instant.now()).status("SCHEDULED").build());
+        visitRepository.save(PatientVisit.builder().patient(patient).doctor(doctor).visitDate(Instant.now()).build());
+        prescriptionRepository.save(Prescription.builder().patient(patient).doctor(doctor).medicationName("Drug").build());
+        recordRepository.save(MedicalRecord.builder().patient(patient).doctor(doctor).recordType("NOTE").build());
+        return patient;
+    }
+
+    private static PatientCreateRequest request(String firstName, String nationalId) {
+        return new PatientCreateRequest(firstName, "Sync", nationalId, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null);
+    }
+}
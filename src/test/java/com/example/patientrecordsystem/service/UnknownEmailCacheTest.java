@@ -0,0 +1,77 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.LoginRequest;
+import com.example.patientrecordsystem.dto.RegisterRequest;
+import com.example.patientrecordsystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.webjars.NotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class UnknownEmailCacheTest {
+
+    @Autowired
+    private UnknownEmailCache unknownEmailCache;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void login_ForUnknownEmail_ShouldBeRejectedFromTheCacheTheSecondTime() {
+        // Given
+        LoginRequest login = new LoginRequest("nobody@unknown.test", "secret");
+        assertThatThrownBy(() -> authService.login(login)).isInstanceOf(NotFoundException.class);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When & Then
+        assertThatThrownBy(() -> authService.login(login)).isInstanceOf(NotFoundException.class);
+        assertThat(unknownEmailCache.isKnownUnknown("nobody@unknown.test")).isTrue();
+        assertThat(StatementCounter.count()).isZero();
+    }
+
+    @Test
+    void register_ShouldForgetThatTheEmailWasUnknown() {
+        // Given
+        LoginRequest login = new LoginRequest("late@unknown.test", "secret");
+        assertThatThrownBy(() -> authService.login(login)).isInstanceOf(NotFoundException.class);
+
+        // When
+        authService.register(new RegisterRequest("late@unknown.test", "secret", null, "La", "Te", null));
+
+        // Then
+        assertThat(unknownEmailCache.isKnownUnknown("late@unknown.test")).isFalse();
+        assertThat(authService.login(login).accessToken()).isNotBlank();
+        userRepository.delete(userRepository.findByEmail("late@unknown.test").orElseThrow());
+    }
+
+    @Test
+    void recordUnknown_WhenInvalidatedSinceTheStamp_ShouldNotCacheTheMiss() {
+        // Given
+        long stamp = unknownEmailCache.stamp();
+
+        // When
+        unknownEmailCache.forget("racing@unknown.test");
+        unknownEmailCache.recordUnknown("racing@unknown.test", stamp);
+        unknownEmailCache.recordUnknown("settled@unknown.test", unknownEmailCache.stamp());
+
+        // Then
+        assertThat(unknownEmailCache.isKnownUnknown("racing@unknown.test")).isFalse();
+        assertThat(unknownEmailCache.isKnownUnknown("settled@unknown.test")).isTrue();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.PageResponse;
+import com.example.patientrecordsystem.dto.UserResponse;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class UserDirectoryServiceTest {
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllByIdInBatch(userIds);
+        userIds.clear();
+    }
+
+    @Test
+    void search_ShouldMatchNormalizedPrefixes() {
+        // Given
+        UUID nunez = user("Zoë", "Núñez-Qadir");
+        user("Zack", "Nunn");
+        user("Anna", "Qadir");
+
+        // When & Then
+        assertThat(userDirectoryService.search("nunezq", null, null, null).items())
+                .extracting(UserResponse::id).containsExactly(nunez);
+        assertThat(userDirectoryService.search("NÚÑE", null, null, null).items()).hasSize(1);
+        assertThat(userDirectoryService.search("nun", "zo", null, null).items())
+                .extracting(UserResponse::id).containsExactly(nunez);
+        assertThat(userDirectoryService.search(null, "za", null, null).items())
+                .extracting(UserResponse::lastName).containsExactly("Nunn");
+    }
+
+    @Test
+    void search_ShouldWalkPagesInNameOrderWithoutDuplicates() {
+        // Given
+        for (int i = 0; i < 7; i++) {
+            user("Sam", i % 2 == 0 ? "Qorvath" : "Qorvell");
+        }
+        List<UserResponse> seen = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            PageResponse<UserResponse> page = userDirectoryService.search("qorv", null, cursor, 3);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).hasSize(7);
+        assertThat(seen).extracting(UserResponse::id).doesNotHaveDuplicates();
+        assertThat(seen).extracting(UserResponse::lastName)
+                .containsExactly("Qorvath", "Qorvath", "Qorvath", "Qorvath", "Qorvell", "Qorvell", "Qorvell");
+    }
+
+    @Test
+    void search_ShouldCapThePageSizeAndCostOneStatement() {
+        // Given
+        for (int i = 0; i < 60; i++) {
+            user("Many", "Quillon");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When
+        PageResponse<UserResponse> page = userDirectoryService.search("quil", null, null, 500);
+
+        // Then
+        assertThat(page.items()).hasSize(50);
+        assertThat(page.nextCursor()).isNotNull();
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void search_WithPrefixEndingInZOrNine_ShouldUseACollationSafeBound() {
+        // Given
+        UUID lutz = user("Otto", "Lutz");
+        UUID lutzow = user("Ida", "Lützow");
+        user("Uwe", "Luu");
+        user("Ada", "Lu-zz9");
+
+        // When & Then
+        assertThat(userDirectoryService.search("lutz", null, null, null).items())
+                .extracting(UserResponse::id).containsExactly(lutz, lutzow);
+        assertThat(userDirectoryService.search("luzz", null, null, null).items())
+                .extracting(UserResponse::lastName).containsExactly("Lu-zz9");
+        assertThat(userDirectoryService.search("luzz9", null, null, null).items()).hasSize(1);
+        assertThat(User.nameKeyUpperBound("lutz")).isEqualTo("luu");
+        assertThat(User.nameKeyUpperBound("luzz9")).isEqualTo("luzza");
+        assertThat(User.nameKeyUpperBound("luzz")).isEqualTo("lv");
+        assertThat(User.nameKeyUpperBound("zz")).isNull();
+        assertThat(User.nameKeyUpperBound("smø")).isEqualTo("sn");
+    }
+
+    @Test
+    void search_WithoutName_ShouldFail() {
+        assertThatThrownBy(() -> userDirectoryService.search(" ", "--", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void backfill_ShouldFillMissingNameKeys() {
+        // Given
+        UUID id = user("Legacy", "Qwenton");
+        jdbcTemplate.update("update users set first_name_key = null, last_name_key = null where id = ?", id);
+        assertThat(userDirectoryService.search("qwen", null, null, null).items()).isEmpty();
+
+        // When
+        int updated = userDirectoryService.backfill();
+
+        // Then
+        assertThat(updated).isGreaterThanOrEqualTo(1);
+        assertThat(userDirectoryService.search("qwen", null, null, null).items())
+                .extracting(UserResponse::id).containsExactly(id);
+    }
+
+    @Test
+    void prefixRange_ShouldUseTheNameKeyIndex() {
+        // When
+        String plan = jdbcTemplate.queryForObject("explain select id from users where last_name_key >= ?"
+                + " and last_name_key < ? order by last_name_key, id", String.class, "smi", "smj");
+
+        // Then
+        assertThat(plan).containsIgnoringCase("idx_users_last_name_key");
+    }
+
+    @Test
+    void bootstrapAdmin_ShouldPromoteOnlyWhileNoAdminExists() {
+        // Given
+        List<UUID> admins = jdbcTemplate.queryForList("select id from users where role = 'ADMIN'", UUID.class);
+        jdbcTemplate.update("update users set role = 'STAFF' where role = 'ADMIN'");
+        UUID first = user("Boot", "Strap");
+        UUID second = user("Late", "Comer");
+        try {
+            // When
+            boolean promoted = userDirectoryService.bootstrapAdmin(userRepository.findById(first).orElseThrow().getEmail());
+            boolean promotedAgain = userDirectoryService.bootstrapAdmin(userRepository.findById(second).orElseThrow().getEmail());
+
+            // Then
+            assertThat(promoted).isTrue();
+            assertThat(promotedAgain).isFalse();
+            assertThat(userRepository.findById(first).orElseThrow().getRole()).isEqualTo(User.ADMIN);
+            assertThat(userRepository.findById(second).orElseThrow().getRole()).isEqualTo("STAFF");
+        } finally {
+            admins.forEach(id -> jdbcTemplate.update("update users set role = 'ADMIN' where id = ?", id));
+        }
+    }
+
+    private UUID user(String firstName, String lastName) {
+        User user = userRepository.save(User.builder().email(UUID.randomUUID() + "@directory.test")
+                .passwordHash("x").role("STAFF").firstName(firstName).lastName(lastName).build());
+        userIds.add(user.getId());
+        return user.getId();
+    }
+}
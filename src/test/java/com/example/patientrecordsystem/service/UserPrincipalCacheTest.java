@@ -0,0 +1,110 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.config.AuthenticatedUser;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserPrincipalCacheTest {
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllByIdInBatch(userIds);
+        userIds.clear();
+    }
+
+    @Test
+    void get_ShouldServeRepeatsWithoutAQuery() {
+        // Given
+        user("cached@principal.test", "Ca", "Ched");
+        principalCache.get("cached@principal.test");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When
+        AuthenticatedUser principal = principalCache.get("cached@principal.test").orElseThrow();
+
+        // Then
+        assertThat(principal.role()).isEqualTo("STAFF");
+        assertThat(StatementCounter.count()).isZero();
+    }
+
+    @Test
+    void update_ShouldEvictThePrincipalCachedUnderTheOldEmail() {
+        // Given
+        User user = user("before@principal.test", "Be", "Fore");
+        assertThat(principalCache.get("before@principal.test")).isPresent();
+
+        // When
+        user.setEmail("after@principal.test");
+        user.setRole("NURSE");
+        userRepository.save(user);
+
+        // Then
+        assertThat(principalCache.get("before@principal.test")).isEmpty();
+        assertThat(principalCache.get("after@principal.test")).get()
+                .extracting(AuthenticatedUser::role).isEqualTo("NURSE");
+    }
+
+    @Test
+    void delete_ShouldEvictThePrincipal() {
+        // Given
+        User user = user("gone@principal.test", "Go", "Ne");
+        assertThat(principalCache.get("gone@principal.test")).isPresent();
+
+        // When
+        userRepository.delete(user);
+
+        // Then
+        assertThat(principalCache.get("gone@principal.test")).isEmpty();
+    }
+
+    @Test
+    void evict_ById_ShouldDropTheEntryWithoutKnowingTheEmail() {
+        // Given
+        User user = user("byid@principal.test", "By", "Id");
+        principalCache.get("byid@principal.test");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When
+        principalCache.evict(user.getId(), null);
+        statistics.clear();
+        StatementCounter.start();
+        principalCache.get("byid@principal.test");
+
+        // Then
+        assertThat(StatementCounter.count()).isEqualTo(1);
+    }
+
+    private User user(String email, String firstName, String lastName) {
+        User user = userRepository.save(new User(email, "hash", firstName, lastName, "STAFF", null));
+        userIds.add(user.getId());
+        return user;
+    }
+}
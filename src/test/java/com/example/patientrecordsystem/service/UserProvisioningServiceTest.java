@@ -0,0 +1,80 @@
+package com.example.patientrecordsystem.service;
+
+import com.example.patientrecordsystem.StatementCounter;
+import com.example.patientrecordsystem.dto.BulkRegisterResponse;
+import com.example.patientrecordsystem.dto.BulkRegisterResult;
+import com.example.patientrecordsystem.dto.RegisterRequest;
+import com.example.patientrecordsystem.entity.User;
+import com.example.patientrecordsystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "auth.hashing.bulk-strength=4")
+class UserProvisioningServiceTest {
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void registerAll_ShouldReportEveryRowInOrder() {
+        // Given
+        userRepository.save(new User("taken@example.com", "hash", "Ta", "Ken", "PATIENT", null));
+        List<RegisterRequest> rows = List.of(
+                new RegisterRequest("new1@example.com", "secret", "PATIENT", "New", "One", null),
+                new RegisterRequest("taken@example.com", "secret", "PATIENT", "Ta", "Ken", null),
+                new RegisterRequest("new1@example.com", "secret", "PATIENT", "New", "Again", null),
+                new RegisterRequest("", "secret", "PATIENT", null, null, null),
+                new RegisterRequest("admin@example.com", "secret", "admin", "Ad", "Min", null),
+                new RegisterRequest("norole@example.com", "secret", null, "No", "Role", null)
+        );
+
+        // When
+        BulkRegisterResponse response = userProvisioningService.registerAll(rows);
+
+        // Then
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.failed()).isEqualTo(5);
+        assertThat(response.results()).extracting(BulkRegisterResult::status)
+                .containsExactly("CREATED", "DUPLICATE", "DUPLICATE", "INVALID", "INVALID", "INVALID");
+        assertThat(response.results().get(4).message()).isEqualTo("role ADMIN cannot be assigned in bulk");
+        assertThat(userRepository.findByEmail("admin@example.com")).isEmpty();
+        assertThat(response.results().get(0).id()).isNotNull();
+        assertThat(userRepository.findByEmail("new1@example.com")).isPresent();
+    }
+
+    @Test
+    void registerAll_ShouldUseOneLookupAndBatchedInserts() {
+        // Given
+        List<RegisterRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(new RegisterRequest("bulk" + i + "@example.com", "secret", "NURSE", "Bulk", "User" + i, null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementCounter.start();
+
+        // When
+        BulkRegisterResponse response = userProvisioningService.registerAll(rows);
+
+        // Then
+        assertThat(response.created()).isEqualTo(120);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(StatementCounter.count()).isLessThanOrEqualTo(5);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.patientrecordsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, 100, 900);
+
+    @Test
+    void parse_ShouldVerifyEachTokenOnceAndServeRepeatsFromTheCache() {
+        // Given
+        JwtClaims claims = claims("a@example.com", Instant.now().plusSeconds(60));
+        when(jwtService.parse("token-a")).thenReturn(claims);
+
+        // When
+        cache.parse("token-a");
+        JwtClaims again = cache.parse("token-a");
+
+        // Then
+        assertThat(again).isSameAs(claims);
+        verify(jwtService, times(1)).parse("token-a");
+    }
+
+    @Test
+    void parse_ShouldKeepDistinctTokensApart() {
+        // Given tokens that only differ in a character outside ASCII
+        JwtClaims first = claims("a@example.com", Instant.now().plusSeconds(60));
+        JwtClaims second = claims("b@example.com", Instant.now().plusSeconds(60));
+        when(jwtService.parse("tok€n")).thenReturn(first);
+        when(jwtService.parse("tok£n")).thenReturn(second);
+
+        // When
+        JwtClaims one = cache.parse("tok€n");
+        JwtClaims other = cache.parse("tok£n");
+
+        // Then
+        assertThat(one.subject()).isEqualTo("a@example.com");
+        assertThat(other.subject()).isEqualTo("b@example.com");
+        verify(jwtService).parse("tok£n");
+    }
+
+    @Test
+    void parse_AfterTheTokenExpires_ShouldNeverServeTheCachedEntry() throws InterruptedException {
+        // Given
+        when(jwtService.parse("short-lived"))
+                .thenReturn(claims("a@example.com", Instant.now().plusMillis(100)))
+                .thenThrow(new IllegalArgumentException("expired"));
+        cache.parse("short-lived");
+
+        // When
+        Thread.sleep(150);
+
+        // Then
+        assertThatThrownBy(() -> cache.parse("short-lived")).isInstanceOf(IllegalArgumentException.class);
+        verify(jwtService, times(2)).parse("short-lived");
+    }
+
+    private static JwtClaims claims(String subject, Instant expiresAt) {
+        return new JwtClaims(UUID.randomUUID().toString(), subject, UUID.randomUUID(), "STAFF",
+                null, null, null, Instant.now(), expiresAt);
+    }
+}